@@ -1,14 +1,21 @@
 package com.gestion.hotelera;
 
+import com.gestion.hotelera.config.AsyncProperties;
+import com.gestion.hotelera.config.CachesProperties;
+import com.gestion.hotelera.config.InventarioProperties;
 import com.gestion.hotelera.config.JwtProperties;
 import com.gestion.hotelera.config.MailConfigurationProperties;
+import com.gestion.hotelera.config.RateLimitProperties;
+import com.gestion.hotelera.config.TareasProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties({ JwtProperties.class, MailConfigurationProperties.class })
+@EnableConfigurationProperties({ JwtProperties.class, MailConfigurationProperties.class, AsyncProperties.class,
+        RateLimitProperties.class, CachesProperties.class, TareasProperties.class,
+        InventarioProperties.class })
 @EnableScheduling
 @org.springframework.scheduling.annotation.EnableAsync
 public class HoteleraApplication {
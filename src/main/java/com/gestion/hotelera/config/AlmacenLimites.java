@@ -0,0 +1,11 @@
+package com.gestion.hotelera.config;
+
+public interface AlmacenLimites {
+
+    Resultado consumir(String clave, int capacidad, double tokensPorSegundo);
+
+    int claves();
+
+    record Resultado(boolean permitido, long restantes, long reintentarEnSegundos) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.gestion.hotelera.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class AlmacenLimitesMemoria implements AlmacenLimites {
+
+    private static final Logger log = LoggerFactory.getLogger(AlmacenLimitesMemoria.class);
+
+    private final Map<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+    private final int maxClaves;
+
+    public AlmacenLimitesMemoria(RateLimitProperties properties) {
+        this.maxClaves = Math.max(1, properties.getMaxClaves());
+    }
+
+    @Override
+    public Resultado consumir(String clave, int capacidad, double tokensPorSegundo) {
+        long ahora = System.nanoTime();
+        Cubeta cubeta = cubetas.get(clave);
+        if (cubeta == null) {
+            if (cubetas.size() >= maxClaves) {
+                liberarEspacio(ahora);
+            }
+            cubeta = cubetas.computeIfAbsent(clave, k -> new Cubeta(capacidad, tokensPorSegundo, ahora));
+        }
+        return cubeta.consumir(ahora);
+    }
+
+    @Override
+    public int claves() {
+        return cubetas.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.purga-ms:60000}")
+    public void purgarInactivas() {
+        long ahora = System.nanoTime();
+        int antes = cubetas.size();
+        cubetas.values().removeIf(c -> c.llenaEn(ahora));
+        if (antes != cubetas.size()) {
+            log.debug("Cubetas de rate limit inactivas purgadas: {}", antes - cubetas.size());
+        }
+    }
+
+    private synchronized void liberarEspacio(long ahora) {
+        if (cubetas.size() < maxClaves) {
+            return;
+        }
+        cubetas.values().removeIf(c -> c.llenaEn(ahora));
+        int exceso = cubetas.size() - maxClaves + Math.max(1, maxClaves / 10);
+        if (exceso > 0) {
+            cubetas.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().ultimoUso))
+                    .limit(exceso)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cubetas::remove);
+            log.warn("Límite de {} claves de rate limit alcanzado, {} claves menos usadas descartadas",
+                    maxClaves, exceso);
+        }
+    }
+
+    private static final class Cubeta {
+
+        private final int capacidad;
+        private final double tokensPorNano;
+        private double tokens;
+        private long ultimaRecarga;
+        private volatile long ultimoUso;
+
+        Cubeta(int capacidad, double tokensPorSegundo, long ahora) {
+            this.capacidad = Math.max(1, capacidad);
+            this.tokensPorNano = Math.max(tokensPorSegundo, 1e-9) / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = this.capacidad;
+            this.ultimaRecarga = ahora;
+            this.ultimoUso = ahora;
+        }
+
+        synchronized Resultado consumir(long ahora) {
+            recargar(ahora);
+            ultimoUso = ahora;
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return new Resultado(true, (long) tokens, 0L);
+            }
+            long esperaNanos = (long) Math.ceil((1.0 - tokens) / tokensPorNano);
+            long nanosPorSegundo = TimeUnit.SECONDS.toNanos(1);
+            return new Resultado(false, 0L, Math.max(1L, (esperaNanos + nanosPorSegundo - 1) / nanosPorSegundo));
+        }
+
+        synchronized boolean llenaEn(long ahora) {
+            return tokens + (ahora - ultimaRecarga) * tokensPorNano >= capacidad;
+        }
+
+        private void recargar(long ahora) {
+            if (ahora > ultimaRecarga) {
+                tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * tokensPorNano);
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.gestion.hotelera.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    public static final String EJECUTOR_GENERAL = "taskExecutor";
+    public static final String EJECUTOR_CORREO = "correoExecutor";
+
+    private final AsyncProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AsyncConfig(AsyncProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(name = { EJECUTOR_GENERAL, "applicationTaskExecutor" })
+    @Primary
+    public Executor ejecutorGeneral() {
+        return construir("general", properties.getGeneral());
+    }
+
+    @Bean(name = EJECUTOR_CORREO)
+    public Executor ejecutorCorreo() {
+        return construir("correo", properties.getCorreo());
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return ejecutorGeneral();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, metodo, parametros) -> log.error("Error no controlado en tarea asíncrona {}.{}",
+                metodo.getDeclaringClass().getSimpleName(), metodo.getName(), ex);
+    }
+
+    Executor construir(String nombre, AsyncProperties.Pool pool) {
+        AtomicInteger activos = new AtomicInteger();
+        Gauge.builder("hotel.async.activos", activos, AtomicInteger::get)
+                .description("Tareas asíncronas en ejecución")
+                .tag("pool", nombre)
+                .register(meterRegistry);
+        TaskDecorator decorador = medir(nombre, activos);
+
+        if (pool.isVirtuales()) {
+            if (Runtime.version().feature() >= 21) {
+                SimpleAsyncTaskExecutor ejecutor = new SimpleAsyncTaskExecutor(nombre + "-");
+                ejecutor.setVirtualThreads(true);
+                ejecutor.setConcurrencyLimit(Math.max(1, pool.getHilosMaximo()));
+                ejecutor.setTaskDecorator(decorador);
+                ejecutor.setTaskTerminationTimeout(TimeUnit.SECONDS.toMillis(pool.getEsperaCierreSegundos()));
+                return ejecutor;
+            }
+            log.warn("Hilos virtuales no disponibles en Java {}, el pool '{}' usará hilos de plataforma",
+                    Runtime.version().feature(), nombre);
+        }
+
+        Counter rechazadas = Counter.builder("hotel.async.rechazadas")
+                .description("Tareas asíncronas rechazadas por pool saturado")
+                .tag("pool", nombre)
+                .register(meterRegistry);
+        RejectedExecutionHandler politica = politica(pool.getRechazo());
+
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setThreadNamePrefix(nombre + "-");
+        ejecutor.setCorePoolSize(Math.max(1, pool.getHilosBase()));
+        ejecutor.setMaxPoolSize(Math.max(Math.max(1, pool.getHilosBase()), pool.getHilosMaximo()));
+        ejecutor.setQueueCapacity(Math.max(0, pool.getCapacidadCola()));
+        ejecutor.setKeepAliveSeconds(pool.getKeepAliveSegundos());
+        ejecutor.setRejectedExecutionHandler((tarea, executor) -> {
+            rechazadas.increment();
+            log.warn("Pool asíncrono '{}' saturado, aplicando política {}", nombre, pool.getRechazo());
+            politica.rejectedExecution(tarea, executor);
+        });
+        ejecutor.setTaskDecorator(decorador);
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationSeconds(pool.getEsperaCierreSegundos());
+
+        Gauge.builder("hotel.async.cola", ejecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tareas asíncronas en cola")
+                .tag("pool", nombre)
+                .register(meterRegistry);
+        Gauge.builder("hotel.async.hilos", ejecutor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("Hilos creados en el pool asíncrono")
+                .tag("pool", nombre)
+                .register(meterRegistry);
+        return ejecutor;
+    }
+
+    private TaskDecorator medir(String nombre, AtomicInteger activos) {
+        Timer espera = Timer.builder("hotel.async.tarea.espera")
+                .description("Tiempo de una tarea asíncrona en cola")
+                .tag("pool", nombre)
+                .register(meterRegistry);
+        Timer duracion = Timer.builder("hotel.async.tarea.duracion")
+                .description("Tiempo de ejecución de una tarea asíncrona")
+                .tag("pool", nombre)
+                .register(meterRegistry);
+        return tarea -> {
+            long encolada = System.nanoTime();
+            return () -> {
+                long inicio = System.nanoTime();
+                espera.record(inicio - encolada, TimeUnit.NANOSECONDS);
+                activos.incrementAndGet();
+                try {
+                    tarea.run();
+                } finally {
+                    activos.decrementAndGet();
+                    duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    private static RejectedExecutionHandler politica(AsyncProperties.Rechazo rechazo) {
+        return switch (rechazo != null ? rechazo : AsyncProperties.Rechazo.CALLER_RUNS) {
+            case ABORTAR -> new ThreadPoolExecutor.AbortPolicy();
+            case DESCARTAR -> new ThreadPoolExecutor.DiscardPolicy();
+            case DESCARTAR_ANTIGUA -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.gestion.hotelera.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+
+    public enum Rechazo {
+        CALLER_RUNS, ABORTAR, DESCARTAR, DESCARTAR_ANTIGUA
+    }
+
+    private Pool general = new Pool(2, 8, 200, Rechazo.CALLER_RUNS);
+    private Pool correo = new Pool(2, 4, 500, Rechazo.CALLER_RUNS);
+
+    public Pool getGeneral() { return general; }
+    public void setGeneral(Pool general) { this.general = general; }
+    public Pool getCorreo() { return correo; }
+    public void setCorreo(Pool correo) { this.correo = correo; }
+
+    public static class Pool {
+        private int hilosBase;
+        private int hilosMaximo;
+        private int capacidadCola;
+        private Rechazo rechazo;
+        private int keepAliveSegundos = 60;
+        private int esperaCierreSegundos = 10;
+        private boolean virtuales = false;
+
+        public Pool() {
+            this(2, 4, 500, Rechazo.CALLER_RUNS);
+        }
+
+        public Pool(int hilosBase, int hilosMaximo, int capacidadCola, Rechazo rechazo) {
+            this.hilosBase = hilosBase;
+            this.hilosMaximo = hilosMaximo;
+            this.capacidadCola = capacidadCola;
+            this.rechazo = rechazo;
+        }
+
+        public int getHilosBase() { return hilosBase; }
+        public void setHilosBase(int hilosBase) { this.hilosBase = hilosBase; }
+        public int getHilosMaximo() { return hilosMaximo; }
+        public void setHilosMaximo(int hilosMaximo) { this.hilosMaximo = hilosMaximo; }
+        public int getCapacidadCola() { return capacidadCola; }
+        public void setCapacidadCola(int capacidadCola) { this.capacidadCola = capacidadCola; }
+        public Rechazo getRechazo() { return rechazo; }
+        public void setRechazo(Rechazo rechazo) { this.rechazo = rechazo; }
+        public int getKeepAliveSegundos() { return keepAliveSegundos; }
+        public void setKeepAliveSegundos(int keepAliveSegundos) { this.keepAliveSegundos = keepAliveSegundos; }
+        public int getEsperaCierreSegundos() { return esperaCierreSegundos; }
+        public void setEsperaCierreSegundos(int esperaCierreSegundos) { this.esperaCierreSegundos = esperaCierreSegundos; }
+        public boolean isVirtuales() { return virtuales; }
+        public void setVirtuales(boolean virtuales) { this.virtuales = virtuales; }
+    }
+}
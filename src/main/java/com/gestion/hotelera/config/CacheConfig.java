@@ -0,0 +1,43 @@
+package com.gestion.hotelera.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "app.cache.habilitado", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    public static final String SERVICIOS = "servicios";
+    public static final String DESCUENTOS = "descuentos";
+    public static final String CONFIGURACION = "configuracion";
+
+    private static final List<String> ESPACIOS = List.of(SERVICIOS, DESCUENTOS, CONFIGURACION);
+
+    @Bean
+    public CacheManager cacheManager(CachesProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        for (String nombre : ESPACIOS) {
+            cacheManager.registerCustomCache(nombre, construir(properties.espacio(nombre)).build());
+        }
+        cacheManager.setCaffeine(construir(properties.getPorDefecto()));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static Caffeine<Object, Object> construir(CachesProperties.Espacio espacio) {
+        return Caffeine.newBuilder()
+                .maximumSize(Math.max(1, espacio.getMaxEntradas()))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, espacio.getTtlSegundos())))
+                .recordStats();
+    }
+}
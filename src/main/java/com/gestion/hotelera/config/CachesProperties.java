@@ -0,0 +1,50 @@
+package com.gestion.hotelera.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.cache")
+public class CachesProperties {
+
+    private boolean habilitado = true;
+    private long httpMaxAgeSegundos = 15;
+    private Espacio porDefecto = new Espacio(500, 600);
+    private Map<String, Espacio> espacios = new LinkedHashMap<>(Map.of(
+            CacheConfig.SERVICIOS, new Espacio(10, 600),
+            CacheConfig.DESCUENTOS, new Espacio(50, 300),
+            CacheConfig.CONFIGURACION, new Espacio(5, 3600)));
+
+    public boolean isHabilitado() { return habilitado; }
+    public void setHabilitado(boolean habilitado) { this.habilitado = habilitado; }
+    public long getHttpMaxAgeSegundos() { return httpMaxAgeSegundos; }
+    public void setHttpMaxAgeSegundos(long httpMaxAgeSegundos) { this.httpMaxAgeSegundos = httpMaxAgeSegundos; }
+    public Espacio getPorDefecto() { return porDefecto; }
+    public void setPorDefecto(Espacio porDefecto) { this.porDefecto = porDefecto; }
+    public Map<String, Espacio> getEspacios() { return espacios; }
+    public void setEspacios(Map<String, Espacio> espacios) { this.espacios = espacios; }
+
+    public Espacio espacio(String nombre) {
+        return espacios.getOrDefault(nombre, porDefecto);
+    }
+
+    public static class Espacio {
+        private long maxEntradas;
+        private long ttlSegundos;
+
+        public Espacio() {
+            this(500, 600);
+        }
+
+        public Espacio(long maxEntradas, long ttlSegundos) {
+            this.maxEntradas = maxEntradas;
+            this.ttlSegundos = ttlSegundos;
+        }
+
+        public long getMaxEntradas() { return maxEntradas; }
+        public void setMaxEntradas(long maxEntradas) { this.maxEntradas = maxEntradas; }
+        public long getTtlSegundos() { return ttlSegundos; }
+        public void setTtlSegundos(long ttlSegundos) { this.ttlSegundos = ttlSegundos; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.gestion.hotelera.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.inventario")
+public class InventarioProperties {
+
+    private Duration retencionTtl = Duration.ofMinutes(15);
+    private int horizonteDias = 365;
+    private int maxNoches = 90;
+    private int loteExpiracion = 500;
+    private int maxHabitacionesRetencion = 10;
+
+    public Duration getRetencionTtl() { return retencionTtl; }
+    public void setRetencionTtl(Duration retencionTtl) { this.retencionTtl = retencionTtl; }
+    public int getHorizonteDias() { return horizonteDias; }
+    public void setHorizonteDias(int horizonteDias) { this.horizonteDias = horizonteDias; }
+    public int getMaxNoches() { return maxNoches; }
+    public void setMaxNoches(int maxNoches) { this.maxNoches = maxNoches; }
+    public int getLoteExpiracion() { return loteExpiracion; }
+    public void setLoteExpiracion(int loteExpiracion) { this.loteExpiracion = loteExpiracion; }
+    public int getMaxHabitacionesRetencion() { return maxHabitacionesRetencion; }
+    public void setMaxHabitacionesRetencion(int maxHabitacionesRetencion) {
+        this.maxHabitacionesRetencion = maxHabitacionesRetencion;
+    }
+}
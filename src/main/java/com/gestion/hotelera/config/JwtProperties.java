@@ -8,6 +8,9 @@ public class JwtProperties {
     private long expiration;
     private String prefix;
     private String header;
+    private boolean sinEstado = true;
+    private int cacheEntradas = 10000;
+    private long cacheTtlMs = 300000;
 
     public String getSecret() { 
         if (secret == null || secret.trim().isEmpty()) {
@@ -27,4 +30,10 @@ public class JwtProperties {
     public void setPrefix(String prefix) { this.prefix = prefix; }
     public String getHeader() { return header; }
     public void setHeader(String header) { this.header = header; }
+    public boolean isSinEstado() { return sinEstado; }
+    public void setSinEstado(boolean sinEstado) { this.sinEstado = sinEstado; }
+    public int getCacheEntradas() { return cacheEntradas; }
+    public void setCacheEntradas(int cacheEntradas) { this.cacheEntradas = cacheEntradas; }
+    public long getCacheTtlMs() { return cacheTtlMs; }
+    public void setCacheTtlMs(long cacheTtlMs) { this.cacheTtlMs = cacheTtlMs; }
 }
\ No newline at end of file
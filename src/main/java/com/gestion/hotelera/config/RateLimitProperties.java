@@ -0,0 +1,60 @@
+package com.gestion.hotelera.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean habilitado = true;
+    private int maxClaves = 100_000;
+    private Politica porDefecto = new Politica("general", "/**", null, null, 1000, 1000);
+    private List<Politica> politicas = new ArrayList<>(List.of(
+            new Politica("login", "/api/auth/login", "POST", null, 10, 10),
+            new Politica("registro", "/api/auth/register", "POST", null, 5, 5)));
+
+    public boolean isHabilitado() { return habilitado; }
+    public void setHabilitado(boolean habilitado) { this.habilitado = habilitado; }
+    public int getMaxClaves() { return maxClaves; }
+    public void setMaxClaves(int maxClaves) { this.maxClaves = maxClaves; }
+    public Politica getPorDefecto() { return porDefecto; }
+    public void setPorDefecto(Politica porDefecto) { this.porDefecto = porDefecto; }
+    public List<Politica> getPoliticas() { return politicas; }
+    public void setPoliticas(List<Politica> politicas) { this.politicas = politicas; }
+
+    public static class Politica {
+        private String nombre;
+        private String patron = "/**";
+        private String metodo;
+        private String rol;
+        private int capacidad = 60;
+        private int porMinuto = 60;
+
+        public Politica() {
+        }
+
+        public Politica(String nombre, String patron, String metodo, String rol, int capacidad, int porMinuto) {
+            this.nombre = nombre;
+            this.patron = patron;
+            this.metodo = metodo;
+            this.rol = rol;
+            this.capacidad = capacidad;
+            this.porMinuto = porMinuto;
+        }
+
+        public String getNombre() { return nombre; }
+        public void setNombre(String nombre) { this.nombre = nombre; }
+        public String getPatron() { return patron; }
+        public void setPatron(String patron) { this.patron = patron; }
+        public String getMetodo() { return metodo; }
+        public void setMetodo(String metodo) { this.metodo = metodo; }
+        public String getRol() { return rol; }
+        public void setRol(String rol) { this.rol = rol; }
+        public int getCapacidad() { return capacidad; }
+        public void setCapacidad(int capacidad) { this.capacidad = capacidad; }
+        public int getPorMinuto() { return porMinuto; }
+        public void setPorMinuto(int porMinuto) { this.porMinuto = porMinuto; }
+    }
+}
@@ -1,46 +1,86 @@
 package com.gestion.hotelera.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private static final int REQUEST_LIMIT = 1000;
-    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private final RateLimitProperties properties;
+    private final AlmacenLimites almacen;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
-    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-
-    public RateLimitingFilter() {
-        scheduler.scheduleAtFixedRate(counters::clear, WINDOW.toMillis(), WINDOW.toMillis(), TimeUnit.MILLISECONDS);
+    public RateLimitingFilter(RateLimitProperties properties, AlmacenLimites almacen, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.almacen = almacen;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("hotel.ratelimit.claves", almacen, AlmacenLimites::claves)
+                .description("Claves con cubeta de rate limit en memoria")
+                .register(meterRegistry);
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
-        String ip = request.getRemoteAddr();
-        AtomicInteger count = counters.computeIfAbsent(ip, k -> new AtomicInteger(0));
-        if (count.incrementAndGet() <= REQUEST_LIMIT) {
+        if (!properties.isHabilitado()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        boolean autenticado = autenticacion != null && autenticacion.isAuthenticated()
+                && !(autenticacion instanceof AnonymousAuthenticationToken);
+        RateLimitProperties.Politica politica = resolverPolitica(request, autenticado ? autenticacion : null);
+        String sujeto = autenticado ? "u:" + autenticacion.getName() : "ip:" + request.getRemoteAddr();
+
+        AlmacenLimites.Resultado resultado = almacen.consumir(politica.getNombre() + "|" + sujeto,
+                politica.getCapacidad(), politica.getPorMinuto() / 60.0);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(politica.getCapacidad()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(resultado.restantes()));
+
+        if (resultado.permitido()) {
+            meterRegistry.counter("hotel.ratelimit.peticiones", "politica", politica.getNombre(),
+                    "resultado", "permitida").increment();
             filterChain.doFilter(request, response);
         } else {
+            meterRegistry.counter("hotel.ratelimit.peticiones", "politica", politica.getNombre(),
+                    "resultado", "rechazada").increment();
             response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(resultado.reintentarEnSegundos()));
             response.getWriter().write("Too many requests - rate limit exceeded");
         }
     }
+
+    RateLimitProperties.Politica resolverPolitica(HttpServletRequest request, Authentication autenticacion) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Politica politica : properties.getPoliticas()) {
+            if (politica.getMetodo() != null && !politica.getMetodo().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (politica.getRol() != null && (autenticacion == null || autenticacion.getAuthorities().stream()
+                    .noneMatch(a -> politica.getRol().equals(a.getAuthority())))) {
+                continue;
+            }
+            if (pathMatcher.match(politica.getPatron(), ruta)) {
+                return politica;
+            }
+        }
+        return properties.getPorDefecto();
+    }
 }
@@ -45,8 +45,9 @@ public class SecurityConfig {
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authenticationProvider(authenticationProvider)
-                                .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
                                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                                .addFilterAfter(rateLimitingFilter,
+                                                com.gestion.hotelera.security.JwtAuthenticationFilter.class)
                                 .authorizeHttpRequests(auth -> auth
                                                 
                                                 .requestMatchers("/api/auth/**", "/api/resenas/aprobadas/**")
@@ -0,0 +1,26 @@
+package com.gestion.hotelera.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.tareas")
+public class TareasProperties {
+
+    private boolean cluster = true;
+    private String nodo;
+    private Duration leaseMaximo = Duration.ofMinutes(30);
+    private Duration leaseMinimo = Duration.ofMinutes(1);
+    private long tamanoTramo = 0;
+
+    public boolean isCluster() { return cluster; }
+    public void setCluster(boolean cluster) { this.cluster = cluster; }
+    public String getNodo() { return nodo; }
+    public void setNodo(String nodo) { this.nodo = nodo; }
+    public Duration getLeaseMaximo() { return leaseMaximo; }
+    public void setLeaseMaximo(Duration leaseMaximo) { this.leaseMaximo = leaseMaximo; }
+    public Duration getLeaseMinimo() { return leaseMinimo; }
+    public void setLeaseMinimo(Duration leaseMinimo) { this.leaseMinimo = leaseMinimo; }
+    public long getTamanoTramo() { return tamanoTramo; }
+    public void setTamanoTramo(long tamanoTramo) { this.tamanoTramo = tamanoTramo; }
+}
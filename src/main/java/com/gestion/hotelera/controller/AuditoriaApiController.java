@@ -1,5 +1,6 @@
 package com.gestion.hotelera.controller;
 
+import com.gestion.hotelera.dto.CursorPage;
 import com.gestion.hotelera.model.Auditoria;
 import com.gestion.hotelera.service.AuditoriaService;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,14 @@ public class AuditoriaApiController {
 
     private final AuditoriaService auditoriaService;
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<Auditoria>> scroll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        return ResponseEntity.ok(auditoriaService.obtenerLogsDesde(cursor, size, total));
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Page<Auditoria>> listarLogs(
@@ -1,6 +1,7 @@
 package com.gestion.hotelera.controller;
 
 import com.gestion.hotelera.dto.ClienteDTO;
+import com.gestion.hotelera.dto.CursorPage;
 import com.gestion.hotelera.model.Cliente;
 import com.gestion.hotelera.service.ClienteService;
 import lombok.AllArgsConstructor;
@@ -39,6 +40,22 @@ public class ClienteApiController {
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ClienteDTO>> scroll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        return ResponseEntity.ok(clienteService.obtenerClientesDesde(cursor, size, total).map(c -> ClienteDTO.builder()
+                .id(c.getId())
+                .nombres(c.getNombres())
+                .apellidos(c.getApellidos())
+                .dni(c.getDni())
+                .email(c.getEmail())
+                .telefono(c.getTelefono())
+                .nacionalidad(c.getNacionalidad())
+                .totalReservas(0L)
+                .build()));
+    }
+
     @GetMapping("/{id}")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'RECEPCIONISTA') or isAuthenticated()")
     public ResponseEntity<ClienteDTO> getById(@PathVariable Long id) {
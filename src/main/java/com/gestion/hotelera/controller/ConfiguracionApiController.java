@@ -2,10 +2,12 @@ package com.gestion.hotelera.controller;
 
 import com.gestion.hotelera.model.ConfiguracionGlobal;
 import com.gestion.hotelera.service.ConfiguracionService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/configuracion")
@@ -14,10 +16,12 @@ import org.springframework.web.bind.annotation.*;
 public class ConfiguracionApiController {
 
     private final ConfiguracionService configuracionService;
+    private final RespuestaCondicional respuestaCondicional;
 
     @GetMapping("/public")
-    public ResponseEntity<ConfiguracionGlobal> getPublicConfig() {
-        return ResponseEntity.ok(configuracionService.obtenerConfiguracion());
+    public ResponseEntity<ConfiguracionGlobal> getPublicConfig(WebRequest request) {
+        return respuestaCondicional.publica(request, Recurso.CONFIGURACION,
+                configuracionService::obtenerConfiguracion);
     }
 
     @GetMapping
@@ -1,8 +1,11 @@
 package com.gestion.hotelera.controller;
 
+import com.gestion.hotelera.dto.Cursor;
+import com.gestion.hotelera.dto.CursorPage;
 import com.gestion.hotelera.model.Empleado;
 import com.gestion.hotelera.model.Usuario;
 import com.gestion.hotelera.repository.EmpleadoRepository;
+import com.gestion.hotelera.security.RevocacionTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +22,7 @@ public class EmpleadoApiController {
 
     private final EmpleadoRepository empleadoRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RevocacionTokenService revocacionTokenService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -26,6 +30,18 @@ public class EmpleadoApiController {
         return empleadoRepository.findAll();
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<Empleado> scroll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        int limite = CursorPage.normalizarTamano(size);
+        Long ultimoId = Cursor.id(cursor);
+        return CursorPage.de(empleadoRepository.findByIdGreaterThanOrderByIdAsc(ultimoId != null ? ultimoId : 0L,
+                CursorPage.ventana(limite)), limite, e -> Cursor.codificar(e.getId()),
+                total ? empleadoRepository.count() : null);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public Empleado getById(@PathVariable long id) {
@@ -81,15 +97,23 @@ public class EmpleadoApiController {
                     String newRol = partial.getUsuario().getRol();
                     if (!newRol.startsWith("ROLE_"))
                         newRol = "ROLE_" + newRol;
+                    if (!newRol.equals(u.getRol())) {
+                        u.incrementarVersionCredenciales();
+                    }
                     u.setRol(newRol);
                 }
 
                 if (partial.getUsuario().getPassword() != null && !partial.getUsuario().getPassword().isEmpty()) {
                     u.setPassword(passwordEncoder.encode(partial.getUsuario().getPassword()));
+                    u.incrementarVersionCredenciales();
                 }
             }
 
-            return ResponseEntity.ok(empleadoRepository.save(existing));
+            Empleado guardado = empleadoRepository.save(existing);
+            if (guardado.getUsuario() != null) {
+                revocacionTokenService.invalidar(guardado.getUsuario().getUsername());
+            }
+            return ResponseEntity.ok(guardado);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().body("Error al actualizar empleado: " + e.getMessage());
@@ -99,6 +123,9 @@ public class EmpleadoApiController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public void delete(@PathVariable long id) {
+        empleadoRepository.findById(id)
+                .map(Empleado::getUsuario)
+                .ifPresent(u -> revocacionTokenService.invalidar(u.getUsername()));
         empleadoRepository.deleteById(id);
     }
 }
@@ -1,10 +1,15 @@
 package com.gestion.hotelera.controller;
 
+import com.gestion.hotelera.dto.CotizacionTipo;
 import com.gestion.hotelera.model.Habitacion;
 import com.gestion.hotelera.service.HabitacionService;
+import com.gestion.hotelera.service.InventarioTipoService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,18 +22,24 @@ public class HabitacionApiController {
     @Autowired
     private HabitacionService habitacionService;
 
+    @Autowired
+    private RespuestaCondicional respuestaCondicional;
+
+    @Autowired
+    private InventarioTipoService inventarioTipoService;
+
     @GetMapping
-    public ResponseEntity<List<RoomDTO>> obtenerTodas() {
-        List<Habitacion> habitaciones = habitacionService.obtenerTodasLasHabitaciones();
-        List<RoomDTO> dtos = habitaciones.stream()
+    public ResponseEntity<List<RoomDTO>> obtenerTodas(WebRequest request) {
+        return respuestaCondicional.publica(request, Recurso.HABITACIONES, () -> habitacionService
+                .obtenerTodasLasHabitaciones().stream()
                 .map(h -> new RoomDTO(
                         h.getId(),
                         h.getNumero(),
                         h.getTipo(),
                         h.getPrecioPorNoche(),
-                        h.getEstado()))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+                        h.getEstado(),
+                        h.getVersion()))
+                .collect(Collectors.toList()));
     }
 
     @GetMapping("/disponibles")
@@ -46,7 +57,8 @@ public class HabitacionApiController {
                             h.getNumero(),
                             h.getTipo(),
                             h.getPrecioPorNoche(),
-                            h.getEstado()))
+                            h.getEstado(),
+                            h.getVersion()))
                     .collect(Collectors.toList());
 
             return ResponseEntity.ok(habitacionesDisponibles);
@@ -58,12 +70,16 @@ public class HabitacionApiController {
     @GetMapping("/disponibles-fechas")
     public ResponseEntity<List<RoomDTO>> obtenerDisponiblesPorFechas(
             @RequestParam("fechaInicio") String inicioStr,
-            @RequestParam("fechaFin") String finStr) {
+            @RequestParam("fechaFin") String finStr,
+            @RequestParam(value = "tipo", required = false) String tipo,
+            @RequestParam(value = "precioMin", required = false) Double precioMin,
+            @RequestParam(value = "precioMax", required = false) Double precioMax) {
         try {
             java.time.LocalDate inicio = java.time.LocalDate.parse(inicioStr);
             java.time.LocalDate fin = java.time.LocalDate.parse(finStr);
 
-            List<Habitacion> disponibles = habitacionService.buscarDisponibles(inicio, fin);
+            List<Habitacion> disponibles = habitacionService.buscarDisponibles(inicio, fin, tipo, precioMin,
+                    precioMax);
 
             List<RoomDTO> dtos = disponibles.stream().map(this::mapToDTO).collect(Collectors.toList());
             return ResponseEntity.ok(dtos);
@@ -72,6 +88,18 @@ public class HabitacionApiController {
         }
     }
 
+    @GetMapping("/tipos/{tipo}/disponibilidad")
+    public ResponseEntity<CotizacionTipo> obtenerDisponibilidadPorTipo(@PathVariable String tipo,
+            @RequestParam("fechaInicio") String inicioStr,
+            @RequestParam("fechaFin") String finStr) {
+        try {
+            return ResponseEntity.ok(inventarioTipoService.cotizar(tipo, java.time.LocalDate.parse(inicioStr),
+                    java.time.LocalDate.parse(finStr)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> crear(@RequestBody Habitacion habitacion) {
@@ -91,6 +119,8 @@ public class HabitacionApiController {
             habitacion.setId(id);
             Habitacion actualizada = habitacionService.actualizarHabitacion(habitacion);
             return ResponseEntity.ok(mapToDTO(actualizada));
+        } catch (ConcurrencyFailureException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -113,7 +143,8 @@ public class HabitacionApiController {
                 h.getNumero(),
                 h.getTipo(),
                 h.getPrecioPorNoche(),
-                h.getEstado());
+                h.getEstado(),
+                h.getVersion());
     }
 
     public static class RoomDTO {
@@ -122,13 +153,15 @@ public class HabitacionApiController {
         private String tipo;
         private Double precioPorNoche;
         private String estado;
+        private Long version;
 
-        public RoomDTO(Long id, String numero, String tipo, Double precioPorNoche, String estado) {
+        public RoomDTO(Long id, String numero, String tipo, Double precioPorNoche, String estado, Long version) {
             this.id = id;
             this.numero = numero;
             this.tipo = tipo;
             this.precioPorNoche = precioPorNoche;
             this.estado = estado;
+            this.version = version;
         }
 
         public Long getId() {
@@ -170,5 +203,13 @@ public class HabitacionApiController {
         public void setEstado(String estado) {
             this.estado = estado;
         }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
     }
 }
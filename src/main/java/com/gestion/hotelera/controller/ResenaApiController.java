@@ -8,11 +8,13 @@ import com.gestion.hotelera.service.AuditoriaService;
 import com.gestion.hotelera.service.ClienteService;
 import com.gestion.hotelera.service.NotificacionService;
 import com.gestion.hotelera.service.ReservaService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Map;
 import java.util.Optional;
@@ -26,14 +28,17 @@ public class ResenaApiController {
     private final ClienteService clienteService;
     private final AuditoriaService auditoriaService;
     private final NotificacionService notificacionService;
+    private final RespuestaCondicional respuestaCondicional;
 
     public ResenaApiController(ResenaRepository resenaRepository, ReservaService reservaService,
-            ClienteService clienteService, AuditoriaService auditoriaService, NotificacionService notificacionService) {
+            ClienteService clienteService, AuditoriaService auditoriaService, NotificacionService notificacionService,
+            RespuestaCondicional respuestaCondicional) {
         this.resenaRepository = resenaRepository;
         this.reservaService = reservaService;
         this.clienteService = clienteService;
         this.auditoriaService = auditoriaService;
         this.notificacionService = notificacionService;
+        this.respuestaCondicional = respuestaCondicional;
     }
 
     @PostMapping
@@ -98,6 +103,25 @@ public class ResenaApiController {
         }
     }
 
+    @GetMapping("/aprobadas")
+    public ResponseEntity<java.util.List<Map<String, Object>>> obtenerResenasAprobadas(WebRequest request) {
+        return respuestaCondicional.publica(request, Recurso.RESENAS, () -> resenaRepository.findByAprobada(true)
+                .stream()
+                .sorted((a, b) -> b.getId().compareTo(a.getId()))
+                .map(r -> {
+                    Map<String, Object> map = new java.util.HashMap<>();
+                    map.put("id", r.getId());
+                    map.put("calificacion", r.getCalificacion());
+                    map.put("comentario", r.getComentario());
+                    map.put("respuesta", r.getRespuesta());
+                    map.put("fechaCreacion", r.getFechaCreacion());
+                    if (r.getCliente() != null) {
+                        map.put("clienteNombre", r.getCliente().getNombres());
+                    }
+                    return map;
+                }).collect(java.util.stream.Collectors.toList()));
+    }
+
     @GetMapping("/todas")
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPCIONISTA')")
     public ResponseEntity<java.util.List<Map<String, Object>>> obtenerTodasLasResenas() {
@@ -1,9 +1,14 @@
 package com.gestion.hotelera.controller;
 
+import com.gestion.hotelera.dto.CursorPage;
 import com.gestion.hotelera.dto.ReservaDTO;
 import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.model.RetencionInventario;
+import com.gestion.hotelera.service.InventarioTipoService;
 import com.gestion.hotelera.service.ReservaService;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,7 +27,9 @@ public class ReservaApiController {
 
     private final ReservaService reservaService;
     private final ClienteService clienteService;
+    private final InventarioTipoService inventarioTipoService;
 
+    private static final int TAMANO_MAXIMO = 500;
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ReservaApiController.class);
 
     @GetMapping("/mis-reservas")
@@ -36,16 +43,22 @@ public class ReservaApiController {
             return ResponseEntity.ok(List.of());
         }
 
-        List<Reserva> reservas = reservaService.obtenerReservasPorCliente(cliente);
+        List<ReservaDTO> reservas = reservaService.listarReservasDTOPorCliente(cliente.getId());
         logger.info("Se encontraron {} reservas para el cliente ID: {}", reservas.size(), cliente.getId());
 
-        return ResponseEntity.ok(mapToDTOs(reservas));
+        return ResponseEntity.ok(reservas);
     }
 
     @GetMapping("/recent")
     public ResponseEntity<List<ReservaDTO>> getRecent(@RequestParam(defaultValue = "5") int limit) {
-        List<Reserva> reservas = reservaService.obtenerUltimasReservas(limit);
-        return ResponseEntity.ok(mapToDTOs(reservas));
+        return ResponseEntity.ok(reservaService.listarUltimasReservasDTO(limit));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ReservaDTO>> scroll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        return ResponseEntity.ok(reservaService.listarReservasDTODesde(cursor, size, total));
     }
 
     @PostMapping("/{id}/checkin")
@@ -80,10 +93,12 @@ public class ReservaApiController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ReservaDTO>> getAll() {
-        List<Reserva> reservas = reservaService.obtenerTodasLasReservas();
-        reservas.sort((r1, r2) -> r2.getId().compareTo(r1.getId())); 
-        return ResponseEntity.ok(mapToDTOs(reservas));
+    public ResponseEntity<List<ReservaDTO>> getAll(@RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        Pageable pageable = size != null
+                ? PageRequest.of(page != null ? Math.max(0, page) : 0, Math.min(Math.max(1, size), TAMANO_MAXIMO))
+                : Pageable.unpaged();
+        return ResponseEntity.ok(reservaService.listarReservasDTO(pageable));
     }
 
     @PostMapping
@@ -102,6 +117,27 @@ public class ReservaApiController {
         return ResponseEntity.ok(mapToDTO(saved));
     }
 
+    @PostMapping("/retenciones")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'RECEPCIONISTA')")
+    public ResponseEntity<RetencionInventario> retener(@RequestBody RetencionInventario solicitud) {
+        return ResponseEntity.ok(inventarioTipoService.retener(solicitud.getTipo(), solicitud.getFechaInicio(),
+                solicitud.getFechaFin(), solicitud.getCantidad() != null ? solicitud.getCantidad() : 1));
+    }
+
+    @DeleteMapping("/retenciones/{codigo}")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'RECEPCIONISTA')")
+    public ResponseEntity<Void> liberarRetencion(@PathVariable String codigo) {
+        return inventarioTipoService.liberarRetencion(codigo)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/retenciones/{codigo}/confirmar")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'RECEPCIONISTA')")
+    public ResponseEntity<ReservaDTO> confirmarRetencion(@PathVariable String codigo, @RequestBody Reserva reserva) {
+        return ResponseEntity.ok(mapToDTO(reservaService.confirmarRetencion(codigo, reserva)));
+    }
+
     @PostMapping("/{id}/servicios")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'RECEPCIONISTA')")
     public ResponseEntity<Void> asignarServicios(@PathVariable Long id, @RequestBody List<Long> serviciosIds) {
@@ -162,12 +198,7 @@ public class ReservaApiController {
                         .tipo(r.getHabitacion().getTipo())
                         .precioPorNoche(r.getHabitacion().getPrecioPorNoche())
                         .build() : null)
+                .version(r.getVersion())
                 .build();
     }
-
-    private List<ReservaDTO> mapToDTOs(List<Reserva> reservas) {
-        return reservas.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
-    }
 }
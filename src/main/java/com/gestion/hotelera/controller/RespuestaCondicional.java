@@ -0,0 +1,58 @@
+package com.gestion.hotelera.controller;
+
+import com.gestion.hotelera.config.CachesProperties;
+import com.gestion.hotelera.service.VersionRecursosService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class RespuestaCondicional {
+
+    private final VersionRecursosService versionRecursosService;
+    private final CachesProperties cachesProperties;
+
+    public RespuestaCondicional(VersionRecursosService versionRecursosService, CachesProperties cachesProperties) {
+        this.versionRecursosService = versionRecursosService;
+        this.cachesProperties = cachesProperties;
+    }
+
+    public <T> ResponseEntity<T> publica(WebRequest request, Recurso recurso, Supplier<T> cuerpo) {
+        return responder(request, recurso, cacheControl().cachePublic(), cuerpo);
+    }
+
+    public <T> ResponseEntity<T> privada(WebRequest request, Recurso recurso, Supplier<T> cuerpo) {
+        return responder(request, recurso, cacheControl().cachePrivate(), cuerpo);
+    }
+
+    private <T> ResponseEntity<T> responder(WebRequest request, Recurso recurso, CacheControl cacheControl,
+            Supplier<T> cuerpo) {
+        if (!versionRecursosService.admiteCondicional()) {
+            return ResponseEntity.ok().cacheControl(cacheControl).body(cuerpo.get());
+        }
+        String etag = versionRecursosService.etag(recurso);
+        long ultimaModificacion = versionRecursosService.ultimaModificacion(recurso);
+        if (request.checkNotModified(etag, ultimaModificacion)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(ultimaModificacion)
+                .cacheControl(cacheControl)
+                .body(cuerpo.get());
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(Math.max(0, cachesProperties.getHttpMaxAgeSegundos()), TimeUnit.SECONDS)
+                .mustRevalidate();
+    }
+}
@@ -2,10 +2,12 @@ package com.gestion.hotelera.controller;
 
 import com.gestion.hotelera.model.Servicio;
 import com.gestion.hotelera.service.ServicioService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -15,10 +17,11 @@ import java.util.List;
 public class ServicioApiController {
 
     private final ServicioService servicioService;
+    private final RespuestaCondicional respuestaCondicional;
 
     @GetMapping
-    public List<Servicio> listar() {
-        return servicioService.listarTodos();
+    public ResponseEntity<List<Servicio>> listar(WebRequest request) {
+        return respuestaCondicional.privada(request, Recurso.SERVICIOS, servicioService::listarTodos);
     }
 
     @PostMapping
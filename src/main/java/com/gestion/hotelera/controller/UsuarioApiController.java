@@ -1,7 +1,10 @@
 package com.gestion.hotelera.controller;
 
+import com.gestion.hotelera.dto.Cursor;
+import com.gestion.hotelera.dto.CursorPage;
 import com.gestion.hotelera.model.Usuario;
 import com.gestion.hotelera.repository.UsuarioRepository;
+import com.gestion.hotelera.security.RevocacionTokenService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,6 +18,7 @@ import java.util.List;
 public class UsuarioApiController {
 
     private final UsuarioRepository usuarioRepository;
+    private final RevocacionTokenService revocacionTokenService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -22,6 +26,18 @@ public class UsuarioApiController {
         return usuarioRepository.findAll();
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<Usuario> scroll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        int limite = CursorPage.normalizarTamano(size);
+        Long ultimoId = Cursor.id(cursor);
+        return CursorPage.de(usuarioRepository.findByIdGreaterThanOrderByIdAsc(ultimoId != null ? ultimoId : 0L,
+                CursorPage.ventana(limite)), limite, u -> Cursor.codificar(u.getId()),
+                total ? usuarioRepository.count() : null);
+    }
+
     @PatchMapping("/{id}/toggle")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Usuario> toggleEstado(@PathVariable long id) {
@@ -31,7 +47,10 @@ public class UsuarioApiController {
                 return ResponseEntity.badRequest().body(usuario);
             }
             usuario.setActivo(!usuario.getActivo());
-            return ResponseEntity.ok(usuarioRepository.save(usuario));
+            usuario.incrementarVersionCredenciales();
+            Usuario guardado = usuarioRepository.save(usuario);
+            revocacionTokenService.invalidar(guardado.getUsername());
+            return ResponseEntity.ok(guardado);
         }).orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,19 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+@AllArgsConstructor
+public class ContribucionIngreso {
+    Long reservaId;
+    String estadoReserva;
+    String estadoPago;
+    Double totalPagar;
+    Double totalServicios;
+    Double montoDescuento;
+    LocalDate fechaSalidaReal;
+    LocalDate fechaFin;
+}
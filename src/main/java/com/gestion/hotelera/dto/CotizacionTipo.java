@@ -0,0 +1,19 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class CotizacionTipo {
+    String tipo;
+    LocalDate fechaInicio;
+    LocalDate fechaFin;
+    long disponibles;
+    Double precioPorNoche;
+    Double precioTotal;
+    List<InventarioNoche> noches;
+}
@@ -0,0 +1,44 @@
+package com.gestion.hotelera.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class Cursor {
+
+    private static final String SEPARADOR = "|";
+
+    private Cursor() {
+    }
+
+    public static String codificar(Object... partes) {
+        String plano = Arrays.stream(partes).map(String::valueOf).collect(Collectors.joining(SEPARADOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static List<String> decodificar(String cursor, int partes) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> valores = Arrays.asList(plano.split("\\" + SEPARADOR, -1));
+            if (valores.size() != partes) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return valores;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public static Long id(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(decodificar(cursor, 1).get(0));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Value
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int TAMANO_POR_DEFECTO = 20;
+    public static final int TAMANO_MAXIMO = 500;
+
+    List<T> contenido;
+    String siguienteCursor;
+    boolean hayMas;
+    Long total;
+
+    public static int normalizarTamano(Integer tamano) {
+        if (tamano == null) {
+            return TAMANO_POR_DEFECTO;
+        }
+        return Math.min(Math.max(1, tamano), TAMANO_MAXIMO);
+    }
+
+    public static Pageable ventana(int tamano) {
+        return PageRequest.of(0, tamano + 1);
+    }
+
+    public static <T> CursorPage<T> de(List<T> filas, int tamano, Function<T, String> cursor, Long total) {
+        boolean hayMas = filas.size() > tamano;
+        List<T> contenido = hayMas ? new ArrayList<>(filas.subList(0, tamano)) : filas;
+        String siguiente = hayMas ? cursor.apply(contenido.get(contenido.size() - 1)) : null;
+        return new CursorPage<>(contenido, siguiente, hayMas, total);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> conversor) {
+        return new CursorPage<>(contenido.stream().map(conversor).collect(Collectors.toList()),
+                siguienteCursor, hayMas, total);
+    }
+}
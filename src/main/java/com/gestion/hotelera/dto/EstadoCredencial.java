@@ -0,0 +1,16 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class EstadoCredencial {
+    String username;
+    Long version;
+    Boolean activo;
+
+    public boolean admite(long versionToken) {
+        return Boolean.TRUE.equals(activo) && version != null && version == versionToken;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+@AllArgsConstructor
+public class FilaReserva {
+    Long id;
+    String estadoReserva;
+    LocalDate fechaInicio;
+    LocalDate fechaFin;
+    LocalDate fechaSalidaReal;
+    Integer diasEstadia;
+    Double totalPagar;
+    Double montoDescuento;
+    Long clienteId;
+    String clienteNombres;
+    String clienteApellidos;
+    String clienteDni;
+    String clienteEmail;
+    String clienteTelefono;
+    String habitacionNumero;
+    String habitacionTipo;
+    Double habitacionPrecio;
+    Long pagoId;
+    String pagoMetodo;
+    Long version;
+}
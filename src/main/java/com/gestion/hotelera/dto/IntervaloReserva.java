@@ -0,0 +1,33 @@
+package com.gestion.hotelera.dto;
+
+import com.gestion.hotelera.enums.EstadoReserva;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+@AllArgsConstructor
+public class IntervaloReserva {
+    Long id;
+    Long habitacionId;
+    LocalDate fechaInicio;
+    LocalDate fechaFin;
+    LocalDate fechaSalidaReal;
+    String estadoReserva;
+
+    public boolean estaCancelada() {
+        return EstadoReserva.CANCELADA.getValor().equalsIgnoreCase(estadoReserva);
+    }
+
+    public LocalDate getFinEfectivo() {
+        if (EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(estadoReserva) && fechaSalidaReal != null) {
+            return fechaSalidaReal;
+        }
+        return fechaFin;
+    }
+
+    public boolean bloqueaHabitacion() {
+        return !estaCancelada() && habitacionId != null && fechaInicio != null && getFinEfectivo() != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+@AllArgsConstructor
+public class InventarioNoche {
+    LocalDate fecha;
+    long total;
+    long retenidas;
+    long vendidas;
+
+    public long getDisponibles() {
+        return Math.max(0, total - retenidas - vendidas);
+    }
+}
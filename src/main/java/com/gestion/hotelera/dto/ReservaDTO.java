@@ -29,6 +29,7 @@ public class ReservaDTO {
     private LocalDate fechaSalidaReal;
     private ClienteSummary cliente;
     private HabitacionSummary habitacion;
+    private Long version;
 
     @Data
     @Builder
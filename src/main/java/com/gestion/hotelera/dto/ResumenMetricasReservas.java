@@ -0,0 +1,20 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class ResumenMetricasReservas {
+    Long total;
+    Long activas;
+    Long pendientes;
+    Long finalizadas;
+    Long checkInsHoy;
+    Long checkOutsHoy;
+    Double ingresosFinalizadas;
+
+    public static ResumenMetricasReservas vacio() {
+        return new ResumenMetricasReservas(0L, 0L, 0L, 0L, 0L, 0L, 0.0);
+    }
+}
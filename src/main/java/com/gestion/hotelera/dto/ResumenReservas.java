@@ -0,0 +1,34 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class ResumenReservas {
+    Long totalReservas;
+    Long reservasPendientes;
+    Long reservasActivas;
+    Long checkInsHoy;
+    Long checkOutsHoy;
+
+    public long total() {
+        return totalReservas != null ? totalReservas : 0L;
+    }
+
+    public long pendientes() {
+        return reservasPendientes != null ? reservasPendientes : 0L;
+    }
+
+    public long activas() {
+        return reservasActivas != null ? reservasActivas : 0L;
+    }
+
+    public long entradasHoy() {
+        return checkInsHoy != null ? checkInsHoy : 0L;
+    }
+
+    public long salidasHoy() {
+        return checkOutsHoy != null ? checkOutsHoy : 0L;
+    }
+}
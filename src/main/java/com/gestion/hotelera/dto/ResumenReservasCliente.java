@@ -0,0 +1,15 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+@AllArgsConstructor
+public class ResumenReservasCliente {
+    Long clienteId;
+    Long totalReservas;
+    LocalDate ultimaEstancia;
+    Long reservaActivaId;
+}
@@ -0,0 +1,12 @@
+package com.gestion.hotelera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class ServicioReservado {
+    Long reservaId;
+    String nombre;
+    Double precio;
+}
@@ -0,0 +1,32 @@
+package com.gestion.hotelera.event;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+
+public class ReservaCambioEvent {
+
+    private final Long reservaId;
+    private final IntervaloReserva anterior;
+    private final IntervaloReserva actual;
+
+    public ReservaCambioEvent(Long reservaId, IntervaloReserva anterior, IntervaloReserva actual) {
+        this.reservaId = reservaId;
+        this.anterior = anterior;
+        this.actual = actual;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public IntervaloReserva getAnterior() {
+        return anterior;
+    }
+
+    public IntervaloReserva getActual() {
+        return actual;
+    }
+
+    public boolean esEliminacion() {
+        return actual == null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.gestion.hotelera.event;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.model.Reserva;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class ReservaEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReservaEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void alCargar(Reserva reserva) {
+        reserva.setIntervaloPersistido(capturar(reserva));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void alGuardar(Reserva reserva) {
+        IntervaloReserva actual = capturar(reserva);
+        eventPublisher.publishEvent(new ReservaCambioEvent(reserva.getId(), reserva.getIntervaloPersistido(), actual));
+        reserva.setIntervaloPersistido(actual);
+    }
+
+    @PostRemove
+    public void alEliminar(Reserva reserva) {
+        IntervaloReserva anterior = reserva.getIntervaloPersistido() != null
+                ? reserva.getIntervaloPersistido()
+                : capturar(reserva);
+        eventPublisher.publishEvent(new ReservaCambioEvent(reserva.getId(), anterior, null));
+        reserva.setIntervaloPersistido(null);
+    }
+
+    public static IntervaloReserva capturar(Reserva reserva) {
+        return new IntervaloReserva(
+                reserva.getId(),
+                reserva.getHabitacion() != null ? reserva.getHabitacion().getId() : null,
+                reserva.getFechaInicio(),
+                reserva.getFechaFin(),
+                reserva.getFechaSalidaReal(),
+                reserva.getEstadoReserva());
+    }
+}
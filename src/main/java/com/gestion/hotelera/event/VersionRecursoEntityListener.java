@@ -0,0 +1,46 @@
+package com.gestion.hotelera.event;
+
+import com.gestion.hotelera.model.ConfiguracionGlobal;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Resena;
+import com.gestion.hotelera.model.Servicio;
+import com.gestion.hotelera.service.VersionRecursosService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+public class VersionRecursoEntityListener {
+
+    private final VersionRecursosService versionRecursosService;
+
+    public VersionRecursoEntityListener(VersionRecursosService versionRecursosService) {
+        this.versionRecursosService = versionRecursosService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alCambiar(Object entidad) {
+        Recurso recurso = recursoDe(entidad);
+        if (recurso != null) {
+            versionRecursosService.marcarCambio(recurso);
+        }
+    }
+
+    static Recurso recursoDe(Object entidad) {
+        if (entidad instanceof Habitacion) {
+            return Recurso.HABITACIONES;
+        }
+        if (entidad instanceof Servicio) {
+            return Recurso.SERVICIOS;
+        }
+        if (entidad instanceof ConfiguracionGlobal) {
+            return Recurso.CONFIGURACION;
+        }
+        if (entidad instanceof Resena) {
+            return Recurso.RESENAS;
+        }
+        return null;
+    }
+}
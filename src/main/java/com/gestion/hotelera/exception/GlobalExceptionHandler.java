@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -55,6 +56,20 @@ public class GlobalExceptionHandler {
         return "redirect:" + obtenerReferer(request);
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public Object handleConcurrencyFailure(ConcurrencyFailureException ex, HttpServletRequest request,
+            RedirectAttributes redirectAttributes) {
+        if (esPeticionApi(request)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Conflicto de concurrencia");
+            error.put("message", "El registro fue modificado por otra operación. Recarga los datos e inténtalo de nuevo");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        redirectAttributes.addFlashAttribute("errorMessage",
+                "Otro usuario modificó estos datos al mismo tiempo. Recarga e inténtalo de nuevo.");
+        return "redirect:" + obtenerReferer(request);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public Object handleRuntimeException(RuntimeException ex, HttpServletRequest request,
             RedirectAttributes redirectAttributes) {
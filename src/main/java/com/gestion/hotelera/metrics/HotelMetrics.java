@@ -1,28 +1,51 @@
 package com.gestion.hotelera.metrics;
 
+import com.gestion.hotelera.dto.ResumenMetricasReservas;
 import com.gestion.hotelera.repository.ReservaRepository;
 import com.gestion.hotelera.repository.HabitacionRepository;
 import com.gestion.hotelera.repository.ClienteRepository;
+import com.gestion.hotelera.service.CalendarioOcupacionService;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
 
 @Component
 public class HotelMetrics {
 
+    private static final Logger log = LoggerFactory.getLogger(HotelMetrics.class);
+
     private final ReservaRepository reservaRepository;
     private final HabitacionRepository habitacionRepository;
     private final ClienteRepository clienteRepository;
+    private final CalendarioOcupacionService calendarioOcupacionService;
+    private final AtomicReference<Instantanea> instantanea = new AtomicReference<>(Instantanea.VACIA);
+    private final Timer tiempoRefresco;
 
     public HotelMetrics(MeterRegistry meterRegistry,
             ReservaRepository reservaRepository,
             HabitacionRepository habitacionRepository,
-            ClienteRepository clienteRepository) {
+            ClienteRepository clienteRepository,
+            CalendarioOcupacionService calendarioOcupacionService) {
         this.reservaRepository = reservaRepository;
         this.habitacionRepository = habitacionRepository;
         this.clienteRepository = clienteRepository;
+        this.calendarioOcupacionService = calendarioOcupacionService;
+        this.tiempoRefresco = Timer.builder("hotel.metricas.refresco")
+                .description("Tiempo de recálculo de la instantánea de métricas de negocio")
+                .register(meterRegistry);
 
         registrarMetricasReservas(meterRegistry);
         registrarMetricasHabitaciones(meterRegistry);
@@ -30,101 +53,155 @@ public class HotelMetrics {
         registrarMetricasIngresos(meterRegistry);
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.metricas.refresco-ms:30000}",
+            fixedDelayString = "${app.metricas.refresco-ms:30000}")
+    public void refrescar() {
+        try {
+            tiempoRefresco.record(() -> instantanea.set(calcular()));
+        } catch (Exception e) {
+            log.warn("No se pudo refrescar la instantánea de métricas: {}", e.getMessage());
+        }
+    }
+
+    Instantanea getInstantanea() {
+        return instantanea.get();
+    }
+
+    private Instantanea calcular() {
+        ResumenMetricasReservas reservas = reservaRepository.resumirParaMetricas(LocalDate.now());
+        if (reservas == null) {
+            reservas = ResumenMetricasReservas.vacio();
+        }
+        Map<String, Long> habitaciones = new HashMap<>();
+        long totalHabitaciones = 0;
+        List<Object[]> filas = habitacionRepository.contarPorEstado();
+        for (Object[] fila : filas) {
+            long cantidad = ((Number) fila[1]).longValue();
+            totalHabitaciones += cantidad;
+            if (fila[0] != null) {
+                habitaciones.merge((String) fila[0], cantidad, Long::sum);
+            }
+        }
+        return new Instantanea(
+                valor(reservas.getTotal()),
+                valor(reservas.getActivas()),
+                valor(reservas.getPendientes()),
+                valor(reservas.getFinalizadas()),
+                valor(reservas.getCheckInsHoy()),
+                valor(reservas.getCheckOutsHoy()),
+                reservas.getIngresosFinalizadas() != null ? reservas.getIngresosFinalizadas() : 0.0,
+                totalHabitaciones,
+                habitaciones.getOrDefault("DISPONIBLE", 0L),
+                habitaciones.getOrDefault("OCUPADA", 0L),
+                habitaciones.getOrDefault("MANTENIMIENTO", 0L),
+                clienteRepository.count());
+    }
+
+    private static long valor(Long numero) {
+        return numero != null ? numero : 0L;
+    }
+
+    private Gauge.Builder<AtomicReference<Instantanea>> gauge(String nombre, ToDoubleFunction<Instantanea> lector) {
+        return Gauge.builder(nombre, instantanea, ref -> lector.applyAsDouble(ref.get()));
+    }
+
     private void registrarMetricasReservas(MeterRegistry registry) {
-        
-        Gauge.builder("hotel.reservas.total", reservaRepository, repo -> repo.count())
+
+        gauge("hotel.reservas.total", Instantanea::reservasTotal)
                 .description("Número total de reservas en el sistema")
                 .register(registry);
 
-        Gauge.builder("hotel.reservas.activas", reservaRepository,
-                repo -> repo.countByEstadoReservaIgnoreCase("ACTIVA"))
+        gauge("hotel.reservas.activas", Instantanea::reservasActivas)
                 .description("Número de reservas actualmente activas")
                 .tag("estado", "ACTIVA")
                 .register(registry);
 
-        Gauge.builder("hotel.reservas.pendientes", reservaRepository,
-                repo -> repo.countByEstadoReservaIgnoreCase("PENDIENTE"))
+        gauge("hotel.reservas.pendientes", Instantanea::reservasPendientes)
                 .description("Número de reservas pendientes")
                 .tag("estado", "PENDIENTE")
                 .register(registry);
 
-        Gauge.builder("hotel.reservas.finalizadas", reservaRepository,
-                repo -> repo.countByEstadoReservaIgnoreCase("FINALIZADA"))
+        gauge("hotel.reservas.finalizadas", Instantanea::reservasFinalizadas)
                 .description("Número de reservas finalizadas")
                 .tag("estado", "FINALIZADA")
                 .register(registry);
 
-        Gauge.builder("hotel.checkins.hoy", reservaRepository,
-                repo -> repo.countByFechaInicio(LocalDate.now()))
+        gauge("hotel.checkins.hoy", Instantanea::checkInsHoy)
                 .description("Número de check-ins programados para hoy")
                 .register(registry);
 
-        Gauge.builder("hotel.checkouts.hoy", reservaRepository,
-                repo -> repo.countByFechaFin(LocalDate.now()))
+        gauge("hotel.checkouts.hoy", Instantanea::checkOutsHoy)
                 .description("Número de check-outs programados para hoy")
                 .register(registry);
     }
 
     private void registrarMetricasHabitaciones(MeterRegistry registry) {
-        
-        Gauge.builder("hotel.habitaciones.total", habitacionRepository, repo -> repo.count())
+
+        gauge("hotel.habitaciones.total", Instantanea::habitacionesTotal)
                 .description("Número total de habitaciones en el hotel")
                 .register(registry);
 
-        Gauge.builder("hotel.habitaciones.disponibles", habitacionRepository,
-                repo -> repo.countByEstadoIgnoreCase("DISPONIBLE"))
+        gauge("hotel.habitaciones.disponibles", Instantanea::habitacionesDisponibles)
                 .description("Número de habitaciones disponibles")
                 .tag("estado", "DISPONIBLE")
                 .register(registry);
 
-        Gauge.builder("hotel.habitaciones.ocupadas", habitacionRepository,
-                repo -> repo.countByEstadoIgnoreCase("OCUPADA"))
+        gauge("hotel.habitaciones.ocupadas", Instantanea::habitacionesOcupadas)
                 .description("Número de habitaciones ocupadas")
                 .tag("estado", "OCUPADA")
                 .register(registry);
 
-        Gauge.builder("hotel.habitaciones.mantenimiento", habitacionRepository,
-                repo -> repo.countByEstadoIgnoreCase("MANTENIMIENTO"))
+        gauge("hotel.habitaciones.mantenimiento", Instantanea::habitacionesMantenimiento)
                 .description("Número de habitaciones en mantenimiento")
                 .tag("estado", "MANTENIMIENTO")
                 .register(registry);
 
-        Gauge.builder("hotel.habitaciones.ocupacion.porcentaje", this,
-                metrics -> calcularTasaOcupacion())
+        gauge("hotel.habitaciones.ocupacion.porcentaje", this::calcularTasaOcupacion)
                 .description("Porcentaje de ocupación del hotel")
                 .baseUnit("percent")
                 .register(registry);
     }
 
     private void registrarMetricasClientes(MeterRegistry registry) {
-        
-        Gauge.builder("hotel.clientes.total", clienteRepository, repo -> repo.count())
+
+        gauge("hotel.clientes.total", Instantanea::clientesTotal)
                 .description("Número total de clientes registrados")
                 .register(registry);
     }
 
     private void registrarMetricasIngresos(MeterRegistry registry) {
-        
-        Gauge.builder("hotel.ingresos.total", this, metrics -> calcularIngresosTotales())
+
+        gauge("hotel.ingresos.total", Instantanea::ingresosTotales)
                 .description("Ingresos totales de reservas finalizadas")
                 .baseUnit("soles")
                 .register(registry);
-    }
 
-    private double calcularTasaOcupacion() {
-        long totalHabitaciones = habitacionRepository.count();
-        if (totalHabitaciones == 0) {
-            return 0.0;
-        }
+        gauge("hotel.metricas.antiguedad", i -> (System.currentTimeMillis() - i.calculadaEn()) / 1000.0)
+                .description("Segundos desde el último recálculo de las métricas de negocio")
+                .baseUnit("seconds")
+                .register(registry);
+    }
 
-        long habitacionesOcupadas = habitacionRepository.countByEstadoIgnoreCase("OCUPADA");
-        return (habitacionesOcupadas * 100.0) / totalHabitaciones;
+    private double calcularTasaOcupacion(Instantanea actual) {
+        return calendarioOcupacionService.porcentajeOcupacion(CalendarioOcupacionService.Capa.RESERVA,
+                LocalDate.now(), actual.habitacionesTotal());
     }
 
-    private double calcularIngresosTotales() {
-        return reservaRepository.findAll().stream()
-                .filter(r -> "FINALIZADA".equalsIgnoreCase(r.getEstadoReserva()))
-                .mapToDouble(r -> r.getTotalPagar() != null ? r.getTotalPagar() : 0.0)
-                .sum();
+    record Instantanea(long reservasTotal, long reservasActivas, long reservasPendientes,
+            long reservasFinalizadas, long checkInsHoy, long checkOutsHoy, double ingresosTotales,
+            long habitacionesTotal, long habitacionesDisponibles, long habitacionesOcupadas,
+            long habitacionesMantenimiento, long clientesTotal, long calculadaEn) {
+
+        static final Instantanea VACIA = new Instantanea(0, 0, 0, 0, 0, 0, 0.0, 0, 0, 0, 0, 0, 0);
+
+        Instantanea(long reservasTotal, long reservasActivas, long reservasPendientes,
+                long reservasFinalizadas, long checkInsHoy, long checkOutsHoy, double ingresosTotales,
+                long habitacionesTotal, long habitacionesDisponibles, long habitacionesOcupadas,
+                long habitacionesMantenimiento, long clientesTotal) {
+            this(reservasTotal, reservasActivas, reservasPendientes, reservasFinalizadas, checkInsHoy,
+                    checkOutsHoy, ingresosTotales, habitacionesTotal, habitacionesDisponibles,
+                    habitacionesOcupadas, habitacionesMantenimiento, clientesTotal, System.currentTimeMillis());
+        }
     }
 }
@@ -3,7 +3,9 @@ package com.gestion.hotelera.model;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 @Entity
-@Table(name = "auditoria")
+@Table(name = "auditoria", indexes = {
+        @Index(name = "idx_auditoria_timestamp_id", columnList = "timestamp, id")
+})
 public class Auditoria {
 
     @Id
@@ -0,0 +1,32 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tareas_bloqueos")
+public class BloqueoTarea {
+
+    @Id
+    @Column(length = 120)
+    private String nombre;
+
+    @Column(nullable = false, length = 120)
+    private String propietario;
+
+    @Column(nullable = false)
+    private LocalDateTime bloqueadoEn;
+
+    @Column(nullable = false)
+    private LocalDateTime bloqueadoHasta;
+
+    public BloqueoTarea() {}
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+    public String getPropietario() { return propietario; }
+    public void setPropietario(String propietario) { this.propietario = propietario; }
+    public LocalDateTime getBloqueadoEn() { return bloqueadoEn; }
+    public void setBloqueadoEn(LocalDateTime bloqueadoEn) { this.bloqueadoEn = bloqueadoEn; }
+    public LocalDateTime getBloqueadoHasta() { return bloqueadoHasta; }
+    public void setBloqueadoHasta(LocalDateTime bloqueadoHasta) { this.bloqueadoHasta = bloqueadoHasta; }
+}
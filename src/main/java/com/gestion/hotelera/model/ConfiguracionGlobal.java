@@ -1,11 +1,13 @@
 package com.gestion.hotelera.model;
 
+import com.gestion.hotelera.event.VersionRecursoEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
 @Data
 @Table(name = "configuracion_global")
+@EntityListeners(VersionRecursoEntityListener.class)
 public class ConfiguracionGlobal {
 
     @Id
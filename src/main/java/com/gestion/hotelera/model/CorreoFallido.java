@@ -0,0 +1,50 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "correos_fallidos")
+public class CorreoFallido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaRegistro;
+
+    @Column(nullable = false, length = 255)
+    private String destinatario;
+
+    @Column(length = 255)
+    private String asunto;
+
+    @Column(length = 4000)
+    private String contenido;
+
+    @Column(nullable = false)
+    private Integer intentos;
+
+    @Column(length = 500)
+    private String error;
+
+    public CorreoFallido() {}
+    public CorreoFallido(LocalDateTime fechaRegistro, String destinatario, String asunto, String contenido, Integer intentos, String error) {
+        this.fechaRegistro = fechaRegistro; this.destinatario = destinatario; this.asunto = asunto; this.contenido = contenido; this.intentos = intentos; this.error = error;
+    }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDateTime getFechaRegistro() { return fechaRegistro; }
+    public void setFechaRegistro(LocalDateTime fechaRegistro) { this.fechaRegistro = fechaRegistro; }
+    public String getDestinatario() { return destinatario; }
+    public void setDestinatario(String destinatario) { this.destinatario = destinatario; }
+    public String getAsunto() { return asunto; }
+    public void setAsunto(String asunto) { this.asunto = asunto; }
+    public String getContenido() { return contenido; }
+    public void setContenido(String contenido) { this.contenido = contenido; }
+    public Integer getIntentos() { return intentos; }
+    public void setIntentos(Integer intentos) { this.intentos = intentos; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
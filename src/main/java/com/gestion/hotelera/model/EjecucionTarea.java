@@ -0,0 +1,63 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tareas_ejecuciones", indexes = {
+        @Index(name = "idx_tareas_ejecuciones_tarea_inicio", columnList = "tarea, inicio")
+})
+public class EjecucionTarea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 120)
+    private String tarea;
+
+    @Column(nullable = false, length = 120)
+    private String nodo;
+
+    private Long tramoDesde;
+
+    private Long tramoHasta;
+
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    private LocalDateTime fin;
+
+    private Long filas;
+
+    @Column(nullable = false, length = 20)
+    private String resultado;
+
+    @Column(length = 500)
+    private String error;
+
+    public EjecucionTarea() {}
+    public EjecucionTarea(String tarea, String nodo, Long tramoDesde, Long tramoHasta, LocalDateTime inicio, String resultado) {
+        this.tarea = tarea; this.nodo = nodo; this.tramoDesde = tramoDesde; this.tramoHasta = tramoHasta; this.inicio = inicio; this.resultado = resultado;
+    }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTarea() { return tarea; }
+    public void setTarea(String tarea) { this.tarea = tarea; }
+    public String getNodo() { return nodo; }
+    public void setNodo(String nodo) { this.nodo = nodo; }
+    public Long getTramoDesde() { return tramoDesde; }
+    public void setTramoDesde(Long tramoDesde) { this.tramoDesde = tramoDesde; }
+    public Long getTramoHasta() { return tramoHasta; }
+    public void setTramoHasta(Long tramoHasta) { this.tramoHasta = tramoHasta; }
+    public LocalDateTime getInicio() { return inicio; }
+    public void setInicio(LocalDateTime inicio) { this.inicio = inicio; }
+    public LocalDateTime getFin() { return fin; }
+    public void setFin(LocalDateTime fin) { this.fin = fin; }
+    public Long getFilas() { return filas; }
+    public void setFilas(Long filas) { this.filas = filas; }
+    public String getResultado() { return resultado; }
+    public void setResultado(String resultado) { this.resultado = resultado; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,68 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_eventos", indexes = {
+        @Index(name = "idx_outbox_estado_proximo", columnList = "estado, proximo_intento")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_clave", columnNames = "clave_idempotencia")
+})
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "clave_idempotencia", nullable = false, length = 150)
+    private String claveIdempotencia;
+
+    @Column(nullable = false, length = 20)
+    private String tipo;
+
+    @Column(nullable = false, length = 6000)
+    private String payload;
+
+    @Column(nullable = false, length = 20)
+    private String estado;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    private LocalDateTime fechaProcesado;
+
+    @Column(length = 500)
+    private String ultimoError;
+
+    public EventoOutbox() {}
+    public EventoOutbox(String claveIdempotencia, String tipo, String payload, String estado, LocalDateTime fechaCreacion) {
+        this.claveIdempotencia = claveIdempotencia; this.tipo = tipo; this.payload = payload; this.estado = estado; this.fechaCreacion = fechaCreacion; this.proximoIntento = fechaCreacion;
+    }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getClaveIdempotencia() { return claveIdempotencia; }
+    public void setClaveIdempotencia(String claveIdempotencia) { this.claveIdempotencia = claveIdempotencia; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+    public Integer getIntentos() { return intentos; }
+    public void setIntentos(Integer intentos) { this.intentos = intentos; }
+    public LocalDateTime getFechaCreacion() { return fechaCreacion; }
+    public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
+    public LocalDateTime getProximoIntento() { return proximoIntento; }
+    public void setProximoIntento(LocalDateTime proximoIntento) { this.proximoIntento = proximoIntento; }
+    public LocalDateTime getFechaProcesado() { return fechaProcesado; }
+    public void setFechaProcesado(LocalDateTime fechaProcesado) { this.fechaProcesado = fechaProcesado; }
+    public String getUltimoError() { return ultimoError; }
+    public void setUltimoError(String ultimoError) { this.ultimoError = ultimoError; }
+}
@@ -1,10 +1,13 @@
 package com.gestion.hotelera.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.hotelera.event.VersionRecursoEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "habitaciones")
+@EntityListeners(VersionRecursoEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Habitacion {
 
@@ -24,6 +27,11 @@ public class Habitacion {
     @Column(nullable = false, length = 20)
     private String estado;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Habitacion() {}
     public Habitacion(Long id) { this.id = id; }
     public Habitacion(String numero, String tipo, Double precioPorNoche, String estado) {
@@ -39,4 +47,6 @@ public class Habitacion {
     public void setPrecioPorNoche(Double precioPorNoche) { this.precioPorNoche = precioPorNoche; }
     public String getEstado() { return estado; }
     public void setEstado(String estado) { this.estado = estado; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "ingresos_diarios")
+public class IngresoDiario {
+
+    @Id
+    private LocalDate fecha;
+
+    @Column(nullable = false)
+    private Double monto = 0.0;
+
+    public IngresoDiario() {
+    }
+
+    public IngresoDiario(LocalDate fecha, Double monto) {
+        this.fecha = fecha;
+        this.monto = monto;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public Double getMonto() {
+        return monto;
+    }
+
+    public void setMonto(Double monto) {
+        this.monto = monto;
+    }
+}
@@ -0,0 +1,54 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "ingresos_reserva", indexes = {
+        @Index(name = "idx_ingresos_reserva_fecha", columnList = "fecha")
+})
+public class IngresoReserva {
+
+    @Id
+    @Column(name = "reserva_id")
+    private Long reservaId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(nullable = false)
+    private Double monto;
+
+    public IngresoReserva() {
+    }
+
+    public IngresoReserva(Long reservaId, LocalDate fecha, Double monto) {
+        this.reservaId = reservaId;
+        this.fecha = fecha;
+        this.monto = monto;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public void setReservaId(Long reservaId) {
+        this.reservaId = reservaId;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public Double getMonto() {
+        return monto;
+    }
+
+    public void setMonto(Double monto) {
+        this.monto = monto;
+    }
+}
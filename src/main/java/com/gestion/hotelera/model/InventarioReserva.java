@@ -0,0 +1,37 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "inventario_reservas", indexes = {
+        @Index(name = "idx_inventario_reservas_tipo", columnList = "tipo, fecha_inicio")
+})
+public class InventarioReserva {
+
+    @Id
+    @Column(name = "reserva_id")
+    private Long reservaId;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDate fechaInicio;
+
+    @Column(nullable = false)
+    private LocalDate fechaFin;
+
+    public InventarioReserva() {}
+    public InventarioReserva(Long reservaId, String tipo, LocalDate fechaInicio, LocalDate fechaFin) {
+        this.reservaId = reservaId; this.tipo = tipo; this.fechaInicio = fechaInicio; this.fechaFin = fechaFin;
+    }
+    public Long getReservaId() { return reservaId; }
+    public void setReservaId(Long reservaId) { this.reservaId = reservaId; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public LocalDate getFechaInicio() { return fechaInicio; }
+    public void setFechaInicio(LocalDate fechaInicio) { this.fechaInicio = fechaInicio; }
+    public LocalDate getFechaFin() { return fechaFin; }
+    public void setFechaFin(LocalDate fechaFin) { this.fechaFin = fechaFin; }
+}
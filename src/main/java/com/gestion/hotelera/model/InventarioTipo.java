@@ -0,0 +1,42 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "inventario_tipos", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventario_tipo_fecha", columnNames = { "tipo", "fecha" })
+})
+public class InventarioTipo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(nullable = false)
+    private Integer retenidas = 0;
+
+    @Column(nullable = false)
+    private Integer vendidas = 0;
+
+    public InventarioTipo() {}
+    public InventarioTipo(String tipo, LocalDate fecha, Integer vendidas) {
+        this.tipo = tipo; this.fecha = fecha; this.vendidas = vendidas;
+    }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public LocalDate getFecha() { return fecha; }
+    public void setFecha(LocalDate fecha) { this.fecha = fecha; }
+    public Integer getRetenidas() { return retenidas; }
+    public void setRetenidas(Integer retenidas) { this.retenidas = retenidas; }
+    public Integer getVendidas() { return vendidas; }
+    public void setVendidas(Integer vendidas) { this.vendidas = vendidas; }
+}
@@ -1,10 +1,12 @@
 package com.gestion.hotelera.model;
 
+import com.gestion.hotelera.event.VersionRecursoEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "resenas")
+@EntityListeners(VersionRecursoEntityListener.class)
 public class Resena {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
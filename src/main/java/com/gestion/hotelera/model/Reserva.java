@@ -1,7 +1,11 @@
 package com.gestion.hotelera.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.event.ReservaEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.HashMap;
@@ -10,7 +14,13 @@ import java.util.Map;
 import java.util.Set;
 
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_fecha_inicio_estado", columnList = "fecha_inicio, estado_reserva"),
+        @Index(name = "idx_reservas_fecha_fin_estado", columnList = "fecha_fin, estado_reserva"),
+        @Index(name = "idx_reservas_habitacion_fecha_inicio", columnList = "habitacion_id, fecha_inicio"),
+        @Index(name = "idx_reservas_cliente_estado", columnList = "cliente_id, estado_reserva")
+})
+@EntityListeners(ReservaEntityListener.class)
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Reserva {
 
@@ -82,6 +92,15 @@ public class Reserva {
     @OneToMany(mappedBy = "reserva", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Resena> resenas = new HashSet<>();
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @Transient
+    @JsonIgnore
+    private IntervaloReserva intervaloPersistido;
+
     public Reserva(Cliente cliente, Habitacion habitacion, LocalDate fechaInicio, LocalDate fechaFin,
             LocalTime horaEntrada, LocalTime horaSalida, Integer diasEstadia, Double totalPagar, String estadoReserva) {
         this.cliente = cliente;
@@ -113,6 +132,14 @@ public class Reserva {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Cliente getCliente() {
         return cliente;
     }
@@ -274,6 +301,15 @@ public class Reserva {
         this.resenas = resenas;
     }
 
+    @JsonIgnore
+    public IntervaloReserva getIntervaloPersistido() {
+        return intervaloPersistido;
+    }
+
+    public void setIntervaloPersistido(IntervaloReserva intervaloPersistido) {
+        this.intervaloPersistido = intervaloPersistido;
+    }
+
     public Double calcularTotalConDescuento() {
         double total = (totalPagar != null ? totalPagar : 0.0) + calcularTotalServicios();
         return Math.max(0.0, total - (montoDescuento != null ? montoDescuento : 0.0));
@@ -0,0 +1,72 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inventario_retenciones", indexes = {
+        @Index(name = "idx_retenciones_estado_expira", columnList = "estado, expira_en")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_retenciones_codigo", columnNames = "codigo")
+})
+public class RetencionInventario {
+
+    public static final String ACTIVA = "ACTIVA";
+    public static final String CONFIRMADA = "CONFIRMADA";
+    public static final String LIBERADA = "LIBERADA";
+    public static final String EXPIRADA = "EXPIRADA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String codigo;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Column(nullable = false)
+    private LocalDate fechaInicio;
+
+    @Column(nullable = false)
+    private LocalDate fechaFin;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    @Column(nullable = false, length = 20)
+    private String estado;
+
+    @Column(nullable = false)
+    private LocalDateTime creadaEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    public RetencionInventario() {}
+    public RetencionInventario(String codigo, String tipo, LocalDate fechaInicio, LocalDate fechaFin, Integer cantidad,
+            LocalDateTime creadaEn, LocalDateTime expiraEn) {
+        this.codigo = codigo; this.tipo = tipo; this.fechaInicio = fechaInicio; this.fechaFin = fechaFin;
+        this.cantidad = cantidad; this.estado = ACTIVA; this.creadaEn = creadaEn; this.expiraEn = expiraEn;
+    }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCodigo() { return codigo; }
+    public void setCodigo(String codigo) { this.codigo = codigo; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public LocalDate getFechaInicio() { return fechaInicio; }
+    public void setFechaInicio(LocalDate fechaInicio) { this.fechaInicio = fechaInicio; }
+    public LocalDate getFechaFin() { return fechaFin; }
+    public void setFechaFin(LocalDate fechaFin) { this.fechaFin = fechaFin; }
+    public Integer getCantidad() { return cantidad; }
+    public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+    public LocalDateTime getCreadaEn() { return creadaEn; }
+    public void setCreadaEn(LocalDateTime creadaEn) { this.creadaEn = creadaEn; }
+    public LocalDateTime getExpiraEn() { return expiraEn; }
+    public void setExpiraEn(LocalDateTime expiraEn) { this.expiraEn = expiraEn; }
+}
@@ -2,6 +2,7 @@ package com.gestion.hotelera.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.hotelera.event.VersionRecursoEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,6 +15,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "servicios")
+@EntityListeners(VersionRecursoEntityListener.class)
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Servicio {
 
@@ -34,6 +34,10 @@ public class Usuario implements UserDetails {
     @Column(nullable = false)
     private Boolean activo = true;
 
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long versionCredenciales = 0L;
+
     @OneToOne(mappedBy = "usuario", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private Empleado empleado;
@@ -97,6 +101,18 @@ public class Usuario implements UserDetails {
         this.activo = activo;
     }
 
+    public Long getVersionCredenciales() {
+        return versionCredenciales;
+    }
+
+    public void setVersionCredenciales(Long versionCredenciales) {
+        this.versionCredenciales = versionCredenciales;
+    }
+
+    public void incrementarVersionCredenciales() {
+        this.versionCredenciales = (versionCredenciales != null ? versionCredenciales : 0L) + 1;
+    }
+
     public Empleado getEmpleado() {
         return empleado;
     }
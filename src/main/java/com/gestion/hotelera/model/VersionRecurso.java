@@ -0,0 +1,26 @@
+package com.gestion.hotelera.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "versiones_recursos")
+public class VersionRecurso {
+
+    @Id
+    @Column(length = 40)
+    private String recurso;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private long modificado;
+
+    public VersionRecurso() {}
+    public String getRecurso() { return recurso; }
+    public void setRecurso(String recurso) { this.recurso = recurso; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public long getModificado() { return modificado; }
+    public void setModificado(long modificado) { this.modificado = modificado; }
+}
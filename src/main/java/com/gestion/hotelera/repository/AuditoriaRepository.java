@@ -4,8 +4,13 @@ import com.gestion.hotelera.model.Auditoria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface AuditoriaRepository extends JpaRepository<Auditoria, Long> {
 
@@ -20,4 +25,11 @@ public interface AuditoriaRepository extends JpaRepository<Auditoria, Long> {
     org.springframework.data.domain.Page<Auditoria> findByTipoAccionContainingIgnoreCaseAndTimestampBetween(
             String tipoAccion, java.time.LocalDateTime start, java.time.LocalDateTime end,
             org.springframework.data.domain.Pageable pageable);
+
+    List<Auditoria> findAllByOrderByTimestampDescIdDesc(Pageable pageable);
+
+    @Query("SELECT a FROM Auditoria a WHERE a.timestamp < :timestamp " +
+            "OR (a.timestamp = :timestamp AND a.id < :id) ORDER BY a.timestamp DESC, a.id DESC")
+    List<Auditoria> findAnterioresA(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id,
+            Pageable pageable);
 }
\ No newline at end of file
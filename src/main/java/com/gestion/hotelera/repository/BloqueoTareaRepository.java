@@ -0,0 +1,34 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.BloqueoTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface BloqueoTareaRepository extends JpaRepository<BloqueoTarea, String> {
+
+    @Modifying
+    @Query("UPDATE BloqueoTarea b SET b.propietario = :propietario, b.bloqueadoEn = :ahora, b.bloqueadoHasta = :hasta " +
+            "WHERE b.nombre = :nombre AND b.bloqueadoHasta <= :ahora")
+    int adquirir(@Param("nombre") String nombre,
+                 @Param("propietario") String propietario,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query("INSERT INTO BloqueoTarea (nombre, propietario, bloqueadoEn, bloqueadoHasta) " +
+            "VALUES (:nombre, :propietario, :ahora, :hasta)")
+    int insertar(@Param("nombre") String nombre,
+                 @Param("propietario") String propietario,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query("UPDATE BloqueoTarea b SET b.bloqueadoHasta = :hasta WHERE b.nombre = :nombre AND b.propietario = :propietario")
+    int liberar(@Param("nombre") String nombre,
+                @Param("propietario") String propietario,
+                @Param("hasta") LocalDateTime hasta);
+}
@@ -0,0 +1,9 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.CorreoFallido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CorreoFallidoRepository extends JpaRepository<CorreoFallido, Long> {
+}
@@ -0,0 +1,11 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.EjecucionTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface EjecucionTareaRepository extends JpaRepository<EjecucionTarea, Long> {
+
+    List<EjecucionTarea> findTop50ByTareaOrderByInicioDescIdDesc(String tarea);
+}
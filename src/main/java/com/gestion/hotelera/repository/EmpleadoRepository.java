@@ -1,10 +1,15 @@
 package com.gestion.hotelera.repository;
 
 import com.gestion.hotelera.model.Empleado;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
     boolean existsByEmail(String email);
+
+    List<Empleado> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
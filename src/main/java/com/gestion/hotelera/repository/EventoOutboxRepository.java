@@ -0,0 +1,50 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_eventos (clave_idempotencia, tipo, payload, estado, intentos, " +
+            "fecha_creacion, proximo_intento) VALUES (:clave, :tipo, :payload, :estado, 0, :ahora, :ahora)",
+            nativeQuery = true)
+    int insertarSiNoExiste(@Param("clave") String claveIdempotencia,
+                           @Param("tipo") String tipo,
+                           @Param("payload") String payload,
+                           @Param("estado") String estado,
+                           @Param("ahora") LocalDateTime ahora);
+
+    long countByEstado(String estado);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoOutbox e WHERE e.estado = :estado AND e.proximoIntento <= :ahora ORDER BY e.id")
+    List<EventoOutbox> findParaDespacho(@Param("estado") String estado,
+                                        @Param("ahora") LocalDateTime ahora,
+                                        Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.estado = :nuevoEstado, e.intentos = 0, e.proximoIntento = :ahora, " +
+            "e.ultimoError = NULL WHERE e.estado = :estado")
+    int reactivar(@Param("estado") String estado,
+                  @Param("nuevoEstado") String nuevoEstado,
+                  @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.estado = :estado AND e.fechaProcesado < :limite")
+    int purgar(@Param("estado") String estado, @Param("limite") LocalDateTime limite);
+}
@@ -1,7 +1,15 @@
 package com.gestion.hotelera.repository;
 
 import com.gestion.hotelera.model.Habitacion;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,10 +18,66 @@ public interface HabitacionRepository extends JpaRepository<Habitacion, Long> {
 
     Optional<Habitacion> findByNumero(String numero);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM Habitacion h WHERE h.id = :id")
+    Optional<Habitacion> findByIdParaReservar(@Param("id") Long id);
+
     long countByEstado(String estado);
 
     long countByEstadoIgnoreCase(String estado);
 
+    @Query("SELECT UPPER(h.estado), COUNT(h) FROM Habitacion h GROUP BY UPPER(h.estado)")
+    List<Object[]> contarPorEstado();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Habitacion h SET h.estado = CASE WHEN EXISTS (SELECT r.id FROM Reserva r WHERE r.habitacion = h " +
+            "AND (UPPER(r.estadoReserva) = 'ACTIVA' OR (UPPER(r.estadoReserva) = 'PENDIENTE' " +
+            "AND r.fechaInicio <= :fecha AND r.fechaFin >= :fecha))) THEN 'OCUPADA' ELSE 'DISPONIBLE' END " +
+            "WHERE h.estado IS NULL OR (UPPER(h.estado) <> 'MANTENIMIENTO' AND h.estado <> " +
+            "CASE WHEN EXISTS (SELECT r.id FROM Reserva r WHERE r.habitacion = h " +
+            "AND (UPPER(r.estadoReserva) = 'ACTIVA' OR (UPPER(r.estadoReserva) = 'PENDIENTE' " +
+            "AND r.fechaInicio <= :fecha AND r.fechaFin >= :fecha))) THEN 'OCUPADA' ELSE 'DISPONIBLE' END)")
+    int conciliarEstados(@Param("fecha") LocalDate fecha);
+
+    @Query("SELECT h.id, h.numero, h.estado FROM Habitacion h")
+    List<Object[]> findEstados();
+
+    @Query("SELECT COUNT(h), MIN(h.precioPorNoche) FROM Habitacion h WHERE UPPER(h.tipo) = :tipo")
+    List<Object[]> resumirTipo(@Param("tipo") String tipo);
+
+    @Query("SELECT h.id, UPPER(h.tipo) FROM Habitacion h")
+    List<Object[]> findTiposPorHabitacion();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Habitacion h SET h.estado = :estado " +
+            "WHERE h.id IN :ids AND (h.estado IS NULL OR UPPER(h.estado) <> 'MANTENIMIENTO')")
+    int actualizarEstado(@Param("ids") Collection<Long> ids, @Param("estado") String estado);
+
     org.springframework.data.domain.Page<Habitacion> findByNumeroContainingIgnoreCaseOrTipoContainingIgnoreCase(
             String numero, String tipo, org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT h FROM Habitacion h WHERE (h.estado IS NULL OR UPPER(h.estado) <> 'MANTENIMIENTO') " +
+            "AND (:tipo IS NULL OR UPPER(h.tipo) = UPPER(:tipo)) " +
+            "AND (:precioMin IS NULL OR h.precioPorNoche >= :precioMin) " +
+            "AND (:precioMax IS NULL OR h.precioPorNoche <= :precioMax) " +
+            "ORDER BY h.id")
+    List<Habitacion> findReservables(@Param("tipo") String tipo,
+                                     @Param("precioMin") Double precioMin,
+                                     @Param("precioMax") Double precioMax);
+
+    @Query("SELECT h FROM Habitacion h WHERE (h.estado IS NULL OR UPPER(h.estado) <> 'MANTENIMIENTO') " +
+            "AND (:tipo IS NULL OR UPPER(h.tipo) = UPPER(:tipo)) " +
+            "AND (:precioMin IS NULL OR h.precioPorNoche >= :precioMin) " +
+            "AND (:precioMax IS NULL OR h.precioPorNoche <= :precioMax) " +
+            "AND NOT EXISTS (SELECT r.id FROM Reserva r WHERE r.habitacion = h " +
+            "AND (r.estadoReserva IS NULL OR UPPER(r.estadoReserva) <> 'CANCELADA') " +
+            "AND r.fechaInicio < :fechaFin " +
+            "AND :fechaInicio < (CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' AND r.fechaSalidaReal IS NOT NULL " +
+            "THEN r.fechaSalidaReal ELSE r.fechaFin END)) " +
+            "ORDER BY h.id")
+    List<Habitacion> findLibresEnRango(@Param("fechaInicio") LocalDate fechaInicio,
+                                       @Param("fechaFin") LocalDate fechaFin,
+                                       @Param("tipo") String tipo,
+                                       @Param("precioMin") Double precioMin,
+                                       @Param("precioMax") Double precioMax);
 }
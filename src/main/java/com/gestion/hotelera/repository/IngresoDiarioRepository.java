@@ -0,0 +1,40 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.IngresoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface IngresoDiarioRepository extends JpaRepository<IngresoDiario, LocalDate> {
+
+    List<IngresoDiario> findByFechaBetweenOrderByFecha(LocalDate inicio, LocalDate fin);
+
+    @Query("SELECT COALESCE(SUM(i.monto), 0.0) FROM IngresoDiario i")
+    double sumarTotal();
+
+    @Query("SELECT COALESCE(SUM(i.monto), 0.0) FROM IngresoDiario i WHERE i.fecha BETWEEN :inicio AND :fin")
+    double sumarEntre(@Param("inicio") LocalDate inicio, @Param("fin") LocalDate fin);
+
+    @Modifying
+    @Query(value = "INSERT INTO ingresos_diarios (fecha, monto) VALUES (:fecha, :delta) " +
+            "ON DUPLICATE KEY UPDATE monto = monto + :delta", nativeQuery = true)
+    int acumular(@Param("fecha") LocalDate fecha, @Param("delta") double delta);
+
+    @Modifying
+    @Query("UPDATE IngresoDiario i SET i.monto = :monto WHERE i.fecha = :fecha")
+    int fijar(@Param("fecha") LocalDate fecha, @Param("monto") double monto);
+
+    @Query("SELECT i.fecha FROM IngresoDiario i WHERE ABS(i.monto - " +
+            "(SELECT COALESCE(SUM(r.monto), 0.0) FROM IngresoReserva r WHERE r.fecha = i.fecha)) > 0.005")
+    List<LocalDate> findFechasDescuadradas();
+
+    @Query("SELECT DISTINCT r.fecha FROM IngresoReserva r " +
+            "WHERE NOT EXISTS (SELECT i FROM IngresoDiario i WHERE i.fecha = r.fecha)")
+    List<LocalDate> findFechasSinTotal();
+}
@@ -0,0 +1,21 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.IngresoReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface IngresoReservaRepository extends JpaRepository<IngresoReserva, Long> {
+
+    @Query("SELECT COALESCE(SUM(i.monto), 0.0) FROM IngresoReserva i WHERE i.fecha = :fecha")
+    double sumarPorFecha(@Param("fecha") LocalDate fecha);
+
+    @Query("SELECT i.reservaId FROM IngresoReserva i " +
+            "WHERE NOT EXISTS (SELECT r FROM Reserva r WHERE r.id = i.reservaId) ORDER BY i.reservaId")
+    List<Long> findHuerfanas();
+}
@@ -0,0 +1,22 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.InventarioReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface InventarioReservaRepository extends JpaRepository<InventarioReserva, Long> {
+
+    @Query("SELECT COUNT(r) FROM InventarioReserva r WHERE r.tipo = :tipo " +
+            "AND r.fechaInicio <= :fecha AND r.fechaFin > :fecha")
+    long contarVendidas(@Param("tipo") String tipo, @Param("fecha") LocalDate fecha);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM InventarioReserva r")
+    int vaciar();
+}
@@ -0,0 +1,54 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.InventarioTipo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface InventarioTipoRepository extends JpaRepository<InventarioTipo, Long> {
+
+    @Query("SELECT i FROM InventarioTipo i WHERE i.tipo = :tipo AND i.fecha >= :desde AND i.fecha < :hasta " +
+            "ORDER BY i.fecha")
+    List<InventarioTipo> findNoches(@Param("tipo") String tipo,
+                                    @Param("desde") LocalDate desde,
+                                    @Param("hasta") LocalDate hasta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventarioTipo i WHERE i.tipo = :tipo AND i.fecha >= :desde AND i.fecha < :hasta " +
+            "ORDER BY i.fecha")
+    List<InventarioTipo> findNochesParaActualizar(@Param("tipo") String tipo,
+                                                  @Param("desde") LocalDate desde,
+                                                  @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT i.fecha FROM InventarioTipo i WHERE i.tipo = :tipo AND i.fecha >= :desde AND i.fecha < :hasta")
+    List<LocalDate> findFechas(@Param("tipo") String tipo,
+                               @Param("desde") LocalDate desde,
+                               @Param("hasta") LocalDate hasta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventarioTipo i WHERE i.fecha >= :desde ORDER BY i.tipo, i.fecha")
+    List<InventarioTipo> findDesdeParaActualizar(@Param("desde") LocalDate desde);
+
+    @Modifying
+    @Query("UPDATE InventarioTipo i SET i.retenidas = :retenidas, i.vendidas = :vendidas " +
+            "WHERE i.tipo = :tipo AND i.fecha = :fecha")
+    int fijar(@Param("tipo") String tipo,
+              @Param("fecha") LocalDate fecha,
+              @Param("retenidas") int retenidas,
+              @Param("vendidas") int vendidas);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO inventario_tipos (tipo, fecha, retenidas, vendidas) " +
+            "VALUES (:tipo, :fecha, 0, :vendidas)", nativeQuery = true)
+    int crearSiFalta(@Param("tipo") String tipo,
+                     @Param("fecha") LocalDate fecha,
+                     @Param("vendidas") int vendidas);
+}
@@ -1,19 +1,36 @@
 package com.gestion.hotelera.repository;
 
+import com.gestion.hotelera.dto.ContribucionIngreso;
+import com.gestion.hotelera.dto.FilaReserva;
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.dto.ResumenMetricasReservas;
+import com.gestion.hotelera.dto.ResumenReservas;
+import com.gestion.hotelera.dto.ResumenReservasCliente;
+import com.gestion.hotelera.dto.ServicioReservado;
 import com.gestion.hotelera.model.Reserva;
 import com.gestion.hotelera.model.Habitacion;
 import com.gestion.hotelera.model.Cliente;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
     List<Reserva> findByCliente(Cliente cliente);
+    List<Reserva> findByClienteIdOrderByIdAsc(Long clienteId);
+
+    @Query("SELECT UPPER(r.estadoReserva), COUNT(r) FROM Reserva r JOIN r.cliente c JOIN c.usuario u " +
+            "WHERE u.username = :username GROUP BY UPPER(r.estadoReserva)")
+    List<Object[]> contarPorEstadoDeUsuario(@Param("username") String username);
     List<Reserva> findByHabitacion(Habitacion habitacion);
     List<Reserva> findByClienteAndEstadoReserva(Cliente cliente, String estadoReserva);
     boolean existsByClienteAndEstadoReservaIn(Cliente cliente, List<String> estadosActivos);
@@ -57,4 +74,160 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
                                            @Param("fechaInicio") LocalDate fechaInicio,
                                            @Param("fechaFin") LocalDate fechaFin,
                                            @Param("reservaId") Long reservaId);
+
+    @Query("SELECT COUNT(r) > 0 FROM Reserva r WHERE r.habitacion.id = :habitacionId " +
+            "AND (r.estadoReserva IS NULL OR UPPER(r.estadoReserva) <> 'CANCELADA') " +
+            "AND (:reservaId IS NULL OR r.id <> :reservaId) " +
+            "AND r.fechaInicio < :fechaFin " +
+            "AND :fechaInicio < (CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' AND r.fechaSalidaReal IS NOT NULL " +
+            "THEN r.fechaSalidaReal ELSE r.fechaFin END)")
+    boolean existeSolapamientoEfectivo(@Param("habitacionId") Long habitacionId,
+                                       @Param("fechaInicio") LocalDate fechaInicio,
+                                       @Param("fechaFin") LocalDate fechaFin,
+                                       @Param("reservaId") Long reservaId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.habitacion.id = :habitacionId " +
+            "AND (r.estadoReserva IS NULL OR UPPER(r.estadoReserva) <> 'CANCELADA') " +
+            "AND (:reservaId IS NULL OR r.id <> :reservaId) " +
+            "AND r.fechaInicio < :fechaFin " +
+            "AND :fechaInicio < (CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' AND r.fechaSalidaReal IS NOT NULL " +
+            "THEN r.fechaSalidaReal ELSE r.fechaFin END)")
+    List<Reserva> findSolapadasParaReservar(@Param("habitacionId") Long habitacionId,
+                                            @Param("fechaInicio") LocalDate fechaInicio,
+                                            @Param("fechaFin") LocalDate fechaFin,
+                                            @Param("reservaId") Long reservaId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.id IN :ids ORDER BY r.id")
+    List<Reserva> findParaContabilizar(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.gestion.hotelera.dto.IntervaloReserva(r.id, r.habitacion.id, r.fechaInicio, r.fechaFin, " +
+            "r.fechaSalidaReal, r.estadoReserva) FROM Reserva r " +
+            "WHERE r.id > :ultimoId AND (r.estadoReserva IS NULL OR UPPER(r.estadoReserva) <> 'CANCELADA') " +
+            "ORDER BY r.id")
+    List<IntervaloReserva> findIntervalosBloqueantesDesde(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.IntervaloReserva(r.id, r.habitacion.id, r.fechaInicio, r.fechaFin, " +
+            "r.fechaSalidaReal, r.estadoReserva) FROM Reserva r " +
+            "WHERE r.id > :ultimoId AND r.fechaFin > :desde " +
+            "AND (r.estadoReserva IS NULL OR UPPER(r.estadoReserva) <> 'CANCELADA') ORDER BY r.id")
+    List<IntervaloReserva> findIntervalosBloqueantesDesde(@Param("ultimoId") Long ultimoId,
+                                                          @Param("desde") LocalDate desde,
+                                                          Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.IntervaloReserva(r.id, r.habitacion.id, r.fechaInicio, r.fechaFin, " +
+            "r.fechaSalidaReal, r.estadoReserva) FROM Reserva r " +
+            "WHERE r.fechaInicio < :hasta AND r.fechaFin > :desde AND UPPER(r.estadoReserva) IN :estados")
+    List<IntervaloReserva> findIntervalosEnRango(@Param("desde") LocalDate desde,
+                                                 @Param("hasta") LocalDate hasta,
+                                                 @Param("estados") List<String> estados);
+
+    @Query("SELECT new com.gestion.hotelera.dto.ContribucionIngreso(r.id, r.estadoReserva, p.estado, r.totalPagar, " +
+            "(SELECT COALESCE(SUM(s.precio), 0.0) FROM Reserva r2 JOIN r2.servicios s WHERE r2.id = r.id), " +
+            "r.montoDescuento, r.fechaSalidaReal, r.fechaFin) " +
+            "FROM Reserva r LEFT JOIN r.pago p WHERE r.id > :ultimoId ORDER BY r.id")
+    List<ContribucionIngreso> findContribucionesDesde(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.ResumenReservas(COUNT(r), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'PENDIENTE' THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'ACTIVA' THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'ACTIVA' " +
+            "AND (r.fechaInicio = :hoy OR r.fechaCheckinReal = :hoy) THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' AND r.fechaSalidaReal = :hoy THEN 1L ELSE 0L END)) " +
+            "FROM Reserva r")
+    ResumenReservas resumirParaPanel(@Param("hoy") LocalDate hoy);
+
+    @Query("SELECT new com.gestion.hotelera.dto.ResumenMetricasReservas(COUNT(r), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'ACTIVA' THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'PENDIENTE' THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.fechaInicio = :hoy THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.fechaFin = :hoy THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' THEN COALESCE(r.totalPagar, 0.0) ELSE 0.0 END)) " +
+            "FROM Reserva r")
+    ResumenMetricasReservas resumirParaMetricas(@Param("hoy") LocalDate hoy);
+
+    @Query("SELECT new com.gestion.hotelera.dto.ResumenReservasCliente(r.cliente.id, COUNT(r), " +
+            "MAX(CASE WHEN UPPER(r.estadoReserva) = 'FINALIZADA' THEN r.fechaFin END), " +
+            "MIN(CASE WHEN UPPER(r.estadoReserva) IN ('ACTIVA', 'PENDIENTE') THEN r.id END)) " +
+            "FROM Reserva r WHERE r.cliente.id IN :clienteIds GROUP BY r.cliente.id")
+    List<ResumenReservasCliente> resumirPorClientes(@Param("clienteIds") Collection<Long> clienteIds);
+
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.cliente c LEFT JOIN FETCH r.habitacion h " +
+            "WHERE r.fechaInicio = :fecha AND UPPER(r.estadoReserva) IN :estados " +
+            "AND c.email IS NOT NULL AND r.id > :ultimoId AND r.id <= :hastaId ORDER BY r.id")
+    List<Reserva> findLlegadasConClienteEntre(@Param("fecha") LocalDate fecha,
+                                              @Param("estados") List<String> estados,
+                                              @Param("ultimoId") Long ultimoId,
+                                              @Param("hastaId") Long hastaId,
+                                              Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM Reserva r")
+    long findMaxId();
+
+    @Query("SELECT new com.gestion.hotelera.dto.IntervaloReserva(r.id, r.habitacion.id, r.fechaInicio, r.fechaFin, " +
+            "r.fechaSalidaReal, r.estadoReserva) FROM Reserva r " +
+            "WHERE r.fechaFin < :fecha AND UPPER(r.estadoReserva) IN :estados AND r.id > :ultimoId ORDER BY r.id")
+    List<IntervaloReserva> findVencidasDesde(@Param("fecha") LocalDate fecha,
+                                             @Param("estados") List<String> estados,
+                                             @Param("ultimoId") Long ultimoId,
+                                             Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.IntervaloReserva(r.id, r.habitacion.id, r.fechaInicio, r.fechaFin, " +
+            "r.fechaSalidaReal, r.estadoReserva) FROM Reserva r " +
+            "WHERE r.fechaInicio <= :fecha AND UPPER(r.estadoReserva) IN :estados AND r.id > :ultimoId ORDER BY r.id")
+    List<IntervaloReserva> findIniciadasDesde(@Param("fecha") LocalDate fecha,
+                                              @Param("estados") List<String> estados,
+                                              @Param("ultimoId") Long ultimoId,
+                                              Pageable pageable);
+
+    @Query("SELECT DISTINCT r.habitacion.id FROM Reserva r WHERE UPPER(r.estadoReserva) IN :estados " +
+            "AND r.fechaInicio <= :fecha AND r.fechaFin >= :fecha")
+    List<Long> findHabitacionesOcupadasEn(@Param("fecha") LocalDate fecha,
+                                          @Param("estados") List<String> estados);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Reserva r SET r.estadoReserva = :nuevoEstado " +
+            "WHERE r.id IN :ids AND UPPER(r.estadoReserva) IN :estados AND r.fechaFin < :fecha")
+    int finalizarVencidas(@Param("ids") Collection<Long> ids,
+                          @Param("estados") List<String> estados,
+                          @Param("fecha") LocalDate fecha,
+                          @Param("nuevoEstado") String nuevoEstado);
+
+    @Query("SELECT r.id FROM Reserva r WHERE r.id IN :ids AND UPPER(r.estadoReserva) = :estado")
+    List<Long> findIdsConEstado(@Param("ids") Collection<Long> ids, @Param("estado") String estado);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Reserva r SET r.estadoReserva = :nuevoEstado " +
+            "WHERE r.id IN :ids AND UPPER(r.estadoReserva) IN :estados AND r.fechaInicio <= :fecha")
+    int activarIniciadas(@Param("ids") Collection<Long> ids,
+                         @Param("estados") List<String> estados,
+                         @Param("fecha") LocalDate fecha,
+                         @Param("nuevoEstado") String nuevoEstado);
+
+    @Query("SELECT new com.gestion.hotelera.dto.FilaReserva(r.id, r.estadoReserva, " +
+            "r.fechaInicio, r.fechaFin, r.fechaSalidaReal, r.diasEstadia, r.totalPagar, r.montoDescuento, " +
+            "c.id, c.nombres, c.apellidos, c.dni, c.email, c.telefono, h.numero, h.tipo, h.precioPorNoche, " +
+            "p.id, p.metodo, r.version) FROM Reserva r LEFT JOIN r.cliente c LEFT JOIN r.habitacion h LEFT JOIN r.pago p " +
+            "ORDER BY r.id DESC")
+    List<FilaReserva> findFilas(Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.FilaReserva(r.id, r.estadoReserva, " +
+            "r.fechaInicio, r.fechaFin, r.fechaSalidaReal, r.diasEstadia, r.totalPagar, r.montoDescuento, " +
+            "c.id, c.nombres, c.apellidos, c.dni, c.email, c.telefono, h.numero, h.tipo, h.precioPorNoche, " +
+            "p.id, p.metodo, r.version) FROM Reserva r LEFT JOIN r.cliente c LEFT JOIN r.habitacion h LEFT JOIN r.pago p " +
+            "WHERE r.id < :ultimoId ORDER BY r.id DESC")
+    List<FilaReserva> findFilasAnterioresA(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.FilaReserva(r.id, r.estadoReserva, " +
+            "r.fechaInicio, r.fechaFin, r.fechaSalidaReal, r.diasEstadia, r.totalPagar, r.montoDescuento, " +
+            "c.id, c.nombres, c.apellidos, c.dni, c.email, c.telefono, h.numero, h.tipo, h.precioPorNoche, " +
+            "p.id, p.metodo, r.version) FROM Reserva r LEFT JOIN r.cliente c LEFT JOIN r.habitacion h LEFT JOIN r.pago p " +
+            "WHERE c.id = :clienteId ORDER BY r.id")
+    List<FilaReserva> findFilasPorCliente(@Param("clienteId") Long clienteId);
+
+    @Query("SELECT new com.gestion.hotelera.dto.ServicioReservado(r.id, s.nombre, s.precio) " +
+            "FROM Reserva r JOIN r.servicios s WHERE r.id IN :ids ORDER BY r.id, s.id")
+    List<ServicioReservado> findServiciosDeReservas(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,35 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.RetencionInventario;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RetencionInventarioRepository extends JpaRepository<RetencionInventario, Long> {
+
+    Optional<RetencionInventario> findByCodigo(String codigo);
+
+    List<RetencionInventario> findByEstado(String estado);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RetencionInventario r WHERE r.codigo = :codigo")
+    Optional<RetencionInventario> findByCodigoParaActualizar(@Param("codigo") String codigo);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM RetencionInventario r WHERE r.estado = :estado AND r.expiraEn <= :ahora ORDER BY r.id")
+    List<RetencionInventario> findVencidas(@Param("estado") String estado,
+                                           @Param("ahora") LocalDateTime ahora,
+                                           Pageable pageable);
+}
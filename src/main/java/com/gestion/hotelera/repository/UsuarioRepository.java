@@ -1,12 +1,27 @@
 package com.gestion.hotelera.repository;
 
+import com.gestion.hotelera.dto.EstadoCredencial;
 import com.gestion.hotelera.model.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByUsername(String username);
+
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT new com.gestion.hotelera.dto.EstadoCredencial(u.username, u.versionCredenciales, u.activo) "
+            + "FROM Usuario u")
+    List<EstadoCredencial> findEstadosCredenciales();
+
+    @Query("SELECT new com.gestion.hotelera.dto.EstadoCredencial(u.username, u.versionCredenciales, u.activo) "
+            + "FROM Usuario u WHERE u.username = :username")
+    Optional<EstadoCredencial> findEstadoCredencial(@Param("username") String username);
 }
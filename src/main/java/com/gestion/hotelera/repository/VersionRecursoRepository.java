@@ -0,0 +1,21 @@
+package com.gestion.hotelera.repository;
+
+import com.gestion.hotelera.model.VersionRecurso;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VersionRecursoRepository extends JpaRepository<VersionRecurso, String> {
+
+    @Modifying
+    @Query("UPDATE VersionRecurso v SET v.version = v.version + 1, " +
+            "v.modificado = CASE WHEN v.modificado < :ahora THEN :ahora ELSE v.modificado END " +
+            "WHERE v.recurso = :recurso")
+    int incrementar(@Param("recurso") String recurso, @Param("ahora") long ahora);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO versiones_recursos (recurso, version, modificado) " +
+            "VALUES (:recurso, 0, :ahora)", nativeQuery = true)
+    int crearSiFalta(@Param("recurso") String recurso, @Param("ahora") long ahora);
+}
@@ -1,5 +1,6 @@
 package com.gestion.hotelera.security;
 
+import com.gestion.hotelera.config.JwtProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -26,10 +28,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final RevocacionTokenService revocacionTokenService;
+    private final JwtProperties jwtProperties;
 
-    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserDetailsService userDetailsService,
+            RevocacionTokenService revocacionTokenService, JwtProperties jwtProperties) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.revocacionTokenService = revocacionTokenService;
+        this.jwtProperties = jwtProperties;
     }
 
     @Override
@@ -46,11 +53,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            final String username = jwtService.getUsernameFromToken(token);
+            final JwtService.DatosToken datos = jwtService.parsear(token);
+            final String username = datos.username();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = resolverUsuario(datos);
 
-                if (jwtService.isTokenValid(token, userDetails)) {
+                if (userDetails != null && username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -74,6 +82,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolverUsuario(JwtService.DatosToken datos) {
+        if (jwtProperties.isSinEstado() && datos.esSinEstado()) {
+            if (!revocacionTokenService.esVigente(datos.username(), datos.version())) {
+                log.debug("Token revocado o usuario inactivo: {}", datos.username());
+                return null;
+            }
+            return User.withUsername(datos.username())
+                    .password("")
+                    .authorities(datos.rol())
+                    .build();
+        }
+        return userDetailsService.loadUserByUsername(datos.username());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         try {
             final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
@@ -1,33 +1,84 @@
 package com.gestion.hotelera.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.gestion.hotelera.config.JwtProperties;
 import com.gestion.hotelera.model.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    public static final String CLAIM_ROL = "rol";
+    public static final String CLAIM_VERSION = "ver";
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final JwtProperties jwtProperties;
+    private final Key key;
+    private final JwtParser parser;
+    private final Cache<String, ClaimsVerificados> cacheClaims;
+    private final long cacheTtlMs;
+    private final Clock reloj;
+
+    @Autowired
     public JwtService(JwtProperties jwtProperties) {
-        this.jwtProperties = jwtProperties;
+        this(jwtProperties, Clock.systemUTC());
     }
 
-    private final JwtProperties jwtProperties;
+    JwtService(JwtProperties jwtProperties, Clock reloj) {
+        this.jwtProperties = jwtProperties;
+        this.reloj = reloj;
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret()));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(reloj.millis())).build();
+        this.cacheTtlMs = jwtProperties.getCacheTtlMs();
+        this.cacheClaims = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, jwtProperties.getCacheEntradas()))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, cacheTtlMs)))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(reloj.millis()))
+                .build();
+    }
 
     public String getToken(Usuario user) {
-        return getToken(new HashMap<>(), user);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROL, user.getRol());
+        claims.put(CLAIM_VERSION, user.getVersionCredenciales() != null ? user.getVersionCredenciales() : 0L);
+        return getToken(claims, user);
+    }
+
+    public DatosToken parsear(String token) {
+        Claims claims = getAllClaims(token);
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+        return new DatosToken(claims.getSubject(), claims.get(CLAIM_ROL, String.class),
+                version != null ? version.longValue() : null, claims.getExpiration());
     }
 
     private String getToken(Map<String, Object> extraClaims, UserDetails user) {
@@ -35,17 +86,12 @@ public class JwtService {
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(user.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(reloj.millis()))
+                .setExpiration(new Date(reloj.millis() + jwtProperties.getExpiration()))
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     public String getUsernameFromToken(String token) {
         return getClaim(token, Claims::getSubject);
     }
@@ -60,12 +106,22 @@ public class JwtService {
             if (token == null || token.trim().isEmpty()) {
                 throw new IllegalArgumentException("Token no puede estar vacío");
             }
-            return Jwts
-                    .parserBuilder()
-                    .setSigningKey(getKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            if (cacheTtlMs <= 0) {
+                return parser.parseClaimsJws(token).getBody();
+            }
+            long ahora = reloj.millis();
+            String huella = huella(token);
+            ClaimsVerificados verificados = cacheClaims.getIfPresent(huella);
+            if (verificados != null && verificados.venceEn() > ahora) {
+                return verificados.claims();
+            }
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            long vence = ahora + cacheTtlMs;
+            if (claims.getExpiration() != null) {
+                vence = Math.min(vence, claims.getExpiration().getTime());
+            }
+            cacheClaims.put(huella, new ClaimsVerificados(claims, vence));
+            return claims;
         } catch (Exception e) {
             throw new RuntimeException("Error al procesar token JWT: " + e.getMessage(), e);
         }
@@ -85,6 +141,21 @@ public class JwtService {
     }
 
     private boolean isTokenExpired(String token) {
-        return getExpiration(token).before(new Date());
+        return getExpiration(token).before(new Date(reloj.millis()));
+    }
+
+    private static String huella(String token) {
+        byte[] digest = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private record ClaimsVerificados(Claims claims, long venceEn) {
+    }
+
+    public record DatosToken(String username, String rol, Long version, Date expiracion) {
+
+        public boolean esSinEstado() {
+            return rol != null && !rol.isBlank() && version != null;
+        }
     }
 }
\ No newline at end of file
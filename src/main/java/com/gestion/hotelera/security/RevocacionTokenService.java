@@ -0,0 +1,69 @@
+package com.gestion.hotelera.security;
+
+import com.gestion.hotelera.dto.EstadoCredencial;
+import com.gestion.hotelera.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RevocacionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocacionTokenService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final Map<String, EstadoCredencial> estados = new ConcurrentHashMap<>();
+
+    public RevocacionTokenService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    public boolean esVigente(String username, long versionToken) {
+        if (username == null) {
+            return false;
+        }
+        EstadoCredencial estado = estados.computeIfAbsent(username, this::consultar);
+        return estado.admite(versionToken);
+    }
+
+    public void invalidar(String username) {
+        if (username != null) {
+            estados.put(username, consultar(username));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.revocacion.refresco-ms:30000}",
+            fixedDelayString = "${jwt.revocacion.refresco-ms:30000}")
+    public void recargar() {
+        try {
+            Map<String, EstadoCredencial> actuales = new ConcurrentHashMap<>();
+            usuarioRepository.findEstadosCredenciales().forEach(e -> actuales.put(e.getUsername(), e));
+            estados.keySet().retainAll(actuales.keySet());
+            // Por clave y quedándose con la versión más alta: un invalidar() que llegue durante la consulta
+            // ya dejó el estado nuevo y la instantánea no debe pisarlo
+            actuales.forEach((username, estado) ->
+                    estados.merge(username, estado, RevocacionTokenService::masReciente));
+            log.debug("Estados de credenciales recargados: {}", actuales.size());
+        } catch (Exception e) {
+            log.warn("No se pudieron recargar los estados de credenciales", e);
+        }
+    }
+
+    private static EstadoCredencial masReciente(EstadoCredencial actual, EstadoCredencial leido) {
+        long versionActual = actual.getVersion() != null ? actual.getVersion() : -1L;
+        long versionLeida = leido.getVersion() != null ? leido.getVersion() : -1L;
+        return versionActual > versionLeida ? actual : leido;
+    }
+
+    private EstadoCredencial consultar(String username) {
+        return usuarioRepository.findEstadoCredencial(username)
+                .orElseGet(() -> new EstadoCredencial(username, null, false));
+    }
+}
@@ -1,5 +1,7 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.dto.Cursor;
+import com.gestion.hotelera.dto.CursorPage;
 import com.gestion.hotelera.model.Auditoria;
 import com.gestion.hotelera.repository.AuditoriaRepository;
 import org.springframework.data.domain.Page;
@@ -7,29 +9,28 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 @Service
 public class AuditoriaService {
 
     private final AuditoriaRepository auditoriaRepository;
+    private final EscritorAuditoriaService escritorAuditoriaService;
 
-    public AuditoriaService(AuditoriaRepository auditoriaRepository) {
+    public AuditoriaService(AuditoriaRepository auditoriaRepository,
+            EscritorAuditoriaService escritorAuditoriaService) {
         this.auditoriaRepository = auditoriaRepository;
+        this.escritorAuditoriaService = escritorAuditoriaService;
     }
 
-    @org.springframework.scheduling.annotation.Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void registrarAccion(String tipoAccion, String detalleAccion, String entidadAfectada,
             Long entidadAfectadaId) {
         registrarAccion(null, tipoAccion, detalleAccion, entidadAfectada, entidadAfectadaId);
     }
 
-    @org.springframework.scheduling.annotation.Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void registrarAccion(String username, String tipoAccion, String detalleAccion, String entidadAfectada,
             Long entidadAfectadaId) {
         if (tipoAccion == null || tipoAccion.trim().isEmpty()) {
@@ -40,11 +41,7 @@ public class AuditoriaService {
         if (currentUsername == null) {
             try {
                 Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-                if (authentication != null && authentication.isAuthenticated()
-                        && !(authentication.getPrincipal() instanceof String)) {
-                    currentUsername = authentication.getName();
-                } else if (authentication != null && authentication.isAuthenticated()
-                        && (authentication.getPrincipal() instanceof String)) {
+                if (authentication != null && authentication.isAuthenticated()) {
                     currentUsername = authentication.getName();
                 }
             } catch (Exception e) {
@@ -61,7 +58,7 @@ public class AuditoriaService {
         logEntry.setEntidadAfectada(entidadAfectada);
         logEntry.setEntidadAfectadaId(entidadAfectadaId);
 
-        auditoriaRepository.save(logEntry);
+        escritorAuditoriaService.encolar(logEntry);
     }
 
     public Page<Auditoria> obtenerTodosLosLogs(Pageable pageable) {
@@ -71,6 +68,24 @@ public class AuditoriaService {
         return auditoriaRepository.findAll(pageable);
     }
 
+    public CursorPage<Auditoria> obtenerLogsDesde(String cursor, Integer tamano, boolean conTotal) {
+        int limite = CursorPage.normalizarTamano(tamano);
+        List<Auditoria> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = auditoriaRepository.findAllByOrderByTimestampDescIdDesc(CursorPage.ventana(limite));
+        } else {
+            List<String> partes = Cursor.decodificar(cursor, 2);
+            try {
+                filas = auditoriaRepository.findAnterioresA(LocalDateTime.parse(partes.get(0)),
+                        Long.parseLong(partes.get(1)), CursorPage.ventana(limite));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+        }
+        return CursorPage.de(filas, limite, a -> Cursor.codificar(a.getTimestamp(), a.getId()),
+                conTotal ? auditoriaRepository.count() : null);
+    }
+
     public Page<Auditoria> obtenerLogsPorDniEmpleado(String dni, Pageable pageable) {
         if (dni == null || dni.trim().isEmpty()) {
             return Page.empty();
@@ -0,0 +1,292 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.config.TareasProperties;
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.enums.EstadoReserva;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Service
+public class CalendarioOcupacionService {
+
+    public enum Capa {
+        OCUPACION(EstadoReserva.ACTIVA, EstadoReserva.FINALIZADA),
+        RESERVA(EstadoReserva.ACTIVA, EstadoReserva.PENDIENTE);
+
+        private final EstadoReserva[] estados;
+
+        Capa(EstadoReserva... estados) {
+            this.estados = estados;
+        }
+
+        public boolean incluye(String estadoReserva) {
+            for (EstadoReserva estado : estados) {
+                if (estado.getValor().equalsIgnoreCase(estadoReserva)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public List<String> getEstados() {
+            List<String> valores = new ArrayList<>();
+            for (EstadoReserva estado : estados) {
+                valores.add(estado.getValor());
+            }
+            return valores;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarioOcupacionService.class);
+    private static final int TAMANO_LOTE_CARGA = 5000;
+    private static final int DIAS_POR_ANIO = 366;
+
+    private final ReservaRepository reservaRepository;
+    private final boolean habilitado;
+
+    private final Map<Long, CalendarioHabitacion> calendarios = new ConcurrentHashMap<>();
+    private final Map<Long, IntervaloReserva> intervaloPorReserva = new ConcurrentHashMap<>();
+    private final Map<Capa, Map<Integer, AtomicIntegerArray>> contadores = new EnumMap<>(Capa.class);
+    private final Set<Long> modificadasDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cargando = false;
+    private volatile boolean listo = false;
+    private volatile LocalDate inicioVentana = LocalDate.MIN;
+
+    // Sin valor explícito solo se activa fuera de clúster: el calendario solo recibe los cambios de este nodo
+    @Autowired
+    public CalendarioOcupacionService(ReservaRepository reservaRepository,
+            @Value("${app.ocupacion.calendario.enabled:}") Boolean habilitado,
+            TareasProperties tareasProperties) {
+        this(reservaRepository, habilitado != null ? habilitado : !tareasProperties.isCluster());
+        if (this.habilitado && tareasProperties.isCluster()) {
+            logger.warn("Calendario de ocupación activo en modo clúster: los conteos de este nodo "
+                    + "no verán las reservas hechas en otros nodos");
+        }
+    }
+
+    CalendarioOcupacionService(ReservaRepository reservaRepository, boolean habilitado) {
+        this.reservaRepository = reservaRepository;
+        this.habilitado = habilitado;
+        for (Capa capa : Capa.values()) {
+            contadores.put(capa, new ConcurrentHashMap<>());
+        }
+    }
+
+    public boolean estaListo() {
+        return habilitado && listo;
+    }
+
+    public long[] contarPorDia(Capa capa, LocalDate inicio, LocalDate fin) {
+        int dias = (int) ChronoUnit.DAYS.between(inicio, fin) + 1;
+        long[] resultado = new long[Math.max(dias, 0)];
+        if (dias <= 0) {
+            return resultado;
+        }
+
+        if (!estaListo() || inicio.isBefore(inicioVentana)) {
+            Map<LocalDate, Set<Long>> habitacionesPorDia = new HashMap<>();
+            for (IntervaloReserva r : reservaRepository.findIntervalosEnRango(inicio, fin.plusDays(1),
+                    capa.getEstados())) {
+                LocalDate desde = r.getFechaInicio().isBefore(inicio) ? inicio : r.getFechaInicio();
+                LocalDate hasta = r.getFechaFin().isAfter(fin.plusDays(1)) ? fin.plusDays(1) : r.getFechaFin();
+                for (LocalDate d = desde; d.isBefore(hasta); d = d.plusDays(1)) {
+                    habitacionesPorDia.computeIfAbsent(d, k -> new HashSet<>()).add(r.getHabitacionId());
+                }
+            }
+            for (int i = 0; i < dias; i++) {
+                Set<Long> habitaciones = habitacionesPorDia.get(inicio.plusDays(i));
+                resultado[i] = habitaciones != null ? habitaciones.size() : 0;
+            }
+            return resultado;
+        }
+
+        for (int i = 0; i < dias; i++) {
+            LocalDate dia = inicio.plusDays(i);
+            AtomicIntegerArray porDia = contadores.get(capa).get(dia.getYear());
+            resultado[i] = porDia != null ? porDia.get(dia.getDayOfYear() - 1) : 0;
+        }
+        return resultado;
+    }
+
+    public long contarHabitaciones(Capa capa, LocalDate dia) {
+        return contarPorDia(capa, dia, dia)[0];
+    }
+
+    public Set<Long> habitacionesOcupadas(Capa capa, LocalDate dia) {
+        Set<Long> ocupadas = new HashSet<>();
+        if (!estaListo() || dia.isBefore(inicioVentana)) {
+            for (IntervaloReserva r : reservaRepository.findIntervalosEnRango(dia, dia.plusDays(1),
+                    capa.getEstados())) {
+                ocupadas.add(r.getHabitacionId());
+            }
+            return ocupadas;
+        }
+        calendarios.forEach((habitacionId, calendario) -> {
+            if (calendario.estaMarcado(capa, dia)) {
+                ocupadas.add(habitacionId);
+            }
+        });
+        return ocupadas;
+    }
+
+    public double porcentajeOcupacion(Capa capa, LocalDate dia, long totalHabitaciones) {
+        if (totalHabitaciones <= 0) {
+            return 0.0;
+        }
+        return contarHabitaciones(capa, dia) * 100.0 / totalHabitaciones;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciarAplicacion() {
+        if (habilitado) {
+            recargar();
+        }
+    }
+
+    // Solo se cargan las reservas desde el 1 de enero del año en curso; lo anterior se consulta a la base de datos
+    public synchronized void recargar() {
+        cargando = true;
+        listo = false;
+        inicioVentana = LocalDate.now().withDayOfYear(1);
+        modificadasDuranteCarga.clear();
+        calendarios.clear();
+        intervaloPorReserva.clear();
+        contadores.values().forEach(Map::clear);
+        try {
+            long ultimoId = 0L;
+            List<IntervaloReserva> lote;
+            do {
+                lote = reservaRepository.findIntervalosBloqueantesDesde(ultimoId, inicioVentana,
+                        PageRequest.of(0, TAMANO_LOTE_CARGA));
+                for (IntervaloReserva intervalo : lote) {
+                    if (!modificadasDuranteCarga.contains(intervalo.getId())) {
+                        aplicar(intervalo.getId(), intervalo);
+                    }
+                    ultimoId = intervalo.getId();
+                }
+            } while (lote.size() == TAMANO_LOTE_CARGA);
+
+            listo = true;
+            logger.info("Calendario de ocupación cargado: {} reservas en {} habitaciones",
+                    intervaloPorReserva.size(), calendarios.size());
+        } catch (Exception e) {
+            logger.error("No se pudo cargar el calendario de ocupación, se usará la base de datos", e);
+        } finally {
+            cargando = false;
+            modificadasDuranteCarga.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambioEvent evento) {
+        if (!habilitado || evento.getReservaId() == null) {
+            return;
+        }
+        if (cargando) {
+            modificadasDuranteCarga.add(evento.getReservaId());
+        }
+        aplicar(evento.getReservaId(), evento.getActual());
+    }
+
+    private void aplicar(Long reservaId, IntervaloReserva actual) {
+        IntervaloReserva nuevo = actual != null && esCalendarizable(actual) ? actual : null;
+        IntervaloReserva previo = nuevo != null
+                ? intervaloPorReserva.put(reservaId, nuevo)
+                : intervaloPorReserva.remove(reservaId);
+
+        if (previo != null) {
+            CalendarioHabitacion calendario = calendarios.get(previo.getHabitacionId());
+            if (calendario != null) {
+                calendario.quitar(previo);
+            }
+        }
+        if (nuevo != null) {
+            calendarios.computeIfAbsent(nuevo.getHabitacionId(), id -> new CalendarioHabitacion())
+                    .agregar(nuevo);
+        }
+    }
+
+    private boolean esCalendarizable(IntervaloReserva intervalo) {
+        return intervalo.getHabitacionId() != null
+                && intervalo.getFechaInicio() != null
+                && intervalo.getFechaFin() != null
+                && intervalo.getFechaFin().isAfter(inicioVentana)
+                && !intervalo.estaCancelada();
+    }
+
+    private void ajustarContador(Capa capa, LocalDate dia, int delta) {
+        contadores.get(capa)
+                .computeIfAbsent(dia.getYear(), anio -> new AtomicIntegerArray(DIAS_POR_ANIO))
+                .addAndGet(dia.getDayOfYear() - 1, delta);
+    }
+
+    // Por capa y día cuenta las reservas de la habitación que lo cubren: el día está ocupado mientras sea > 0
+    private final class CalendarioHabitacion {
+
+        private final Map<Capa, Map<Integer, int[]>> reservasPorDia = new EnumMap<>(Capa.class);
+
+        CalendarioHabitacion() {
+            for (Capa capa : Capa.values()) {
+                reservasPorDia.put(capa, new ConcurrentHashMap<>());
+            }
+        }
+
+        synchronized void agregar(IntervaloReserva intervalo) {
+            sumar(intervalo, 1);
+        }
+
+        synchronized void quitar(IntervaloReserva intervalo) {
+            sumar(intervalo, -1);
+        }
+
+        boolean estaMarcado(Capa capa, LocalDate dia) {
+            int[] porDia = reservasPorDia.get(capa).get(dia.getYear());
+            return porDia != null && porDia[dia.getDayOfYear() - 1] > 0;
+        }
+
+        private void sumar(IntervaloReserva intervalo, int delta) {
+            LocalDate desde = intervalo.getFechaInicio().isBefore(inicioVentana)
+                    ? inicioVentana
+                    : intervalo.getFechaInicio();
+            for (Capa capa : Capa.values()) {
+                if (!capa.incluye(intervalo.getEstadoReserva())) {
+                    continue;
+                }
+                Map<Integer, int[]> porAnio = reservasPorDia.get(capa);
+                for (LocalDate dia = desde; dia.isBefore(intervalo.getFechaFin()); dia = dia.plusDays(1)) {
+                    int[] porDia = porAnio.computeIfAbsent(dia.getYear(), anio -> new int[DIAS_POR_ANIO]);
+                    int indice = dia.getDayOfYear() - 1;
+                    int antes = porDia[indice];
+                    porDia[indice] = Math.max(0, antes + delta);
+                    if (antes == 0 && porDia[indice] > 0) {
+                        ajustarContador(capa, dia, 1);
+                    } else if (antes > 0 && porDia[indice] == 0) {
+                        ajustarContador(capa, dia, -1);
+                    }
+                }
+            }
+        }
+    }
+}
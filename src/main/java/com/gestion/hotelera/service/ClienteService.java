@@ -1,5 +1,8 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.dto.Cursor;
+import com.gestion.hotelera.dto.CursorPage;
+import com.gestion.hotelera.dto.ResumenReservasCliente;
 import com.gestion.hotelera.enums.EstadoReserva;
 import com.gestion.hotelera.exception.ClienteConReservasActivasException;
 import com.gestion.hotelera.model.Cliente;
@@ -19,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -34,17 +38,23 @@ public class ClienteService {
     private final ReservaRepository reservaRepository;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LibroIngresosService libroIngresosService;
+    private final InventarioTipoService inventarioTipoService;
 
     public ClienteService(ClienteRepository clienteRepository,
             AuditoriaService auditoriaService,
             ReservaRepository reservaRepository,
             UsuarioRepository usuarioRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            LibroIngresosService libroIngresosService,
+            InventarioTipoService inventarioTipoService) {
         this.clienteRepository = clienteRepository;
         this.auditoriaService = auditoriaService;
         this.reservaRepository = reservaRepository;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.libroIngresosService = libroIngresosService;
+        this.inventarioTipoService = inventarioTipoService;
     }
 
     @Transactional
@@ -116,6 +126,16 @@ public class ClienteService {
         return clienteRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Cliente> obtenerClientesDesde(String cursor, Integer tamano, boolean conTotal) {
+        int limite = CursorPage.normalizarTamano(tamano);
+        Long ultimoId = Cursor.id(cursor);
+        List<Cliente> filas = clienteRepository.findByIdGreaterThanOrderByIdAsc(ultimoId != null ? ultimoId : 0L,
+                CursorPage.ventana(limite));
+        return CursorPage.de(filas, limite, c -> Cursor.codificar(c.getId()),
+                conTotal ? clienteRepository.count() : null);
+    }
+
     @Transactional(readOnly = true)
     public List<Cliente> buscarClientes(String search) {
         if (search == null || search.trim().isEmpty()) {
@@ -169,6 +189,10 @@ public class ClienteService {
 
                         List<Reserva> reservas = reservaRepository.findByCliente(cliente);
                         if (!reservas.isEmpty()) {
+                            reservas.forEach(r -> {
+                                libroIngresosService.retirar(r.getId());
+                                inventarioTipoService.retirar(r.getId());
+                            });
                             reservaRepository.deleteAll(reservas);
                         }
 
@@ -210,7 +234,7 @@ public class ClienteService {
                             search, search, search, validPageable);
         }
 
-        clientes.forEach(this::cargarDatosTransitorios);
+        cargarDatosTransitorios(clientes.getContent());
         return clientes;
     }
 
@@ -340,23 +364,31 @@ public class ClienteService {
                 reserva.getFechaFin());
     }
 
-    private void cargarDatosTransitorios(Cliente cliente) {
-        List<Reserva> reservas = reservaRepository.findByCliente(cliente);
-        cliente.setTotalReservas((long) reservas.size());
-
-        Optional<Reserva> reservaActiva = reservas.stream().filter(this::esReservaActiva).findFirst();
-        if (reservaActiva.isPresent()) {
-            cliente.setHasActiveReservations(true);
-            cliente.setActiveReservationId(reservaActiva.get().getId());
-        } else {
-            cliente.setHasActiveReservations(false);
+    private void cargarDatosTransitorios(List<Cliente> clientes) {
+        if (clientes.isEmpty()) {
+            return;
+        }
+        List<Long> ids = clientes.stream().map(Cliente::getId).filter(java.util.Objects::nonNull).toList();
+        Map<Long, ResumenReservasCliente> resumenes = ids.isEmpty() ? Map.of()
+                : reservaRepository.resumirPorClientes(ids).stream()
+                        .collect(Collectors.toMap(ResumenReservasCliente::getClienteId, r -> r));
+
+        for (Cliente cliente : clientes) {
+            ResumenReservasCliente resumen = resumenes.get(cliente.getId());
+            if (resumen == null) {
+                cliente.setTotalReservas(0L);
+                cliente.setHasActiveReservations(false);
+                continue;
+            }
+            cliente.setTotalReservas(resumen.getTotalReservas());
+            cliente.setHasActiveReservations(resumen.getReservaActivaId() != null);
+            if (resumen.getReservaActivaId() != null) {
+                cliente.setActiveReservationId(resumen.getReservaActivaId());
+            }
+            if (resumen.getUltimaEstancia() != null) {
+                cliente.setUltimaEstancia(resumen.getUltimaEstancia());
+            }
         }
-
-        reservas.stream()
-                .filter(r -> EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(r.getEstadoReserva()))
-                .map(Reserva::getFechaFin)
-                .max(java.util.Comparator.naturalOrder())
-                .ifPresent(cliente::setUltimaEstancia);
     }
 
     private Pageable ensureValidPageable(Pageable pageable) {
@@ -0,0 +1,279 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.model.CorreoFallido;
+import com.gestion.hotelera.repository.CorreoFallidoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ColaCorreoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaCorreoService.class);
+    private static final long ESPERA_POLL_MS = 500;
+
+    private final JavaMailSender mailSender;
+    private final CorreoFallidoRepository correoFallidoRepository;
+    private final BlockingQueue<CorreoPendiente> cola;
+    private final DelayQueue<CorreoPendiente> pendientesReintento = new DelayQueue<>();
+    private final int hilos;
+    private final int tamanoLote;
+    private final int maxIntentos;
+    private final long backoffInicialMs;
+    private final long backoffMaximoMs;
+
+    private final Counter enviados;
+    private final Counter reintentos;
+    private final Counter fallidos;
+
+    private ExecutorService remitentes;
+    private volatile boolean activo = false;
+
+    public ColaCorreoService(JavaMailSender mailSender,
+            CorreoFallidoRepository correoFallidoRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.cola.capacidad:1000}") int capacidad,
+            @Value("${app.mail.cola.hilos:2}") int hilos,
+            @Value("${app.mail.cola.lote:20}") int tamanoLote,
+            @Value("${app.mail.cola.max-intentos:5}") int maxIntentos,
+            @Value("${app.mail.cola.backoff-inicial-ms:2000}") long backoffInicialMs,
+            @Value("${app.mail.cola.backoff-maximo-ms:300000}") long backoffMaximoMs) {
+        this.mailSender = mailSender;
+        this.correoFallidoRepository = correoFallidoRepository;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.hilos = Math.max(1, hilos);
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.backoffInicialMs = backoffInicialMs;
+        this.backoffMaximoMs = backoffMaximoMs;
+
+        Gauge.builder("hotel.correo.cola", cola, BlockingQueue::size)
+                .description("Correos en espera de envío")
+                .register(meterRegistry);
+        Gauge.builder("hotel.correo.reintentos.pendientes", pendientesReintento, DelayQueue::size)
+                .description("Correos esperando un nuevo intento")
+                .register(meterRegistry);
+        this.enviados = Counter.builder("hotel.correo.enviados")
+                .description("Correos entregados al servidor SMTP")
+                .register(meterRegistry);
+        this.reintentos = Counter.builder("hotel.correo.reintentos")
+                .description("Intentos de envío reprogramados")
+                .register(meterRegistry);
+        this.fallidos = Counter.builder("hotel.correo.fallidos")
+                .description("Correos movidos a correos_fallidos")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        activo = true;
+        AtomicInteger contador = new AtomicInteger();
+        remitentes = Executors.newFixedThreadPool(hilos + 1, tarea -> {
+            Thread hilo = new Thread(tarea, "correo-remitente-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int i = 0; i < hilos; i++) {
+            remitentes.submit(this::procesarCola);
+        }
+        remitentes.submit(this::procesarReintentos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (remitentes != null) {
+            remitentes.shutdown();
+            try {
+                if (!remitentes.awaitTermination(10, TimeUnit.SECONDS)) {
+                    remitentes.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                remitentes.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<CorreoPendiente> restantes = new ArrayList<>();
+        cola.drainTo(restantes);
+        pendientesReintento.drainTo(restantes);
+        restantes.forEach(p -> registrarFallido(p, "Servicio de correo detenido antes del envío"));
+    }
+
+    public void encolar(SimpleMailMessage mensaje) {
+        CorreoPendiente pendiente = new CorreoPendiente(mensaje, 0, 0L);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ofrecer(pendiente);
+                }
+            });
+        } else {
+            ofrecer(pendiente);
+        }
+    }
+
+    public Map<SimpleMailMessage, Exception> enviarAhora(List<SimpleMailMessage> mensajes) {
+        Map<SimpleMailMessage, Exception> fallidosPorMensaje = new HashMap<>();
+        if (mensajes.isEmpty()) {
+            return fallidosPorMensaje;
+        }
+        try {
+            mailSender.send(mensajes.toArray(SimpleMailMessage[]::new));
+            enviados.increment(mensajes.size());
+        } catch (MailSendException e) {
+            Map<Object, Exception> fallos = e.getFailedMessages();
+            for (SimpleMailMessage mensaje : mensajes) {
+                Exception causa = fallos.isEmpty() ? e : fallos.get(mensaje);
+                if (causa != null) {
+                    fallidosPorMensaje.put(mensaje, causa);
+                } else {
+                    enviados.increment();
+                }
+            }
+        } catch (MailException e) {
+            mensajes.forEach(mensaje -> fallidosPorMensaje.put(mensaje, e));
+        }
+        return fallidosPorMensaje;
+    }
+
+    public int tamanoCola() {
+        return cola.size();
+    }
+
+    private void ofrecer(CorreoPendiente pendiente) {
+        if (!activo) {
+            registrarFallido(pendiente, "Servicio de correo detenido");
+        } else if (!cola.offer(pendiente)) {
+            registrarFallido(pendiente, "Cola de correo llena");
+        }
+    }
+
+    private void procesarCola() {
+        List<CorreoPendiente> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                CorreoPendiente primero = cola.poll(ESPERA_POLL_MS, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                enviarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error inesperado en el remitente de correos", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void procesarReintentos() {
+        while (activo) {
+            try {
+                CorreoPendiente pendiente = pendientesReintento.poll(ESPERA_POLL_MS, TimeUnit.MILLISECONDS);
+                if (pendiente != null) {
+                    ofrecer(pendiente);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void enviarLote(List<CorreoPendiente> lote) {
+        Map<SimpleMailMessage, Exception> fallos = enviarAhora(lote.stream().map(CorreoPendiente::mensaje).toList());
+        for (CorreoPendiente pendiente : lote) {
+            Exception causa = fallos.get(pendiente.mensaje());
+            if (causa != null) {
+                reprogramar(pendiente, causa);
+            }
+        }
+        log.debug("Lote de {} correos procesado, {} fallidos", lote.size(), fallos.size());
+    }
+
+    private void reprogramar(CorreoPendiente pendiente, Exception causa) {
+        int intentos = pendiente.intentos() + 1;
+        if (intentos >= maxIntentos) {
+            registrarFallido(new CorreoPendiente(pendiente.mensaje(), intentos, 0L), causa.getMessage());
+            return;
+        }
+        long espera = Math.min(backoffMaximoMs, backoffInicialMs * (1L << Math.min(intentos - 1, 30)));
+        pendientesReintento.offer(new CorreoPendiente(pendiente.mensaje(), intentos,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(espera)));
+        reintentos.increment();
+        log.warn("Fallo al enviar correo a {} (intento {}), se reintentará en {} ms: {}",
+                destinatario(pendiente.mensaje()), intentos, espera, causa.getMessage());
+    }
+
+    private void registrarFallido(CorreoPendiente pendiente, String error) {
+        SimpleMailMessage mensaje = pendiente.mensaje();
+        fallidos.increment();
+        try {
+            correoFallidoRepository.save(new CorreoFallido(LocalDateTime.now(), destinatario(mensaje),
+                    recortar(mensaje.getSubject(), 255), recortar(mensaje.getText(), 4000),
+                    pendiente.intentos(), recortar(error, 500)));
+            log.error("Correo a {} movido a correos fallidos tras {} intentos: {}",
+                    destinatario(mensaje), pendiente.intentos(), error);
+        } catch (Exception e) {
+            log.error("No se pudo registrar el correo fallido para {} ({}): {}",
+                    destinatario(mensaje), mensaje.getSubject(), error, e);
+        }
+    }
+
+    private static String destinatario(SimpleMailMessage mensaje) {
+        String[] to = mensaje.getTo();
+        return to != null && to.length > 0 ? String.join(",", to) : "desconocido";
+    }
+
+    private static String recortar(String valor, int maximo) {
+        if (valor == null || valor.length() <= maximo) {
+            return valor;
+        }
+        return valor.substring(0, maximo);
+    }
+
+    private record CorreoPendiente(SimpleMailMessage mensaje, int intentos, long disponibleEnNanos)
+            implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(disponibleEnNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed otro) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), otro.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
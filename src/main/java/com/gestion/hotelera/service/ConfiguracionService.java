@@ -1,7 +1,10 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.config.CacheConfig;
 import com.gestion.hotelera.model.ConfiguracionGlobal;
 import com.gestion.hotelera.repository.ConfiguracionRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +18,7 @@ public class ConfiguracionService {
         this.configuracionRepository = configuracionRepository;
     }
 
+    @Cacheable(cacheNames = CacheConfig.CONFIGURACION, key = "'global'")
     @Transactional(readOnly = true)
     public ConfiguracionGlobal obtenerConfiguracion() {
         return configuracionRepository.findByClave(CLAVE_DEFAULT)
@@ -31,6 +35,7 @@ public class ConfiguracionService {
                 });
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CONFIGURACION, allEntries = true)
     @Transactional
     public ConfiguracionGlobal guardarConfiguracion(ConfiguracionGlobal nuevaConfig) {
         ConfiguracionGlobal actual = obtenerConfiguracion();
@@ -0,0 +1,20 @@
+package com.gestion.hotelera.service;
+
+import java.util.function.LongSupplier;
+
+public interface CoordinadorTareas {
+
+    boolean ejecutar(String tarea, Trabajo trabajo);
+
+    int ejecutarPorTramos(String tarea, String cron, LongSupplier idMaximo, TrabajoPorTramo trabajo);
+
+    @FunctionalInterface
+    interface Trabajo {
+        long ejecutar();
+    }
+
+    @FunctionalInterface
+    interface TrabajoPorTramo {
+        long ejecutar(long desdeIdExclusivo, long hastaIdInclusivo);
+    }
+}
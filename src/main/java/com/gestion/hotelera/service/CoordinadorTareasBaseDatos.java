@@ -0,0 +1,182 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.config.TareasProperties;
+import com.gestion.hotelera.model.EjecucionTarea;
+import com.gestion.hotelera.repository.BloqueoTareaRepository;
+import com.gestion.hotelera.repository.EjecucionTareaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+@Service
+@ConditionalOnProperty(name = "app.tareas.cluster", havingValue = "true", matchIfMissing = true)
+public class CoordinadorTareasBaseDatos implements CoordinadorTareas {
+
+    private static final Logger log = LoggerFactory.getLogger(CoordinadorTareasBaseDatos.class);
+
+    public static final String EN_CURSO = "EN_CURSO";
+    public static final String COMPLETADA = "COMPLETADA";
+    public static final String FALLIDA = "FALLIDA";
+
+    private final BloqueoTareaRepository bloqueoTareaRepository;
+    private final EjecucionTareaRepository ejecucionTareaRepository;
+    private final TransactionTemplate nuevaTransaccion;
+    private final String nodo;
+    private final Duration leaseMaximo;
+    private final Duration leaseMinimo;
+    private final long tamanoTramo;
+
+    public CoordinadorTareasBaseDatos(TareasProperties properties,
+            BloqueoTareaRepository bloqueoTareaRepository,
+            EjecucionTareaRepository ejecucionTareaRepository,
+            PlatformTransactionManager transactionManager) {
+        this.bloqueoTareaRepository = bloqueoTareaRepository;
+        this.ejecucionTareaRepository = ejecucionTareaRepository;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodo = properties.getNodo() != null && !properties.getNodo().isBlank()
+                ? properties.getNodo()
+                : nodoPorDefecto();
+        this.leaseMaximo = properties.getLeaseMaximo();
+        this.leaseMinimo = properties.getLeaseMinimo();
+        this.tamanoTramo = properties.getTamanoTramo();
+        log.info("Coordinación de tareas en clúster activa (nodo {})", nodo);
+    }
+
+    public String getNodo() {
+        return nodo;
+    }
+
+    @Override
+    public boolean ejecutar(String tarea, Trabajo trabajo) {
+        return ejecutarConBloqueo(tarea, tarea, null, null, null, trabajo);
+    }
+
+    // Un tramo terminado queda bloqueado hasta el siguiente disparo del cron: un nodo que llegue tarde al mismo
+    // disparo lo encuentra tomado en vez de repetirlo cuando vence el lease mínimo
+    @Override
+    public int ejecutarPorTramos(String tarea, String cron, LongSupplier idMaximo, TrabajoPorTramo trabajo) {
+        CronExpression programacion = CronExpression.parse(cron);
+        if (tamanoTramo <= 0) {
+            return ejecutarConBloqueo(tarea, tarea, null, null, programacion,
+                    () -> trabajo.ejecutar(0L, Long.MAX_VALUE)) ? 1 : 0;
+        }
+        long maximo = Math.max(0L, idMaximo.getAsLong());
+        int tramos = (int) Math.max(1L, (maximo + tamanoTramo - 1) / tamanoTramo);
+        int primero = Math.floorMod(nodo.hashCode(), tramos);
+        int ejecutados = 0;
+        for (int i = 0; i < tramos; i++) {
+            int tramo = (primero + i) % tramos;
+            long desde = tramo * tamanoTramo;
+            long hasta = desde + tamanoTramo;
+            if (ejecutarConBloqueo(tarea + "#" + tramo, tarea, desde, hasta, programacion,
+                    () -> trabajo.ejecutar(desde, hasta))) {
+                ejecutados++;
+            }
+        }
+        return ejecutados;
+    }
+
+    private boolean ejecutarConBloqueo(String bloqueo, String tarea, Long desde, Long hasta,
+            CronExpression programacion, Trabajo trabajo) {
+        LocalDateTime inicio = LocalDateTime.now();
+        if (!adquirir(bloqueo, inicio)) {
+            log.debug("Tarea {} omitida: la ejecuta otro nodo", bloqueo);
+            return false;
+        }
+        Long ejecucionId = registrarInicio(tarea, desde, hasta, inicio);
+        LocalDateTime retenerHasta = null;
+        try {
+            long filas = trabajo.ejecutar();
+            registrarFin(ejecucionId, COMPLETADA, filas, null);
+            retenerHasta = programacion != null ? programacion.next(inicio) : null;
+            return true;
+        } catch (Exception e) {
+            log.error("Error en la tarea programada {}: {}", bloqueo, e.getMessage(), e);
+            registrarFin(ejecucionId, FALLIDA, null, e);
+            return false;
+        } finally {
+            liberar(bloqueo, inicio, retenerHasta);
+        }
+    }
+
+    private boolean adquirir(String bloqueo, LocalDateTime ahora) {
+        LocalDateTime hasta = ahora.plus(leaseMaximo);
+        try {
+            return Boolean.TRUE.equals(nuevaTransaccion.execute(estado ->
+                    bloqueoTareaRepository.adquirir(bloqueo, nodo, ahora, hasta) == 1
+                            || (!bloqueoTareaRepository.existsById(bloqueo)
+                                    && bloqueoTareaRepository.insertar(bloqueo, nodo, ahora, hasta) == 1)));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        } catch (Exception e) {
+            log.warn("No se pudo adquirir el bloqueo de la tarea {}: {}", bloqueo, e.getMessage());
+            return false;
+        }
+    }
+
+    private void liberar(String bloqueo, LocalDateTime inicio, LocalDateTime retenerHasta) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime minimo = inicio.plus(leaseMinimo);
+        LocalDateTime liberado = minimo.isAfter(ahora) ? minimo : ahora;
+        LocalDateTime hasta = retenerHasta != null && retenerHasta.isAfter(liberado) ? retenerHasta : liberado;
+        try {
+            nuevaTransaccion.executeWithoutResult(estado -> bloqueoTareaRepository.liberar(bloqueo, nodo, hasta));
+        } catch (Exception e) {
+            log.warn("No se pudo liberar el bloqueo de la tarea {} (vence a las {}): {}",
+                    bloqueo, inicio.plus(leaseMaximo), e.getMessage());
+        }
+    }
+
+    private Long registrarInicio(String tarea, Long desde, Long hasta, LocalDateTime inicio) {
+        try {
+            return nuevaTransaccion.execute(estado -> ejecucionTareaRepository
+                    .save(new EjecucionTarea(tarea, nodo, desde, hasta, inicio, EN_CURSO)).getId());
+        } catch (Exception e) {
+            log.warn("No se pudo registrar el inicio de la tarea {}: {}", tarea, e.getMessage());
+            return null;
+        }
+    }
+
+    private void registrarFin(Long ejecucionId, String resultado, Long filas, Exception error) {
+        if (ejecucionId == null) {
+            return;
+        }
+        try {
+            nuevaTransaccion.executeWithoutResult(estado -> ejecucionTareaRepository.findById(ejecucionId)
+                    .ifPresent(ejecucion -> {
+                        ejecucion.setFin(LocalDateTime.now());
+                        ejecucion.setResultado(resultado);
+                        ejecucion.setFilas(filas);
+                        if (error != null) {
+                            String mensaje = String.valueOf(error.getMessage());
+                            ejecucion.setError(mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+                        }
+                    }));
+        } catch (Exception e) {
+            log.warn("No se pudo registrar el fin de la ejecución {}: {}", ejecucionId, e.getMessage());
+        }
+    }
+
+    private static String nodoPorDefecto() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "nodo";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
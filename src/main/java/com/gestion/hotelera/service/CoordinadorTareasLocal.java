@@ -0,0 +1,31 @@
+package com.gestion.hotelera.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.function.LongSupplier;
+
+@Service
+@ConditionalOnProperty(name = "app.tareas.cluster", havingValue = "false")
+public class CoordinadorTareasLocal implements CoordinadorTareas {
+
+    private static final Logger log = LoggerFactory.getLogger(CoordinadorTareasLocal.class);
+
+    @Override
+    public boolean ejecutar(String tarea, Trabajo trabajo) {
+        try {
+            trabajo.ejecutar();
+            return true;
+        } catch (Exception e) {
+            log.error("Error en la tarea programada {}: {}", tarea, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public int ejecutarPorTramos(String tarea, String cron, LongSupplier idMaximo, TrabajoPorTramo trabajo) {
+        return ejecutar(tarea, () -> trabajo.ejecutar(0L, Long.MAX_VALUE)) ? 1 : 0;
+    }
+}
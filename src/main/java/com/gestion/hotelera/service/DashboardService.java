@@ -0,0 +1,151 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.DashboardStatsDTO;
+import com.gestion.hotelera.dto.ResumenReservas;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ClienteRepository;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    private static final int DIAS_INGRESOS = 30;
+
+    private final ReservaRepository reservaRepository;
+    private final HabitacionRepository habitacionRepository;
+    private final ClienteRepository clienteRepository;
+    private final CalendarioOcupacionService calendarioOcupacionService;
+    private final LibroIngresosService libroIngresosService;
+    private final long ttlMillis;
+
+    private final AtomicReference<Instantanea> instantanea = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<DashboardStatsDTO>> calculoEnCurso = new AtomicReference<>();
+    private final AtomicLong generacion = new AtomicLong();
+
+    public DashboardService(ReservaRepository reservaRepository,
+            HabitacionRepository habitacionRepository,
+            ClienteRepository clienteRepository,
+            CalendarioOcupacionService calendarioOcupacionService,
+            LibroIngresosService libroIngresosService,
+            @Value("${app.dashboard.snapshot.ttl-ms:5000}") long ttlMillis) {
+        this.reservaRepository = reservaRepository;
+        this.habitacionRepository = habitacionRepository;
+        this.clienteRepository = clienteRepository;
+        this.calendarioOcupacionService = calendarioOcupacionService;
+        this.libroIngresosService = libroIngresosService;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public DashboardStatsDTO obtenerEstadisticas() {
+        Instantanea actual = instantanea.get();
+        if (actual != null && actual.vigente()) {
+            return actual.datos();
+        }
+
+        CompletableFuture<DashboardStatsDTO> propio = new CompletableFuture<>();
+        CompletableFuture<DashboardStatsDTO> enCurso = calculoEnCurso.compareAndExchange(null, propio);
+        if (enCurso != null) {
+            return esperar(enCurso);
+        }
+
+        try {
+            long generacionInicial = generacion.get();
+            actual = instantanea.get();
+            DashboardStatsDTO datos = actual != null && actual.vigente() ? actual.datos() : calcular();
+            // Si una reserva cambió mientras se calculaba, no se guarda: la siguiente petición recalcula
+            if (generacion.get() == generacionInicial) {
+                instantanea.set(new Instantanea(datos, System.currentTimeMillis() + ttlMillis));
+            }
+            propio.complete(datos);
+            return datos;
+        } catch (RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            calculoEnCurso.set(null);
+        }
+    }
+
+    public void invalidar() {
+        generacion.incrementAndGet();
+        instantanea.set(null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambioEvent evento) {
+        invalidar();
+    }
+
+    private DashboardStatsDTO calcular() {
+        long inicio = System.nanoTime();
+        LocalDate hoy = LocalDate.now();
+
+        ResumenReservas resumen = reservaRepository.resumirParaPanel(hoy);
+        long totalHabitaciones = habitacionRepository.count();
+        long habitacionesMantenimiento = habitacionRepository.countByEstado("MANTENIMIENTO");
+        long habitacionesOcupadas = calendarioOcupacionService.contarHabitaciones(
+                CalendarioOcupacionService.Capa.RESERVA, hoy);
+        long habitacionesDisponibles = Math.max(0,
+                totalHabitaciones - habitacionesOcupadas - habitacionesMantenimiento);
+
+        List<Map<String, Object>> ingresosUltimos30Dias = new ArrayList<>();
+        libroIngresosService.ingresosPorDia(hoy.minusDays(DIAS_INGRESOS), hoy).forEach((fecha, monto) -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("fecha", fecha.toString());
+            map.put("ingresos", monto);
+            ingresosUltimos30Dias.add(map);
+        });
+
+        DashboardStatsDTO datos = DashboardStatsDTO.builder()
+                .totalHabitaciones(totalHabitaciones)
+                .totalClientes(clienteRepository.count())
+                .totalReservas(resumen.total())
+                .habitacionesDisponibles(habitacionesDisponibles)
+                .habitacionesOcupadas(habitacionesOcupadas)
+                .habitacionesMantenimiento(habitacionesMantenimiento)
+                .ingresosTotales(libroIngresosService.totalAcumulado())
+                .reservasPendientes(resumen.pendientes())
+                .reservasActivas(resumen.activas())
+                .checkInsHoy(resumen.entradasHoy())
+                .checkOutsHoy(resumen.salidasHoy())
+                .ingresosUltimos30Dias(ingresosUltimos30Dias)
+                .build();
+
+        logger.debug("Estadísticas del panel calculadas en {} ms", (System.nanoTime() - inicio) / 1_000_000);
+        return datos;
+    }
+
+    private DashboardStatsDTO esperar(CompletableFuture<DashboardStatsDTO> calculo) {
+        try {
+            return calculo.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private record Instantanea(DashboardStatsDTO datos, long expiraEn) {
+        boolean vigente() {
+            return System.currentTimeMillis() < expiraEn;
+        }
+    }
+}
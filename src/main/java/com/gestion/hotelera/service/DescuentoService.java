@@ -1,10 +1,13 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.config.CacheConfig;
 import com.gestion.hotelera.enums.TipoDescuento;
 import com.gestion.hotelera.model.Descuento;
 import com.gestion.hotelera.repository.DescuentoRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -26,6 +29,7 @@ public class DescuentoService {
         this.descuentoRepository = descuentoRepository;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DESCUENTOS, allEntries = true)
     @Transactional
     public Descuento crearDescuento(Descuento descuento) {
         validarDescuento(descuento);
@@ -37,6 +41,7 @@ public class DescuentoService {
         return nuevoDescuento;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DESCUENTOS, allEntries = true)
     @Transactional
     public Descuento actualizarDescuento(Descuento descuento) {
         if (descuento == null || descuento.getId() == null) {
@@ -91,6 +96,7 @@ public class DescuentoService {
         return descuentoOpt;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DESCUENTOS, allEntries = true)
     @Transactional
     public void incrementarUso(Descuento descuento) {
         if (descuento != null && descuento.getUsosActuales() != null) {
@@ -101,21 +107,25 @@ public class DescuentoService {
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.DESCUENTOS, key = "'validos:' + T(java.time.LocalDate).now()")
     @Transactional(readOnly = true)
     public List<Descuento> obtenerDescuentosValidos() {
         return descuentoRepository.findDescuentosValidos(LocalDate.now());
     }
 
+    @Cacheable(cacheNames = CacheConfig.DESCUENTOS, key = "'todos'")
     @Transactional(readOnly = true)
     public List<Descuento> obtenerTodosLosDescuentos() {
         return descuentoRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.DESCUENTOS, key = "'activos:' + T(java.time.LocalDate).now()")
     @Transactional(readOnly = true)
     public List<Descuento> obtenerDescuentosActivos() {
         return descuentoRepository.findDescuentosActivos(LocalDate.now());
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DESCUENTOS, allEntries = true)
     @Transactional
     public void eliminarDescuento(Long id) {
         descuentoRepository.deleteById(id);
@@ -0,0 +1,66 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.enums.EstadoHabitacion;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@SuppressWarnings("null")
+public class DisponibilidadService {
+
+    private final HabitacionRepository habitacionRepository;
+    private final IndiceDisponibilidadService indiceDisponibilidadService;
+
+    public DisponibilidadService(HabitacionRepository habitacionRepository,
+            IndiceDisponibilidadService indiceDisponibilidadService) {
+        this.habitacionRepository = habitacionRepository;
+        this.indiceDisponibilidadService = indiceDisponibilidadService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Habitacion> buscarDisponibles(LocalDate fechaInicio, LocalDate fechaFin) {
+        return buscarDisponibles(fechaInicio, fechaFin, null, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Habitacion> buscarDisponibles(LocalDate fechaInicio, LocalDate fechaFin, String tipo,
+            Double precioMin, Double precioMax) {
+        validarRango(fechaInicio, fechaFin);
+        String tipoFiltro = tipo != null && !tipo.isBlank() ? tipo.trim() : null;
+
+        if (!indiceDisponibilidadService.estaListo()) {
+            return habitacionRepository.findLibresEnRango(fechaInicio, fechaFin, tipoFiltro, precioMin, precioMax);
+        }
+
+        return habitacionRepository.findReservables(tipoFiltro, precioMin, precioMax).stream()
+                .filter(h -> !indiceDisponibilidadService.existeSolapamiento(h.getId(), fechaInicio, fechaFin, null))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean estaDisponible(Long habitacionId, LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRango(fechaInicio, fechaFin);
+        Optional<Habitacion> habitacion = habitacionRepository.findById(habitacionId);
+        if (habitacion.isEmpty()
+                || EstadoHabitacion.MANTENIMIENTO.getValor().equalsIgnoreCase(habitacion.get().getEstado())) {
+            return false;
+        }
+        return !indiceDisponibilidadService.existeSolapamiento(habitacionId, fechaInicio, fechaFin, null);
+    }
+
+    private void validarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new IllegalArgumentException("Las fechas de inicio y fin son obligatorias");
+        }
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
+        }
+    }
+}
@@ -2,16 +2,19 @@ package com.gestion.hotelera.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class EmailService {
 
     private static final Logger log = LoggerFactory.getLogger(EmailService.class);
-    private final JavaMailSender mailSender;
+    private final ColaCorreoService colaCorreoService;
 
     @Value("${app.mail.from:noreply@oasisdigital.com}")
     private String fromEmail;
@@ -19,8 +22,8 @@ public class EmailService {
     @Value("${app.mail.enabled:true}")
     private boolean emailEnabled;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(ColaCorreoService colaCorreoService) {
+        this.colaCorreoService = colaCorreoService;
     }
 
     public void enviarConfirmacionReserva(String toEmail, String nombreCliente, String numeroReserva,
@@ -48,10 +51,10 @@ public class EmailService {
                             "Gracias por elegir Oasis Digital.\n\n" +
                             "¡Esperamos su visita!",
                     nombreCliente, numeroReserva, fechaInicio, fechaFin, habitacion, total));
-            mailSender.send(message);
-            log.info("Email de confirmación enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email de confirmación encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar email de confirmación a: {}", toEmail, e);
+            log.error("Error al preparar email de confirmación a: {}", toEmail, e);
         }
     }
 
@@ -73,10 +76,10 @@ public class EmailService {
                             "¡Bienvenido a Oasis Digital! Esperamos que disfrute su estadía.\n\n" +
                             "Si necesita algo, no dude en contactarnos.",
                     nombreCliente, numeroReserva));
-            mailSender.send(message);
-            log.info("Email de check-in enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email de check-in encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar email de check-in a: {}", toEmail, e);
+            log.error("Error al preparar email de check-in a: {}", toEmail, e);
         }
     }
 
@@ -98,10 +101,10 @@ public class EmailService {
                             "Gracias por elegir Oasis Digital. Esperamos verlo nuevamente pronto.\n\n" +
                             "¡Que tenga un excelente día!",
                     nombreCliente, numeroReserva));
-            mailSender.send(message);
-            log.info("Email de check-out enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email de check-out encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar email de check-out a: {}", toEmail, e);
+            log.error("Error al preparar email de check-out a: {}", toEmail, e);
         }
     }
 
@@ -113,26 +116,26 @@ public class EmailService {
         }
 
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Pago Confirmado - Oasis Digital");
-            message.setText(String.format(
-                    "Estimado/a %s,\n\n" +
-                            "Su pago ha sido procesado exitosamente.\n\n" +
-                            "Detalles del pago:\n" +
-                            "- Reserva: %s\n" +
-                            "- Monto: S/. %.2f\n" +
-                            "- Método: %s\n\n" +
-                            "Gracias por su pago.",
-                    nombreCliente, numeroReserva, monto, metodo));
-            mailSender.send(message);
-            log.info("Email de pago enviado a: {}", toEmail);
+            colaCorreoService.encolar(crearMensajeNotificacionPago(toEmail, nombreCliente, numeroReserva, monto, metodo));
+            log.info("Email de pago encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar email de pago a: {}", toEmail, e);
+            log.error("Error al preparar email de pago a: {}", toEmail, e);
         }
     }
 
+    public SimpleMailMessage crearMensajeNotificacionPago(String toEmail, String nombreCliente, String numeroReserva,
+            Double monto, String metodo) {
+        return crearMensaje(toEmail, "Pago Confirmado - Oasis Digital", String.format(
+                "Estimado/a %s,\n\n" +
+                        "Su pago ha sido procesado exitosamente.\n\n" +
+                        "Detalles del pago:\n" +
+                        "- Reserva: %s\n" +
+                        "- Monto: S/. %.2f\n" +
+                        "- Método: %s\n\n" +
+                        "Gracias por su pago.",
+                nombreCliente, numeroReserva, monto, metodo));
+    }
+
     public void enviarEmailBienvenida(String toEmail, String nombreCliente, String username) {
         if (!emailEnabled) {
             log.info("Email deshabilitado. No se envió bienvenida a: {}", toEmail);
@@ -160,10 +163,10 @@ public class EmailService {
                             "Atentamente,\n" +
                             "El equipo de Oasis Digital",
                     nombreCliente, username, toEmail));
-            mailSender.send(message);
-            log.info("Email de bienvenida enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email de bienvenida encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar email de bienvenida a: {}", toEmail, e);
+            log.error("Error al preparar email de bienvenida a: {}", toEmail, e);
         }
     }
 
@@ -195,10 +198,10 @@ public class EmailService {
                             "Atentamente,\n" +
                             "El equipo de Oasis Digital",
                     nombreCliente, numeroReserva, fechaCheckIn, habitacion));
-            mailSender.send(message);
-            log.info("Email de recordatorio de check-in enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email de recordatorio de check-in encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar recordatorio de check-in a: {}", toEmail, e);
+            log.error("Error al preparar recordatorio de check-in a: {}", toEmail, e);
         }
     }
 
@@ -232,10 +235,10 @@ public class EmailService {
                             "Atentamente,\n" +
                             "El equipo de Oasis Digital",
                     nombreCliente, numeroReserva, fechaCheckOut));
-            mailSender.send(message);
-            log.info("Email de encuesta post-estadía enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email de encuesta post-estadía encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar encuesta post-estadía a: {}", toEmail, e);
+            log.error("Error al preparar encuesta post-estadía a: {}", toEmail, e);
         }
     }
 
@@ -251,10 +254,27 @@ public class EmailService {
             message.setTo(toEmail);
             message.setSubject(subject);
             message.setText(content);
-            mailSender.send(message);
-            log.info("Email enviado a: {}", toEmail);
+            colaCorreoService.encolar(message);
+            log.info("Email encolado para: {}", toEmail);
         } catch (Exception e) {
-            log.error("Error al enviar email a: {}", toEmail, e);
+            log.error("Error al preparar email a: {}", toEmail, e);
+        }
+    }
+
+    public SimpleMailMessage crearMensaje(String toEmail, String subject, String content) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(toEmail);
+        message.setSubject(subject);
+        message.setText(content);
+        return message;
+    }
+
+    public Map<SimpleMailMessage, Exception> entregarAhora(List<SimpleMailMessage> mensajes) {
+        if (!emailEnabled) {
+            log.info("Email deshabilitado. Se descartan {} correos de la bandeja de salida", mensajes.size());
+            return Collections.emptyMap();
         }
+        return colaCorreoService.enviarAhora(mensajes);
     }
 }
@@ -0,0 +1,275 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.model.Auditoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class EscritorAuditoriaService {
+
+    private static final Logger log = LoggerFactory.getLogger(EscritorAuditoriaService.class);
+
+    private static final String INSERT_AUDITORIA = "INSERT INTO {q}auditoria{q} ({q}timestamp{q}, "
+            + "{q}usuario_username{q}, {q}tipo_accion{q}, {q}detalle_accion{q}, {q}entidad_afectada{q}, "
+            + "{q}entidad_afectada_id{q}) VALUES (?, ?, ?, ?, ?, ?)";
+
+    public enum Politica {
+        ESPERAR, DESCARTAR
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BufferCircular<Auditoria> buffer;
+    private final ReentrantLock consumidor = new ReentrantLock();
+    private final int tamanoLote;
+    private final long intervaloNanos;
+    private final long esperaMaximaNanos;
+    private final Politica politica;
+
+    private final Counter encoladas;
+    private final Counter escritas;
+    private final Counter descartadas;
+    private final Counter errores;
+
+    private volatile String sentenciaInsert = INSERT_AUDITORIA.replace("{q}", "`");
+    private volatile boolean activo = false;
+    private volatile Thread escritor;
+
+    public EscritorAuditoriaService(JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.auditoria.buffer.capacidad:8192}") int capacidad,
+            @Value("${app.auditoria.buffer.lote:200}") int tamanoLote,
+            @Value("${app.auditoria.buffer.intervalo-ms:1000}") long intervaloMs,
+            @Value("${app.auditoria.buffer.politica:ESPERAR}") Politica politica,
+            @Value("${app.auditoria.buffer.espera-maxima-ms:50}") long esperaMaximaMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new BufferCircular<>(capacidad);
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervaloMs));
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, esperaMaximaMs));
+        this.politica = politica;
+
+        Gauge.builder("hotel.auditoria.buffer", buffer, BufferCircular::tamano)
+                .description("Registros de auditoría pendientes de escribir")
+                .register(meterRegistry);
+        this.encoladas = Counter.builder("hotel.auditoria.encoladas")
+                .description("Registros de auditoría aceptados en el buffer")
+                .register(meterRegistry);
+        this.escritas = Counter.builder("hotel.auditoria.escritas")
+                .description("Registros de auditoría insertados en la base de datos")
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("hotel.auditoria.descartadas")
+                .description("Registros de auditoría descartados por buffer lleno")
+                .register(meterRegistry);
+        this.errores = Counter.builder("hotel.auditoria.errores")
+                .description("Registros de auditoría perdidos por error de escritura")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        String comilla = jdbcTemplate.execute(
+                (ConnectionCallback<String>) conexion -> conexion.getMetaData().getIdentifierQuoteString());
+        if (comilla != null && !comilla.isBlank()) {
+            sentenciaInsert = INSERT_AUDITORIA.replace("{q}", comilla.trim());
+        }
+        activo = true;
+        Thread hilo = new Thread(this::procesar, "auditoria-escritor");
+        hilo.setDaemon(true);
+        escritor = hilo;
+        hilo.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        Thread hilo = escritor;
+        if (hilo != null) {
+            LockSupport.unpark(hilo);
+            try {
+                hilo.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (hilo.isAlive()) {
+                log.warn("El escritor de auditoría no terminó a tiempo, quedan {} registros", buffer.tamano());
+                return;
+            }
+        }
+        vaciar();
+    }
+
+    public boolean encolar(Auditoria registro) {
+        if (buffer.ofrecer(registro)) {
+            aceptado();
+            return true;
+        }
+        if (politica == Politica.ESPERAR && esperaMaximaNanos > 0) {
+            despertarEscritor();
+            long limite = System.nanoTime() + esperaMaximaNanos;
+            while (System.nanoTime() < limite) {
+                LockSupport.parkNanos(100_000);
+                if (buffer.ofrecer(registro)) {
+                    aceptado();
+                    return true;
+                }
+            }
+        }
+        descartadas.increment();
+        log.warn("Buffer de auditoría lleno, registro descartado: {} {}", registro.getTipoAccion(),
+                registro.getDetalleAccion());
+        return false;
+    }
+
+    // El buffer admite un único consumidor: el hilo escritor y el vaciado final de detener() se turnan aquí
+    int vaciar() {
+        consumidor.lock();
+        try {
+            int total = 0;
+            List<Auditoria> lote = new ArrayList<>(tamanoLote);
+            Auditoria registro;
+            while ((registro = buffer.sacar()) != null) {
+                lote.add(registro);
+                if (lote.size() == tamanoLote) {
+                    total += escribir(lote);
+                    lote = new ArrayList<>(tamanoLote);
+                }
+            }
+            if (!lote.isEmpty()) {
+                total += escribir(lote);
+            }
+            return total;
+        } finally {
+            consumidor.unlock();
+        }
+    }
+
+    public int pendientes() {
+        return buffer.tamano();
+    }
+
+    private void aceptado() {
+        encoladas.increment();
+        if (buffer.tamano() >= tamanoLote) {
+            despertarEscritor();
+        }
+    }
+
+    private void despertarEscritor() {
+        Thread hilo = escritor;
+        if (hilo != null) {
+            LockSupport.unpark(hilo);
+        }
+    }
+
+    private void procesar() {
+        while (activo) {
+            try {
+                vaciar();
+            } catch (Exception e) {
+                log.error("Error inesperado en el escritor de auditoría", e);
+            }
+            LockSupport.parkNanos(this, intervaloNanos);
+        }
+    }
+
+    private int escribir(List<Auditoria> lote) {
+        try {
+            jdbcTemplate.batchUpdate(sentenciaInsert, lote, lote.size(), (ps, a) -> {
+                ps.setObject(1, a.getTimestamp());
+                ps.setString(2, recortar(a.getUsuarioUsername(), 50));
+                ps.setString(3, recortar(a.getTipoAccion(), 100));
+                ps.setString(4, recortar(a.getDetalleAccion() != null ? a.getDetalleAccion() : "", 500));
+                ps.setString(5, recortar(a.getEntidadAfectada(), 50));
+                ps.setObject(6, a.getEntidadAfectadaId());
+            });
+            escritas.increment(lote.size());
+            log.debug("Lote de {} registros de auditoría escrito", lote.size());
+            return lote.size();
+        } catch (Exception e) {
+            errores.increment(lote.size());
+            log.error("No se pudo escribir un lote de {} registros de auditoría", lote.size(), e);
+            return 0;
+        }
+    }
+
+    private static String recortar(String valor, int maximo) {
+        if (valor == null || valor.length() <= maximo) {
+            return valor;
+        }
+        return valor.substring(0, maximo);
+    }
+
+    private static final class BufferCircular<E> {
+
+        private final AtomicReferenceArray<E> elementos;
+        private final AtomicLongArray secuencias;
+        private final int mascara;
+        private final AtomicLong escritura = new AtomicLong();
+        private volatile long lectura = 0L;
+
+        BufferCircular(int capacidad) {
+            int tamano = Integer.highestOneBit(Math.max(2, capacidad) - 1) << 1;
+            this.elementos = new AtomicReferenceArray<>(tamano);
+            this.secuencias = new AtomicLongArray(tamano);
+            this.mascara = tamano - 1;
+            for (int i = 0; i < tamano; i++) {
+                secuencias.set(i, i);
+            }
+        }
+
+        boolean ofrecer(E elemento) {
+            long posicion = escritura.get();
+            while (true) {
+                int indice = (int) (posicion & mascara);
+                long diferencia = secuencias.get(indice) - posicion;
+                if (diferencia == 0) {
+                    if (escritura.compareAndSet(posicion, posicion + 1)) {
+                        elementos.lazySet(indice, elemento);
+                        secuencias.set(indice, posicion + 1);
+                        return true;
+                    }
+                    posicion = escritura.get();
+                } else if (diferencia < 0) {
+                    return false;
+                } else {
+                    posicion = escritura.get();
+                }
+            }
+        }
+
+        E sacar() {
+            long posicion = lectura;
+            int indice = (int) (posicion & mascara);
+            if (secuencias.get(indice) != posicion + 1) {
+                return null;
+            }
+            E elemento = elementos.get(indice);
+            elementos.lazySet(indice, null);
+            secuencias.set(indice, posicion + mascara + 1);
+            lectura = posicion + 1;
+            return elemento;
+        }
+
+        int tamano() {
+            return (int) Math.max(0, escritura.get() - lectura);
+        }
+    }
+}
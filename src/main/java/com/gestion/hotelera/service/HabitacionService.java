@@ -1,5 +1,6 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.enums.EstadoReserva;
 import com.gestion.hotelera.model.Habitacion;
 import com.gestion.hotelera.model.Reserva;
 import com.gestion.hotelera.repository.HabitacionRepository;
@@ -12,8 +13,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,15 +30,21 @@ public class HabitacionService {
     private final ReservaRepository reservaRepository;
     private final AuditoriaService auditoriaService;
     private final NotificacionService notificacionService;
+    private final DisponibilidadService disponibilidadService;
+    private final VersionRecursosService versionRecursosService;
 
     public HabitacionService(HabitacionRepository habitacionRepository,
             ReservaRepository reservaRepository,
             AuditoriaService auditoriaService,
-            NotificacionService notificacionService) {
+            NotificacionService notificacionService,
+            DisponibilidadService disponibilidadService,
+            VersionRecursosService versionRecursosService) {
         this.habitacionRepository = habitacionRepository;
         this.reservaRepository = reservaRepository;
         this.auditoriaService = auditoriaService;
         this.notificacionService = notificacionService;
+        this.disponibilidadService = disponibilidadService;
+        this.versionRecursosService = versionRecursosService;
     }
 
     @Transactional
@@ -64,6 +74,8 @@ public class HabitacionService {
         logger.info("Habitaciones iniciales creadas: 10 habitaciones");
     }
 
+    // Sin caché local: el listado lleva la versión que el cliente devuelve al editar y una caché por nodo la
+    // serviría vieja tras un cambio en otro nodo. El GET condicional ya evita la consulta cuando nada cambió
     public List<Habitacion> obtenerTodasLasHabitaciones() {
         return habitacionRepository.findAll();
     }
@@ -72,6 +84,11 @@ public class HabitacionService {
         return habitacionRepository.findById(id);
     }
 
+    @Transactional
+    public Optional<Habitacion> bloquearParaReserva(Long id) {
+        return habitacionRepository.findByIdParaReservar(id);
+    }
+
     @Transactional
     public Habitacion crearHabitacion(Habitacion habitacion) {
         if (habitacionRepository.findByNumero(habitacion.getNumero()).isPresent()) {
@@ -102,25 +119,17 @@ public class HabitacionService {
         }
     }
 
-    public boolean estaDisponible(Long habitacionId, LocalDate fechaInicio, LocalDate fechaFin) {
-        Optional<Habitacion> habitacionOpt = habitacionRepository.findById(habitacionId);
-        if (habitacionOpt.isEmpty()) {
-            return false;
-        }
-
-        Habitacion habitacion = habitacionOpt.get();
-        if ("MANTENIMIENTO".equals(habitacion.getEstado())) {
-            return false;
+    @Transactional
+    public int conciliarEstadosHabitaciones(LocalDate fecha) {
+        int cambiadas = habitacionRepository.conciliarEstados(fecha);
+        if (cambiadas > 0) {
+            versionRecursosService.marcarCambio(VersionRecursosService.Recurso.HABITACIONES);
         }
+        return cambiadas;
+    }
 
-        List<Reserva> reservasConflictivas = reservaRepository.findAll().stream()
-                .filter(r -> r.getHabitacion() != null && r.getHabitacion().getId().equals(habitacionId))
-                .filter(r -> "ACTIVA".equals(r.getEstadoReserva()) || "PENDIENTE".equals(r.getEstadoReserva())
-                        || "PROCESANDO".equals(r.getEstadoReserva()))
-                .filter(r -> !(fechaFin.isBefore(r.getFechaInicio()) || fechaInicio.isAfter(r.getFechaFin())))
-                .collect(Collectors.toList());
-
-        return reservasConflictivas.isEmpty();
+    public boolean estaDisponible(Long habitacionId, LocalDate fechaInicio, LocalDate fechaFin) {
+        return disponibilidadService.estaDisponible(habitacionId, fechaInicio, fechaFin);
     }
 
     public long contarHabitaciones() {
@@ -140,9 +149,12 @@ public class HabitacionService {
     }
 
     public List<Habitacion> buscarDisponibles(LocalDate fechaInicio, LocalDate fechaFin) {
-        return habitacionRepository.findAll().stream()
-                .filter(h -> estaDisponible(h.getId(), fechaInicio, fechaFin))
-                .collect(Collectors.toList());
+        return disponibilidadService.buscarDisponibles(fechaInicio, fechaFin);
+    }
+
+    public List<Habitacion> buscarDisponibles(LocalDate fechaInicio, LocalDate fechaFin, String tipo,
+            Double precioMin, Double precioMax) {
+        return disponibilidadService.buscarDisponibles(fechaInicio, fechaFin, tipo, precioMin, precioMax);
     }
 
     @Transactional(readOnly = true)
@@ -169,6 +181,9 @@ public class HabitacionService {
         if (habitacion.getId() == null) {
             throw new IllegalArgumentException("ID de habitación requerido para actualización");
         }
+        if (habitacion.getVersion() == null) {
+            throw new IllegalArgumentException("La versión de la habitación es obligatoria para actualizarla");
+        }
 
         Optional<Habitacion> existente = habitacionRepository.findById(habitacion.getId());
         if (existente.isEmpty()) {
@@ -249,29 +264,38 @@ public class HabitacionService {
     @Transactional
     public void actualizarEstadosHabitacionesHoy() {
         LocalDate hoy = LocalDate.now();
-        List<Habitacion> habitaciones = habitacionRepository.findAll();
-
-        for (Habitacion habitacion : habitaciones) {
-            
-            if ("MANTENIMIENTO".equalsIgnoreCase(habitacion.getEstado())) {
+        Set<Long> ocupadasHoy = new HashSet<>(reservaRepository.findHabitacionesOcupadasEn(hoy,
+                List.of(EstadoReserva.ACTIVA.getValor(), EstadoReserva.PENDIENTE.getValor())));
+
+        List<Long> aOcupar = new ArrayList<>();
+        List<Long> aLiberar = new ArrayList<>();
+        for (Object[] fila : habitacionRepository.findEstados()) {
+            Long id = (Long) fila[0];
+            String estado = (String) fila[2];
+            if ("MANTENIMIENTO".equalsIgnoreCase(estado)) {
                 continue;
             }
-
-            boolean estaOcupadaHoy = reservaRepository.findAll().stream()
-                    .anyMatch(r -> r.getHabitacion() != null
-                            && r.getHabitacion().getId().equals(habitacion.getId())
-                            && ("ACTIVA".equalsIgnoreCase(r.getEstadoReserva())
-                                    || "PENDIENTE".equalsIgnoreCase(r.getEstadoReserva()))
-                            && (!hoy.isBefore(r.getFechaInicio()) && !hoy.isAfter(r.getFechaFin())));
-
-            String estadoEsperado = estaOcupadaHoy ? "OCUPADA" : "DISPONIBLE";
-
-            if (!estadoEsperado.equalsIgnoreCase(habitacion.getEstado())) {
-                habitacion.setEstado(estadoEsperado);
-                habitacionRepository.save(habitacion);
-                logger.info("Estado de habitación {} actualizado automáticamente a {}", habitacion.getNumero(),
-                        estadoEsperado);
+            boolean ocupadaHoy = ocupadasHoy.contains(id);
+            String estadoEsperado = ocupadaHoy ? "OCUPADA" : "DISPONIBLE";
+            if (!estadoEsperado.equalsIgnoreCase(estado)) {
+                if (ocupadaHoy) {
+                    aOcupar.add(id);
+                } else {
+                    aLiberar.add(id);
+                }
+                logger.info("Estado de habitación {} actualizado automáticamente a {}", fila[1], estadoEsperado);
             }
         }
+
+        int cambiadas = 0;
+        if (!aOcupar.isEmpty()) {
+            cambiadas += habitacionRepository.actualizarEstado(aOcupar, "OCUPADA");
+        }
+        if (!aLiberar.isEmpty()) {
+            cambiadas += habitacionRepository.actualizarEstado(aLiberar, "DISPONIBLE");
+        }
+        if (cambiadas > 0) {
+            versionRecursosService.marcarCambio(VersionRecursosService.Recurso.HABITACIONES);
+        }
     }
 }
\ No newline at end of file
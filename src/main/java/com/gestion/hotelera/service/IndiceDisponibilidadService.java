@@ -0,0 +1,186 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.config.TareasProperties;
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Service
+public class IndiceDisponibilidadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDisponibilidadService.class);
+    private static final int TAMANO_LOTE_CARGA = 5000;
+
+    private final ReservaRepository reservaRepository;
+    private final boolean habilitado;
+
+    private final Map<Long, IndiceHabitacion> indicePorHabitacion = new ConcurrentHashMap<>();
+    private final Map<Long, IntervaloReserva> intervaloPorReserva = new ConcurrentHashMap<>();
+    private final Set<Long> modificadasDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cargando = false;
+    private volatile boolean listo = false;
+
+    // Acelerador opcional de búsquedas: la reserva siempre se valida con el bloqueo en BD, no con este índice
+    @Autowired
+    public IndiceDisponibilidadService(ReservaRepository reservaRepository,
+            @Value("${app.disponibilidad.indice.enabled:false}") boolean habilitado,
+            TareasProperties tareasProperties) {
+        this(reservaRepository, habilitado);
+        if (habilitado && tareasProperties.isCluster()) {
+            logger.warn("Índice de disponibilidad activo en modo clúster: las búsquedas de este nodo "
+                    + "no verán los cambios hechos en otros nodos");
+        }
+    }
+
+    IndiceDisponibilidadService(ReservaRepository reservaRepository, boolean habilitado) {
+        this.reservaRepository = reservaRepository;
+        this.habilitado = habilitado;
+    }
+
+    public boolean existeSolapamiento(Long habitacionId, LocalDate fechaInicio, LocalDate fechaFin,
+            Long reservaIdExcluida) {
+        if (!estaListo()) {
+            return reservaRepository.existeSolapamientoEfectivo(habitacionId, fechaInicio, fechaFin,
+                    reservaIdExcluida);
+        }
+        IndiceHabitacion indice = indicePorHabitacion.get(habitacionId);
+        return indice != null && indice.haySolapamiento(fechaInicio, fechaFin, reservaIdExcluida);
+    }
+
+    public boolean estaListo() {
+        return habilitado && listo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciarAplicacion() {
+        if (habilitado) {
+            recargar();
+        }
+    }
+
+    public synchronized void recargar() {
+        cargando = true;
+        listo = false;
+        modificadasDuranteCarga.clear();
+        indicePorHabitacion.clear();
+        intervaloPorReserva.clear();
+        try {
+            long ultimoId = 0L;
+            int total = 0;
+            List<IntervaloReserva> lote;
+            do {
+                lote = reservaRepository.findIntervalosBloqueantesDesde(ultimoId,
+                        PageRequest.of(0, TAMANO_LOTE_CARGA));
+                for (IntervaloReserva intervalo : lote) {
+                    if (!modificadasDuranteCarga.contains(intervalo.getId())) {
+                        indexar(intervalo);
+                    }
+                    ultimoId = intervalo.getId();
+                }
+                total += lote.size();
+            } while (lote.size() == TAMANO_LOTE_CARGA);
+
+            listo = true;
+            logger.info("Índice de disponibilidad cargado: {} reservas en {} habitaciones",
+                    total, indicePorHabitacion.size());
+        } catch (Exception e) {
+            logger.error("No se pudo cargar el índice de disponibilidad, se usará la base de datos", e);
+        } finally {
+            cargando = false;
+            modificadasDuranteCarga.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(ReservaCambioEvent evento) {
+        if (!habilitado || evento.getReservaId() == null) {
+            return;
+        }
+        if (cargando) {
+            modificadasDuranteCarga.add(evento.getReservaId());
+        }
+        retirar(evento.getReservaId());
+        if (evento.getActual() != null) {
+            indexar(evento.getActual());
+        }
+    }
+
+    private void indexar(IntervaloReserva intervalo) {
+        if (intervalo.getId() == null || !intervalo.bloqueaHabitacion()) {
+            return;
+        }
+        indicePorHabitacion.computeIfAbsent(intervalo.getHabitacionId(), id -> new IndiceHabitacion())
+                .agregar(intervalo);
+        intervaloPorReserva.put(intervalo.getId(), intervalo);
+    }
+
+    private void retirar(Long reservaId) {
+        IntervaloReserva previo = intervaloPorReserva.remove(reservaId);
+        if (previo != null) {
+            IndiceHabitacion indice = indicePorHabitacion.get(previo.getHabitacionId());
+            if (indice != null) {
+                indice.quitar(previo);
+            }
+        }
+    }
+
+    private static final class IndiceHabitacion {
+
+        private final ConcurrentSkipListMap<Clave, IntervaloReserva> porInicio = new ConcurrentSkipListMap<>();
+        private volatile long duracionMaxima = 0L;
+
+        synchronized void agregar(IntervaloReserva intervalo) {
+            long duracion = intervalo.getFinEfectivo().toEpochDay() - intervalo.getFechaInicio().toEpochDay();
+            if (duracion > duracionMaxima) {
+                duracionMaxima = duracion;
+            }
+            porInicio.put(new Clave(intervalo.getFechaInicio().toEpochDay(), intervalo.getId()), intervalo);
+        }
+
+        synchronized void quitar(IntervaloReserva intervalo) {
+            porInicio.remove(new Clave(intervalo.getFechaInicio().toEpochDay(), intervalo.getId()));
+        }
+
+        boolean haySolapamiento(LocalDate fechaInicio, LocalDate fechaFin, Long reservaIdExcluida) {
+            long desde = fechaInicio.toEpochDay() - duracionMaxima;
+            ConcurrentNavigableMap<Clave, IntervaloReserva> candidatas = porInicio.subMap(
+                    new Clave(desde, Long.MIN_VALUE), true,
+                    new Clave(fechaFin.toEpochDay(), Long.MIN_VALUE), false);
+            for (IntervaloReserva r : candidatas.values()) {
+                if (reservaIdExcluida != null && reservaIdExcluida.equals(r.getId())) {
+                    continue;
+                }
+                if (fechaInicio.isBefore(r.getFinEfectivo())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Clave(long inicio, long reservaId) implements Comparable<Clave> {
+        @Override
+        public int compareTo(Clave otra) {
+            int porInicio = Long.compare(inicio, otra.inicio);
+            return porInicio != 0 ? porInicio : Long.compare(reservaId, otra.reservaId);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.config.InventarioProperties;
+import com.gestion.hotelera.dto.CotizacionTipo;
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.dto.InventarioNoche;
+import com.gestion.hotelera.event.ReservaEntityListener;
+import com.gestion.hotelera.model.InventarioReserva;
+import com.gestion.hotelera.model.InventarioTipo;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.model.RetencionInventario;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import com.gestion.hotelera.repository.InventarioReservaRepository;
+import com.gestion.hotelera.repository.InventarioTipoRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import com.gestion.hotelera.repository.RetencionInventarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class InventarioTipoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioTipoService.class);
+    private static final int TAMANO_LOTE = 1000;
+    private static final String TAREA_INICIO = "inventario_inicio";
+    private static final String TAREA_RECONCILIACION = "inventario_reconciliacion";
+    private static final String TAREA_EXPIRACION = "inventario_expiracion";
+
+    private final InventarioTipoRepository inventarioTipoRepository;
+    private final InventarioReservaRepository inventarioReservaRepository;
+    private final RetencionInventarioRepository retencionRepository;
+    private final HabitacionRepository habitacionRepository;
+    private final ReservaRepository reservaRepository;
+    private final InventarioProperties properties;
+    private final CoordinadorTareas coordinadorTareas;
+    private final TransactionTemplate transaccion;
+    private final TransactionTemplate reconstruccion;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InventarioTipoService(InventarioTipoRepository inventarioTipoRepository,
+            InventarioReservaRepository inventarioReservaRepository,
+            RetencionInventarioRepository retencionRepository,
+            HabitacionRepository habitacionRepository,
+            ReservaRepository reservaRepository,
+            InventarioProperties properties,
+            CoordinadorTareas coordinadorTareas,
+            PlatformTransactionManager transactionManager) {
+        this.inventarioTipoRepository = inventarioTipoRepository;
+        this.inventarioReservaRepository = inventarioReservaRepository;
+        this.retencionRepository = retencionRepository;
+        this.habitacionRepository = habitacionRepository;
+        this.reservaRepository = reservaRepository;
+        this.properties = properties;
+        this.coordinadorTareas = coordinadorTareas;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.reconstruccion = new TransactionTemplate(transactionManager);
+        this.reconstruccion.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public static String claveTipo(String tipo) {
+        return tipo != null && !tipo.isBlank() ? tipo.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    @Transactional(readOnly = true)
+    public CotizacionTipo cotizar(String tipo, LocalDate fechaInicio, LocalDate fechaFin) {
+        String clave = validar(tipo, fechaInicio, fechaFin);
+        Object[] capacidad = capacidad(clave);
+        long total = ((Number) capacidad[0]).longValue();
+        Double precio = capacidad[1] != null ? ((Number) capacidad[1]).doubleValue() : null;
+
+        Map<LocalDate, InventarioTipo> filas = new HashMap<>();
+        inventarioTipoRepository.findNoches(clave, fechaInicio, fechaFin).forEach(f -> filas.put(f.getFecha(), f));
+
+        List<InventarioNoche> noches = new ArrayList<>();
+        long disponibles = Long.MAX_VALUE;
+        for (LocalDate dia = fechaInicio; dia.isBefore(fechaFin); dia = dia.plusDays(1)) {
+            InventarioTipo fila = filas.get(dia);
+            InventarioNoche noche = fila != null
+                    ? new InventarioNoche(dia, total, fila.getRetenidas(), fila.getVendidas())
+                    : new InventarioNoche(dia, total, 0, inventarioReservaRepository.contarVendidas(clave, dia));
+            noches.add(noche);
+            disponibles = Math.min(disponibles, noche.getDisponibles());
+        }
+        return new CotizacionTipo(clave, fechaInicio, fechaFin, disponibles, precio,
+                precio != null ? precio * noches.size() : null, noches);
+    }
+
+    @Transactional
+    public RetencionInventario retener(String tipo, LocalDate fechaInicio, LocalDate fechaFin, int cantidad) {
+        String clave = validar(tipo, fechaInicio, fechaFin);
+        if (cantidad < 1) {
+            throw new IllegalArgumentException("La cantidad de habitaciones debe ser al menos 1");
+        }
+        if (cantidad > properties.getMaxHabitacionesRetencion()) {
+            throw new IllegalArgumentException("Una retención no puede superar "
+                    + properties.getMaxHabitacionesRetencion() + " habitaciones");
+        }
+        reservarNoches(clave, fechaInicio, fechaFin, cantidad, 0);
+        LocalDateTime ahora = LocalDateTime.now();
+        RetencionInventario retencion = retencionRepository.save(new RetencionInventario(
+                UUID.randomUUID().toString(), clave, fechaInicio, fechaFin, cantidad, ahora,
+                ahora.plus(properties.getRetencionTtl())));
+        logger.info("Retención {} creada: {} x {} del {} al {}", retencion.getCodigo(), cantidad, clave,
+                fechaInicio, fechaFin);
+        return retencion;
+    }
+
+    @Transactional
+    public boolean liberarRetencion(String codigo) {
+        return retencionRepository.findByCodigoParaActualizar(codigo)
+                .filter(r -> RetencionInventario.ACTIVA.equals(r.getEstado()))
+                .map(r -> {
+                    cerrar(r, RetencionInventario.LIBERADA);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Transactional
+    public RetencionInventario tomarRetencion(String codigo) {
+        RetencionInventario retencion = retencionRepository.findByCodigoParaActualizar(codigo)
+                .orElseThrow(() -> new IllegalArgumentException("La retención no existe"));
+        if (!RetencionInventario.ACTIVA.equals(retencion.getEstado())) {
+            throw new IllegalArgumentException("La retención ya no está activa");
+        }
+        if (!retencion.getExpiraEn().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("La retención ha expirado");
+        }
+        return retencion;
+    }
+
+    @Transactional
+    public void vender(Reserva reserva, RetencionInventario retencion) {
+        aplicar(reserva, retencion, true);
+    }
+
+    @Transactional
+    public void registrar(Reserva reserva) {
+        aplicar(reserva, null, false);
+    }
+
+    @Transactional
+    public void retirar(Long reservaId) {
+        if (reservaId == null) {
+            return;
+        }
+        inventarioReservaRepository.findById(reservaId).ifPresent(previo -> {
+            ajustar(previo.getTipo(), previo.getFechaInicio(), previo.getFechaFin(), 0, -1);
+            inventarioReservaRepository.delete(previo);
+        });
+    }
+
+    private void aplicar(Reserva reserva, RetencionInventario retencion, boolean validarCapacidad) {
+        Long reservaId = reserva != null ? reserva.getId() : null;
+        if (reservaId == null) {
+            return;
+        }
+        IntervaloReserva intervalo = ReservaEntityListener.capturar(reserva);
+        String clave = intervalo.bloqueaHabitacion() ? claveTipo(reserva.getHabitacion().getTipo()) : null;
+        LocalDate desde = intervalo.getFechaInicio();
+        LocalDate hasta = intervalo.getFinEfectivo();
+        boolean consume = clave != null && desde.isBefore(hasta);
+
+        InventarioReserva previo = inventarioReservaRepository.findById(reservaId).orElse(null);
+        if (previo != null && consume && previo.getTipo().equals(clave)
+                && previo.getFechaInicio().equals(desde) && previo.getFechaFin().equals(hasta)) {
+            return;
+        }
+
+        if (previo != null) {
+            ajustar(previo.getTipo(), previo.getFechaInicio(), previo.getFechaFin(), 0, -1);
+        }
+
+        if (consume) {
+            if (retencion != null && clave.equals(retencion.getTipo())
+                    && desde.equals(retencion.getFechaInicio()) && hasta.equals(retencion.getFechaFin())) {
+                ajustar(clave, desde, hasta, -1, 1);
+                retencion.setCantidad(retencion.getCantidad() - 1);
+                if (retencion.getCantidad() <= 0) {
+                    retencion.setEstado(RetencionInventario.CONFIRMADA);
+                }
+            } else if (!validarCapacidad || (previo != null && previo.getTipo().equals(clave)
+                    && !desde.isBefore(previo.getFechaInicio()) && !hasta.isAfter(previo.getFechaFin()))) {
+                ajustar(clave, desde, hasta, 0, 1);
+            } else {
+                reservarNoches(clave, desde, hasta, 0, 1);
+            }
+
+            if (previo != null) {
+                previo.setTipo(clave);
+                previo.setFechaInicio(desde);
+                previo.setFechaFin(hasta);
+            } else {
+                inventarioReservaRepository.save(new InventarioReserva(reservaId, clave, desde, hasta));
+            }
+        } else if (previo != null) {
+            inventarioReservaRepository.delete(previo);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciarAplicacion() {
+        coordinadorTareas.ejecutar(TAREA_INICIO, () -> {
+            boolean vacio = Boolean.TRUE.equals(transaccion.execute(estado ->
+                    inventarioReservaRepository.count() == 0 && reservaRepository.count() > 0));
+            if (vacio) {
+                logger.info("Inventario por tipo vacío, reconstruyendo desde reservas");
+                return reconstruccion.execute(estado -> reconstruir());
+            }
+            return transaccion.execute(estado -> asegurarHorizonte());
+        });
+    }
+
+    @Scheduled(cron = "${app.inventario.reconciliacion.cron:0 45 3 * * ?}")
+    public void reconciliar() {
+        coordinadorTareas.ejecutar(TAREA_RECONCILIACION, () -> reconstruccion.execute(estado -> reconstruir()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventario.expiracion-ms:60000}")
+    public void expirarRetenciones() {
+        coordinadorTareas.ejecutar(TAREA_EXPIRACION,
+                () -> transaccion.execute(estado -> expirarVencidas(LocalDateTime.now())));
+    }
+
+    long expirarVencidas(LocalDateTime ahora) {
+        long expiradas = 0;
+        List<RetencionInventario> lote;
+        do {
+            lote = retencionRepository.findVencidas(RetencionInventario.ACTIVA, ahora,
+                    PageRequest.of(0, properties.getLoteExpiracion()));
+            for (RetencionInventario retencion : lote) {
+                cerrar(retencion, RetencionInventario.EXPIRADA);
+            }
+            expiradas += lote.size();
+        } while (lote.size() == properties.getLoteExpiracion());
+        if (expiradas > 0) {
+            logger.info("{} retenciones de inventario expiradas", expiradas);
+        }
+        return expiradas;
+    }
+
+    private void cerrar(RetencionInventario retencion, String estado) {
+        ajustar(retencion.getTipo(), retencion.getFechaInicio(), retencion.getFechaFin(),
+                -retencion.getCantidad(), 0);
+        retencion.setEstado(estado);
+    }
+
+    private void reservarNoches(String clave, LocalDate desde, LocalDate hasta, int retenidas, int vendidas) {
+        long total = ((Number) capacidad(clave)[0]).longValue();
+        List<InventarioTipo> noches = bloquearNoches(clave, desde, hasta);
+        for (InventarioTipo noche : noches) {
+            if (noche.getRetenidas() + noche.getVendidas() + retenidas + vendidas > total) {
+                throw new IllegalArgumentException("No quedan habitaciones de tipo " + clave
+                        + " disponibles en las fechas seleccionadas");
+            }
+        }
+        for (InventarioTipo noche : noches) {
+            noche.setRetenidas(noche.getRetenidas() + retenidas);
+            noche.setVendidas(noche.getVendidas() + vendidas);
+        }
+    }
+
+    private void ajustar(String clave, LocalDate desde, LocalDate hasta, int retenidas, int vendidas) {
+        for (InventarioTipo noche : bloquearNoches(clave, desde, hasta)) {
+            noche.setRetenidas(Math.max(0, noche.getRetenidas() + retenidas));
+            noche.setVendidas(Math.max(0, noche.getVendidas() + vendidas));
+        }
+    }
+
+    private List<InventarioTipo> bloquearNoches(String clave, LocalDate desde, LocalDate hasta) {
+        asegurarNoches(clave, desde, hasta);
+        return inventarioTipoRepository.findNochesParaActualizar(clave, desde, hasta);
+    }
+
+    // INSERT IGNORE: si otra reserva materializa la misma noche a la vez, esta espera a su commit y la reutiliza
+    private int asegurarNoches(String clave, LocalDate desde, LocalDate hasta) {
+        Set<LocalDate> existentes = new HashSet<>(inventarioTipoRepository.findFechas(clave, desde, hasta));
+        int creadas = 0;
+        for (LocalDate dia = desde; dia.isBefore(hasta); dia = dia.plusDays(1)) {
+            if (!existentes.contains(dia)) {
+                creadas += inventarioTipoRepository.crearSiFalta(clave, dia,
+                        (int) inventarioReservaRepository.contarVendidas(clave, dia));
+            }
+        }
+        return creadas;
+    }
+
+    private long asegurarHorizonte() {
+        LocalDate hoy = LocalDate.now();
+        LocalDate limite = hoy.plusDays(properties.getHorizonteDias());
+        long creadas = 0;
+        for (String clave : tiposConHabitaciones().values().stream().distinct().toList()) {
+            creadas += asegurarNoches(clave, hoy, limite);
+        }
+        return creadas;
+    }
+
+    // Bloquea las noches antes de leer las reservas: las ventas y retenciones concurrentes esperan a que termine,
+    // y en READ COMMITTED las que ya tenían el bloqueo se ven confirmadas. Solo se corrigen las noches desviadas.
+    private long reconstruir() {
+        Map<Long, String> tipoPorHabitacion = tiposConHabitaciones();
+        LocalDate hoy = LocalDate.now();
+        long creadas = asegurarHorizonte();
+
+        Map<String, Map<LocalDate, int[]>> actuales = new HashMap<>();
+        for (InventarioTipo noche : inventarioTipoRepository.findDesdeParaActualizar(hoy)) {
+            actuales.computeIfAbsent(noche.getTipo(), k -> new HashMap<>())
+                    .put(noche.getFecha(), new int[] { noche.getRetenidas(), noche.getVendidas() });
+        }
+        inventarioReservaRepository.vaciar();
+
+        Map<String, Map<LocalDate, int[]>> contadores = new HashMap<>();
+        long ultimoId = 0L;
+        long registradas = 0;
+        List<IntervaloReserva> lote;
+        do {
+            lote = reservaRepository.findIntervalosBloqueantesDesde(ultimoId, PageRequest.of(0, TAMANO_LOTE));
+            for (IntervaloReserva intervalo : lote) {
+                ultimoId = intervalo.getId();
+                String clave = tipoPorHabitacion.get(intervalo.getHabitacionId());
+                if (clave == null || !intervalo.bloqueaHabitacion()
+                        || !intervalo.getFechaInicio().isBefore(intervalo.getFinEfectivo())) {
+                    continue;
+                }
+                entityManager.persist(new InventarioReserva(intervalo.getId(), clave, intervalo.getFechaInicio(),
+                        intervalo.getFinEfectivo()));
+                sumar(contadores, clave, intervalo.getFechaInicio(), intervalo.getFinEfectivo(), hoy, 1, 1);
+                registradas++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } while (lote.size() == TAMANO_LOTE);
+
+        for (RetencionInventario retencion : retencionRepository.findByEstado(RetencionInventario.ACTIVA)) {
+            sumar(contadores, retencion.getTipo(), retencion.getFechaInicio(), retencion.getFechaFin(), hoy, 0,
+                    retencion.getCantidad());
+        }
+
+        long corregidas = 0;
+        int[] vacia = new int[2];
+        for (Map.Entry<String, Map<LocalDate, int[]>> tipo : actuales.entrySet()) {
+            Map<LocalDate, int[]> esperadas = contadores.getOrDefault(tipo.getKey(), Map.of());
+            for (Map.Entry<LocalDate, int[]> noche : tipo.getValue().entrySet()) {
+                int[] esperada = esperadas.getOrDefault(noche.getKey(), vacia);
+                if (esperada[0] != noche.getValue()[0] || esperada[1] != noche.getValue()[1]) {
+                    inventarioTipoRepository.fijar(tipo.getKey(), noche.getKey(), esperada[0], esperada[1]);
+                    corregidas++;
+                }
+            }
+        }
+        for (Map.Entry<String, Map<LocalDate, int[]>> tipo : contadores.entrySet()) {
+            Map<LocalDate, int[]> existentes = actuales.getOrDefault(tipo.getKey(), Map.of());
+            for (Map.Entry<LocalDate, int[]> noche : tipo.getValue().entrySet()) {
+                if (!existentes.containsKey(noche.getKey())) {
+                    creadas += asegurarNoches(tipo.getKey(), noche.getKey(), noche.getKey().plusDays(1));
+                    inventarioTipoRepository.fijar(tipo.getKey(), noche.getKey(), noche.getValue()[0],
+                            noche.getValue()[1]);
+                }
+            }
+        }
+        logger.info("Inventario por tipo reconstruido: {} reservas, {} noches nuevas, {} corregidas", registradas,
+                creadas, corregidas);
+        return registradas;
+    }
+
+    private void sumar(Map<String, Map<LocalDate, int[]>> contadores, String clave, LocalDate desde,
+            LocalDate hasta, LocalDate hoy, int indice, int cantidad) {
+        Map<LocalDate, int[]> porDia = contadores.computeIfAbsent(clave, k -> new HashMap<>());
+        for (LocalDate dia = desde.isBefore(hoy) ? hoy : desde; dia.isBefore(hasta); dia = dia.plusDays(1)) {
+            porDia.computeIfAbsent(dia, k -> new int[2])[indice] += cantidad;
+        }
+    }
+
+    private Map<Long, String> tiposConHabitaciones() {
+        Map<Long, String> tipos = new HashMap<>();
+        for (Object[] fila : habitacionRepository.findTiposPorHabitacion()) {
+            if (fila[1] != null) {
+                tipos.put((Long) fila[0], (String) fila[1]);
+            }
+        }
+        return tipos;
+    }
+
+    private Object[] capacidad(String clave) {
+        List<Object[]> filas = habitacionRepository.resumirTipo(clave);
+        return filas.isEmpty() ? new Object[] { 0L, null } : filas.get(0);
+    }
+
+    private String validar(String tipo, LocalDate fechaInicio, LocalDate fechaFin) {
+        String clave = claveTipo(tipo);
+        if (clave == null) {
+            throw new IllegalArgumentException("El tipo de habitación es obligatorio");
+        }
+        if (fechaInicio == null || fechaFin == null) {
+            throw new IllegalArgumentException("Las fechas de inicio y fin son obligatorias");
+        }
+        if (!fechaInicio.isBefore(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
+        }
+        if (ChronoUnit.DAYS.between(fechaInicio, fechaFin) > properties.getMaxNoches()) {
+            throw new IllegalArgumentException("El rango no puede superar " + properties.getMaxNoches() + " noches");
+        }
+        return clave;
+    }
+}
@@ -0,0 +1,249 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.ContribucionIngreso;
+import com.gestion.hotelera.enums.EstadoReserva;
+import com.gestion.hotelera.model.IngresoDiario;
+import com.gestion.hotelera.model.IngresoReserva;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.repository.IngresoDiarioRepository;
+import com.gestion.hotelera.repository.IngresoReservaRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@SuppressWarnings("null")
+public class LibroIngresosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibroIngresosService.class);
+    private static final int TAMANO_LOTE = 1000;
+    private static final String PAGO_COMPLETADO = "COMPLETADO";
+    private static final String TAREA_INICIO = "ingresos_inicio";
+    private static final String TAREA_RECONCILIACION = "ingresos_reconciliacion";
+
+    private final IngresoDiarioRepository ingresoDiarioRepository;
+    private final IngresoReservaRepository ingresoReservaRepository;
+    private final ReservaRepository reservaRepository;
+    private final CoordinadorTareas coordinadorTareas;
+    private final TransactionTemplate transaccion;
+    private final TransactionTemplate transaccionDia;
+
+    public LibroIngresosService(IngresoDiarioRepository ingresoDiarioRepository,
+            IngresoReservaRepository ingresoReservaRepository,
+            ReservaRepository reservaRepository,
+            CoordinadorTareas coordinadorTareas,
+            PlatformTransactionManager transactionManager) {
+        this.ingresoDiarioRepository = ingresoDiarioRepository;
+        this.ingresoReservaRepository = ingresoReservaRepository;
+        this.reservaRepository = reservaRepository;
+        this.coordinadorTareas = coordinadorTareas;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccionDia = new TransactionTemplate(transactionManager);
+        this.transaccionDia.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public static boolean generaIngreso(String estadoReserva, String estadoPago) {
+        return EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(estadoReserva)
+                || EstadoReserva.ACTIVA.getValor().equalsIgnoreCase(estadoReserva)
+                || EstadoReserva.ARCHIVADA.getValor().equalsIgnoreCase(estadoReserva)
+                || (EstadoReserva.PENDIENTE.getValor().equalsIgnoreCase(estadoReserva)
+                        && PAGO_COMPLETADO.equalsIgnoreCase(estadoPago));
+    }
+
+    public static double calcularMonto(Double totalPagar, Double totalServicios, Double montoDescuento) {
+        double total = (totalPagar != null ? totalPagar : 0.0) + (totalServicios != null ? totalServicios : 0.0);
+        return Math.max(0.0, total - (montoDescuento != null ? montoDescuento : 0.0));
+    }
+
+    @Transactional
+    public void contabilizar(Reserva reserva) {
+        if (reserva == null || reserva.getId() == null) {
+            return;
+        }
+        String estadoPago = reserva.getPago() != null ? reserva.getPago().getEstado() : null;
+        LocalDate fecha = reserva.getFechaSalidaReal() != null ? reserva.getFechaSalidaReal() : reserva.getFechaFin();
+        double monto = generaIngreso(reserva.getEstadoReserva(), estadoPago) && fecha != null
+                ? reserva.calcularTotalConDescuento()
+                : 0.0;
+        aplicar(reserva.getId(), fecha, monto);
+    }
+
+    @Transactional
+    public void contabilizar(Collection<Long> reservaIds) {
+        if (reservaIds == null || reservaIds.isEmpty()) {
+            return;
+        }
+        reservaRepository.findParaContabilizar(new TreeSet<>(reservaIds)).forEach(this::contabilizar);
+    }
+
+    @Transactional
+    public void retirar(Long reservaId) {
+        if (reservaId != null) {
+            aplicar(reservaId, null, 0.0);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public double totalAcumulado() {
+        return ingresoDiarioRepository.sumarTotal();
+    }
+
+    @Transactional(readOnly = true)
+    public double totalEntre(LocalDate inicio, LocalDate fin) {
+        return ingresoDiarioRepository.sumarEntre(inicio, fin);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Double> ingresosPorDia(LocalDate inicio, LocalDate fin) {
+        Map<LocalDate, Double> ingresosPorFecha = new TreeMap<>();
+        for (LocalDate fecha = inicio; !fecha.isAfter(fin); fecha = fecha.plusDays(1)) {
+            ingresosPorFecha.put(fecha, 0.0);
+        }
+        for (IngresoDiario ingreso : ingresoDiarioRepository.findByFechaBetweenOrderByFecha(inicio, fin)) {
+            ingresosPorFecha.put(ingreso.getFecha(), ingreso.getMonto());
+        }
+        return ingresosPorFecha;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciarAplicacion() {
+        coordinadorTareas.ejecutar(TAREA_INICIO, () -> {
+            Boolean vacio = transaccion.execute(estado ->
+                    ingresoReservaRepository.count() == 0 && reservaRepository.count() > 0);
+            if (!Boolean.TRUE.equals(vacio)) {
+                return 0;
+            }
+            logger.info("Libro de ingresos vacío, contabilizando desde reservas");
+            return conciliar();
+        });
+    }
+
+    @Scheduled(cron = "${app.ingresos.reconciliacion.cron:0 30 3 * * ?}")
+    public void reconciliar() {
+        coordinadorTareas.ejecutar(TAREA_RECONCILIACION, this::conciliar);
+    }
+
+    // Sin vaciar el libro: solo se corrigen las reservas y los días descuadrados, cada uno bajo su bloqueo,
+    // para no pisar los asientos que se publican mientras tanto
+    long conciliar() {
+        long reservas = 0;
+        long ultimoId = 0L;
+        List<ContribucionIngreso> lote;
+        do {
+            long desde = ultimoId;
+            lote = transaccion.execute(estado -> reservaRepository.findContribucionesDesde(desde,
+                    PageRequest.of(0, TAMANO_LOTE)));
+            if (lote.isEmpty()) {
+                break;
+            }
+            ultimoId = lote.get(lote.size() - 1).getReservaId();
+            List<ContribucionIngreso> actual = lote;
+            List<Long> desfasadas = transaccion.execute(estado -> desfasadas(actual));
+            if (!desfasadas.isEmpty()) {
+                transaccion.executeWithoutResult(estado ->
+                        reservaRepository.findParaContabilizar(desfasadas).forEach(this::contabilizar));
+                reservas += desfasadas.size();
+            }
+        } while (lote.size() == TAMANO_LOTE);
+
+        List<Long> huerfanas = transaccion.execute(estado -> ingresoReservaRepository.findHuerfanas());
+        huerfanas.forEach(id -> transaccion.executeWithoutResult(estado -> retirar(id)));
+
+        Set<LocalDate> dias = transaccion.execute(estado -> {
+            Set<LocalDate> fechas = new TreeSet<>(ingresoDiarioRepository.findFechasDescuadradas());
+            fechas.addAll(ingresoDiarioRepository.findFechasSinTotal());
+            return fechas;
+        });
+        dias.forEach(fecha -> transaccionDia.executeWithoutResult(estado -> cuadrarDia(fecha)));
+
+        long corregidas = reservas + huerfanas.size() + dias.size();
+        if (corregidas > 0) {
+            logger.warn("Reconciliación de ingresos: {} reservas, {} asientos huérfanos y {} días corregidos",
+                    reservas, huerfanas.size(), dias.size());
+        } else {
+            logger.info("Reconciliación de ingresos sin diferencias");
+        }
+        return corregidas;
+    }
+
+    private List<Long> desfasadas(List<ContribucionIngreso> lote) {
+        Map<Long, IngresoReserva> asientos = ingresoReservaRepository
+                .findAllById(lote.stream().map(ContribucionIngreso::getReservaId).toList()).stream()
+                .collect(Collectors.toMap(IngresoReserva::getReservaId, Function.identity()));
+        List<Long> desfasadas = new ArrayList<>();
+        for (ContribucionIngreso c : lote) {
+            LocalDate fecha = c.getFechaSalidaReal() != null ? c.getFechaSalidaReal() : c.getFechaFin();
+            double monto = fecha != null && generaIngreso(c.getEstadoReserva(), c.getEstadoPago())
+                    ? calcularMonto(c.getTotalPagar(), c.getTotalServicios(), c.getMontoDescuento())
+                    : 0.0;
+            IngresoReserva asiento = asientos.get(c.getReservaId());
+            boolean cuadra = monto > 0
+                    ? asiento != null && asiento.getFecha().equals(fecha)
+                            && Math.abs(asiento.getMonto() - monto) < 0.005
+                    : asiento == null;
+            if (!cuadra) {
+                desfasadas.add(c.getReservaId());
+            }
+        }
+        return desfasadas;
+    }
+
+    // El upsert con delta 0 crea la fila si falta y la deja bloqueada; en READ COMMITTED la suma ve los
+    // asientos confirmados por quien tuviera el día bloqueado antes
+    private void cuadrarDia(LocalDate fecha) {
+        ingresoDiarioRepository.acumular(fecha, 0.0);
+        ingresoDiarioRepository.fijar(fecha, ingresoReservaRepository.sumarPorFecha(fecha));
+    }
+
+    private void aplicar(Long reservaId, LocalDate fecha, double monto) {
+        reservaRepository.findParaContabilizar(List.of(reservaId));
+        IngresoReserva previo = ingresoReservaRepository.findById(reservaId).orElse(null);
+        boolean genera = fecha != null && monto > 0;
+
+        if (previo != null && genera && previo.getFecha().equals(fecha)
+                && Objects.equals(previo.getMonto(), monto)) {
+            return;
+        }
+
+        if (previo != null) {
+            acumular(previo.getFecha(), -previo.getMonto());
+        }
+
+        if (genera) {
+            acumular(fecha, monto);
+            if (previo != null) {
+                previo.setFecha(fecha);
+                previo.setMonto(monto);
+            } else {
+                ingresoReservaRepository.save(new IngresoReserva(reservaId, fecha, monto));
+            }
+        } else if (previo != null) {
+            ingresoReservaRepository.delete(previo);
+        }
+    }
+
+    private void acumular(LocalDate fecha, double delta) {
+        ingresoDiarioRepository.acumular(fecha, delta);
+    }
+}
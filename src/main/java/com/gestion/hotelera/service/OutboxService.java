@@ -0,0 +1,240 @@
+package com.gestion.hotelera.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.hotelera.config.AsyncConfig;
+import com.gestion.hotelera.model.EventoOutbox;
+import com.gestion.hotelera.repository.EventoOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    public static final String TIPO_EMAIL = "EMAIL";
+    public static final String TIPO_NOTIFICACION = "NOTIFICACION";
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String PROCESADO = "PROCESADO";
+    public static final String FALLIDO = "FALLIDO";
+    private static final String TAREA_PURGA = "outbox_purga";
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final EmailService emailService;
+    private final NotificacionService notificacionService;
+    private final ObjectMapper objectMapper;
+    private final CoordinadorTareas coordinadorTareas;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor ejecutorEnvio;
+    private final int tamanoLote;
+    private final int maxIntentos;
+    private final long backoffInicialMs;
+    private final long plazoEnvioMs;
+
+    public OutboxService(EventoOutboxRepository eventoOutboxRepository,
+            EmailService emailService,
+            NotificacionService notificacionService,
+            ObjectMapper objectMapper,
+            CoordinadorTareas coordinadorTareas,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(AsyncConfig.EJECUTOR_CORREO) Executor ejecutorEnvio,
+            @Value("${app.outbox.lote:50}") int tamanoLote,
+            @Value("${app.outbox.max-intentos:8}") int maxIntentos,
+            @Value("${app.outbox.backoff-inicial-ms:5000}") long backoffInicialMs,
+            @Value("${app.outbox.plazo-envio-ms:300000}") long plazoEnvioMs) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.emailService = emailService;
+        this.notificacionService = notificacionService;
+        this.objectMapper = objectMapper;
+        this.coordinadorTareas = coordinadorTareas;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ejecutorEnvio = ejecutorEnvio;
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.backoffInicialMs = backoffInicialMs;
+        this.plazoEnvioMs = Math.max(1, plazoEnvioMs);
+    }
+
+    @Transactional
+    public void encolarEmail(String claveIdempotencia, SimpleMailMessage mensaje) {
+        String[] to = mensaje.getTo();
+        if (to == null || to.length == 0) {
+            return;
+        }
+        guardar(claveIdempotencia, TIPO_EMAIL,
+                new CorreoPayload(mensaje.getFrom(), to[0], mensaje.getSubject(), mensaje.getText()));
+    }
+
+    @Transactional
+    public void encolarNotificacion(String claveIdempotencia, String titulo, String mensaje, String tipo,
+            String destinatario) {
+        guardar(claveIdempotencia, TIPO_NOTIFICACION,
+                new NotificacionPayload(titulo, mensaje, tipo, destinatario));
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:2000}")
+    public void despachar() {
+        LoteReclamado lote;
+        do {
+            lote = transactionTemplate.execute(estado -> reclamarLote());
+            if (lote != null && !lote.correos().isEmpty()) {
+                enviar(lote.correos());
+            }
+        } while (lote != null && lote.reclamados() == tamanoLote);
+    }
+
+    @Transactional
+    public int reactivarFallidos() {
+        int reactivados = eventoOutboxRepository.reactivar(FALLIDO, PENDIENTE, LocalDateTime.now());
+        logger.info("Eventos de outbox reactivados para reenvío: {}", reactivados);
+        return reactivados;
+    }
+
+    @Scheduled(cron = "${app.outbox.purga.cron:0 15 4 * * ?}")
+    public void purgarProcesados() {
+        coordinadorTareas.ejecutar(TAREA_PURGA, () -> transactionTemplate.execute(estado -> {
+            int eliminados = eventoOutboxRepository.purgar(PROCESADO, LocalDateTime.now().minusDays(7));
+            if (eliminados > 0) {
+                logger.info("Eventos de outbox procesados purgados: {}", eliminados);
+            }
+            return (long) eliminados;
+        }));
+    }
+
+    // INSERT IGNORE sobre uk_outbox_clave: una clave repetida, aunque llegue a la vez desde otro nodo, no
+    // lanza la violación de unicidad que desharía la transacción de negocio que encola el evento
+    private void guardar(String claveIdempotencia, String tipo, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + claveIdempotencia, e);
+        }
+        if (eventoOutboxRepository.insertarSiNoExiste(claveIdempotencia, tipo, json, PENDIENTE,
+                LocalDateTime.now()) == 0) {
+            logger.debug("Evento de outbox duplicado ignorado: {}", claveIdempotencia);
+        }
+    }
+
+    // Los correos se reclaman aplazando proximoIntento el plazo de envío y se confirman al terminar: el SMTP va
+    // fuera de la transacción y sin los bloqueos de SKIP LOCKED; si el nodo cae, el evento vuelve a quedar
+    // disponible al vencer el plazo
+    private LoteReclamado reclamarLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EventoOutbox> lote = eventoOutboxRepository.findParaDespacho(PENDIENTE, ahora,
+                PageRequest.of(0, tamanoLote));
+        if (lote.isEmpty()) {
+            return new LoteReclamado(0, Map.of());
+        }
+
+        Map<SimpleMailMessage, Long> correos = new IdentityHashMap<>();
+        for (EventoOutbox evento : lote) {
+            try {
+                if (TIPO_EMAIL.equals(evento.getTipo())) {
+                    CorreoPayload correo = objectMapper.readValue(evento.getPayload(), CorreoPayload.class);
+                    SimpleMailMessage mensaje = emailService.crearMensaje(correo.para(), correo.asunto(),
+                            correo.contenido());
+                    if (correo.de() != null) {
+                        mensaje.setFrom(correo.de());
+                    }
+                    evento.setProximoIntento(ahora.plusNanos(plazoEnvioMs * 1_000_000));
+                    correos.put(mensaje, evento.getId());
+                } else if (TIPO_NOTIFICACION.equals(evento.getTipo())) {
+                    NotificacionPayload notificacion = objectMapper.readValue(evento.getPayload(),
+                            NotificacionPayload.class);
+                    notificacionService.crearNotificacion(notificacion.titulo(), notificacion.mensaje(),
+                            notificacion.tipo(), notificacion.destinatario());
+                    marcarProcesado(evento);
+                } else {
+                    marcarFallo(evento, "Tipo de evento desconocido: " + evento.getTipo(), true);
+                }
+            } catch (JsonProcessingException e) {
+                marcarFallo(evento, "Payload ilegible: " + e.getOriginalMessage(), true);
+            }
+        }
+
+        logger.debug("Lote de outbox reclamado: {} eventos, {} correos", lote.size(), correos.size());
+        return new LoteReclamado(lote.size(), correos);
+    }
+
+    private void enviar(Map<SimpleMailMessage, Long> correos) {
+        List<SimpleMailMessage> mensajes = new ArrayList<>(correos.keySet());
+        CompletableFuture.supplyAsync(() -> emailService.entregarAhora(mensajes), ejecutorEnvio)
+                .thenAccept(fallos -> transactionTemplate.executeWithoutResult(estado ->
+                        registrarEnvio(correos, fallos)))
+                .exceptionally(e -> {
+                    logger.error("No se pudo completar el envío de {} correos del outbox; se reintentarán al "
+                            + "vencer el plazo de envío", mensajes.size(), e);
+                    return null;
+                });
+    }
+
+    private void registrarEnvio(Map<SimpleMailMessage, Long> correos, Map<SimpleMailMessage, Exception> fallos) {
+        Map<Long, EventoOutbox> eventos = eventoOutboxRepository.findAllById(correos.values()).stream()
+                .collect(Collectors.toMap(EventoOutbox::getId, Function.identity()));
+        correos.forEach((mensaje, id) -> {
+            EventoOutbox evento = eventos.get(id);
+            if (evento == null || !PENDIENTE.equals(evento.getEstado())) {
+                return;
+            }
+            Exception causa = fallos.get(mensaje);
+            if (causa == null) {
+                marcarProcesado(evento);
+            } else {
+                marcarFallo(evento, causa.getMessage(), false);
+            }
+        });
+    }
+
+    private void marcarProcesado(EventoOutbox evento) {
+        evento.setEstado(PROCESADO);
+        evento.setFechaProcesado(LocalDateTime.now());
+        evento.setIntentos(evento.getIntentos() + 1);
+        evento.setUltimoError(null);
+    }
+
+    private void marcarFallo(EventoOutbox evento, String error, boolean definitivo) {
+        int intentos = evento.getIntentos() + 1;
+        evento.setIntentos(intentos);
+        evento.setUltimoError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        if (definitivo || intentos >= maxIntentos) {
+            evento.setEstado(FALLIDO);
+            logger.error("Evento de outbox {} marcado como fallido tras {} intentos: {}",
+                    evento.getClaveIdempotencia(), intentos, error);
+        } else {
+            long espera = backoffInicialMs * (1L << Math.min(intentos - 1, 20));
+            evento.setProximoIntento(LocalDateTime.now().plusNanos(espera * 1_000_000));
+            logger.warn("Evento de outbox {} reprogramado (intento {}): {}",
+                    evento.getClaveIdempotencia(), intentos, error);
+        }
+    }
+
+    private record LoteReclamado(int reclamados, Map<SimpleMailMessage, Long> correos) {
+    }
+
+    record CorreoPayload(String de, String para, String asunto, String contenido) {
+    }
+
+    record NotificacionPayload(String titulo, String mensaje, String tipo, String destinatario) {
+    }
+}
@@ -7,6 +7,7 @@ import com.gestion.hotelera.model.Pago;
 import com.gestion.hotelera.model.Reserva;
 import com.gestion.hotelera.repository.PagoRepository;
 import com.gestion.hotelera.repository.ReservaRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,20 +28,25 @@ public class PagoService {
     private final ReservaService reservaService;
     private final ReservaRepository reservaRepository;
     private final EmailService emailService;
-    private final com.gestion.hotelera.service.NotificacionService notificacionService;
+    private final OutboxService outboxService;
+    private final LibroIngresosService libroIngresosService;
 
     public PagoService(PagoRepository pagoRepository,
             ReservaService reservaService,
             ReservaRepository reservaRepository,
             EmailService emailService,
-            com.gestion.hotelera.service.NotificacionService notificacionService) {
+            OutboxService outboxService,
+            LibroIngresosService libroIngresosService) {
         this.pagoRepository = pagoRepository;
         this.reservaService = reservaService;
         this.reservaRepository = reservaRepository;
         this.emailService = emailService;
-        this.notificacionService = notificacionService;
+        this.outboxService = outboxService;
+        this.libroIngresosService = libroIngresosService;
     }
 
+    @Timed(value = "hotel.pagos.procesamiento", description = "Latencia del procesamiento de pagos",
+            histogram = true)
     @Transactional(rollbackFor = Exception.class)
     public PagoResponse procesarPago(PagoRequest pagoRequest) {
         validarPagoRequest(pagoRequest);
@@ -175,6 +181,7 @@ public class PagoService {
         reserva.setPago(pago);
         reserva.setEstadoReserva(EstadoReserva.ACTIVA.getValor());
         reservaRepository.save(reserva);
+        libroIngresosService.contabilizar(reserva);
         logger.debug("Reserva actualizada con pago - Reserva ID: {}", reserva.getId());
     }
 
@@ -184,14 +191,15 @@ public class PagoService {
             if (email != null && !email.trim().isEmpty()) {
                 String nombre = reserva.getCliente().getNombres();
                 String numeroReserva = String.valueOf(reserva.getId());
-                emailService.enviarNotificacionPago(email, nombre, numeroReserva, montoTotal, metodo);
-                logger.debug("Notificación de pago enviada a: {}", email);
+                outboxService.encolarEmail("pago-email-reserva-" + reserva.getId(),
+                        emailService.crearMensajeNotificacionPago(email, nombre, numeroReserva, montoTotal, metodo));
+                logger.debug("Notificación de pago registrada en outbox para: {}", email);
             }
         }
     }
 
     private void crearNotificacionPago(Reserva reserva, double montoTotal, String metodo) {
-        if (notificacionService != null && reserva.getCliente() != null) {
+        if (reserva.getCliente() != null) {
             String nombreCliente = reserva.getCliente().getNombres() + " " + reserva.getCliente().getApellidos();
             String titulo = "Pago Procesado - Reserva #" + reserva.getId();
             String mensaje = String.format("Pago de S/. %.2f procesado exitosamente para Reserva #%d. Cliente: %s, Método: %s",
@@ -199,7 +207,8 @@ public class PagoService {
                     reserva.getId(),
                     nombreCliente,
                     metodo);
-            notificacionService.crearNotificacion(titulo, mensaje, "SISTEMA");
+            outboxService.encolarNotificacion("pago-notificacion-reserva-" + reserva.getId(), titulo, mensaje, "SISTEMA",
+                    "STAFF");
             logger.debug("Notificación de pago creada en sistema: Reserva ID={}", reserva.getId());
         }
     }
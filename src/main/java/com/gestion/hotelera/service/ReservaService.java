@@ -1,15 +1,24 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.dto.Cursor;
+import com.gestion.hotelera.dto.CursorPage;
+import com.gestion.hotelera.dto.FilaReserva;
+import com.gestion.hotelera.dto.ReservaDTO;
+import com.gestion.hotelera.dto.ServicioReservado;
 import com.gestion.hotelera.enums.EstadoHabitacion;
 import com.gestion.hotelera.enums.EstadoReserva;
 import com.gestion.hotelera.model.Cliente;
 import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.model.RetencionInventario;
 import com.gestion.hotelera.model.Servicio;
 import com.gestion.hotelera.repository.ReservaRepository;
 import com.gestion.hotelera.repository.ServicioRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -24,36 +33,79 @@ import java.util.stream.Collectors;
 public class ReservaService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservaService.class);
+    private static final int LOTE_CONSULTA_IDS = 1000;
     
     private final ReservaRepository reservaRepository;
     private final AuditoriaService auditoriaService;
     private final ServicioRepository servicioRepository;
     private final HabitacionService habitacionService;
     private final EmailService emailService;
-    private final NotificacionService notificacionService;
+    private final OutboxService outboxService;
     private final com.gestion.hotelera.repository.ClienteRepository clienteRepository;
+    private final CalendarioOcupacionService calendarioOcupacionService;
+    private final LibroIngresosService libroIngresosService;
+    private final InventarioTipoService inventarioTipoService;
 
     public ReservaService(ReservaRepository reservaRepository,
             AuditoriaService auditoriaService,
             ServicioRepository servicioRepository,
             HabitacionService habitacionService,
             EmailService emailService,
-            NotificacionService notificacionService,
-            com.gestion.hotelera.repository.ClienteRepository clienteRepository) {
+            OutboxService outboxService,
+            com.gestion.hotelera.repository.ClienteRepository clienteRepository,
+            CalendarioOcupacionService calendarioOcupacionService,
+            LibroIngresosService libroIngresosService,
+            InventarioTipoService inventarioTipoService) {
         this.reservaRepository = reservaRepository;
         this.auditoriaService = auditoriaService;
         this.servicioRepository = servicioRepository;
         this.habitacionService = habitacionService;
         this.emailService = emailService;
-        this.notificacionService = notificacionService;
+        this.outboxService = outboxService;
         this.clienteRepository = clienteRepository;
+        this.calendarioOcupacionService = calendarioOcupacionService;
+        this.libroIngresosService = libroIngresosService;
+        this.inventarioTipoService = inventarioTipoService;
     }
 
+    @Timed(value = "hotel.reservas.creacion", description = "Latencia de creación y actualización de reservas",
+            histogram = true)
     @Transactional
     public @NonNull Reserva crearOActualizarReserva(@NonNull Reserva reserva) {
+        return guardarReserva(reserva, null);
+    }
+
+    @Transactional
+    public @NonNull Reserva confirmarRetencion(String codigo, @NonNull Reserva reserva) {
+        RetencionInventario retencion = inventarioTipoService.tomarRetencion(codigo);
+        LocalDate inicio = retencion.getFechaInicio();
+        LocalDate fin = retencion.getFechaFin();
+        com.gestion.hotelera.model.Habitacion habitacion = habitacionService
+                .buscarDisponibles(inicio, fin, retencion.getTipo(), null, null).stream()
+                .filter(h -> libreBajoBloqueo(h.getId(), inicio, fin, null))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No hay habitaciones de tipo " + retencion.getTipo() + " libres para asignar"));
+
+        reserva.setId(null);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(fin);
+        if (reserva.getEstadoReserva() == null) {
+            reserva.setEstadoReserva(EstadoReserva.PENDIENTE.getValor());
+        }
+        reserva.setDiasEstadia(calcularDiasEstadia(inicio, fin));
+        reserva.setTotalPagar(calcularTotalPagar(habitacion.getPrecioPorNoche(), reserva.getDiasEstadia()));
+        return guardarReserva(reserva, retencion);
+    }
+
+    private @NonNull Reserva guardarReserva(@NonNull Reserva reserva, RetencionInventario retencion) {
         validarReserva(reserva);
         Long habitacionId = reserva.getHabitacion().getId();
         Long reservaId = reserva.getId();
+        if (reservaId != null && reserva.getVersion() == null) {
+            throw new IllegalArgumentException("La versión de la reserva es obligatoria para modificarla");
+        }
 
         com.gestion.hotelera.model.Habitacion habitacionFull = habitacionService.buscarHabitacionPorId(habitacionId)
                 .orElseThrow(() -> new IllegalArgumentException("La habitación seleccionada no existe"));
@@ -63,7 +115,7 @@ public class ReservaService {
         }
         reserva.setHabitacion(habitacionFull);
 
-        verificarDisponibilidadFechas(habitacionId, reserva, reservaId);
+        confirmarDisponibilidadConBloqueo(habitacionId, reserva, reservaId);
 
         try {
             
@@ -76,11 +128,13 @@ public class ReservaService {
             }
 
             Reserva guardada = reservaRepository.save(reserva);
+            contabilizarIngreso(guardada);
+            inventarioTipoService.vender(guardada, retencion);
             actualizarEstadoHabitacionSegunReserva(guardada);
             registrarAuditoriaCreacionOActualizacion(guardada);
             enviarEmailConfirmacionSiEsNueva(reserva.getId() == null, guardada);
 
-            if (reserva.getId() == null && notificacionService != null) {
+            if (reserva.getId() == null) {
                 crearNotificacionNuevaReserva(guardada);
             }
 
@@ -90,7 +144,7 @@ public class ReservaService {
                     guardada.getHabitacion() != null ? guardada.getHabitacion().getNumero() : "N/A");
 
             return guardada;
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | ConcurrencyFailureException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error al guardar reserva", e);
@@ -110,6 +164,96 @@ public class ReservaService {
                 .getContent();
     }
 
+    @Transactional(readOnly = true)
+    public List<ReservaDTO> listarReservasDTO(Pageable pageable) {
+        return aDTOs(reservaRepository.findFilas(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservaDTO> listarUltimasReservasDTO(int limite) {
+        return aDTOs(reservaRepository.findFilas(PageRequest.of(0, Math.max(1, limite))));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservaDTO> listarReservasDTOPorCliente(Long clienteId) {
+        if (clienteId == null) {
+            return new ArrayList<>();
+        }
+        return aDTOs(reservaRepository.findFilasPorCliente(clienteId));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ReservaDTO> listarReservasDTODesde(String cursor, Integer tamano, boolean conTotal) {
+        int limite = CursorPage.normalizarTamano(tamano);
+        Long ultimoId = Cursor.id(cursor);
+        List<FilaReserva> filas = reservaRepository.findFilasAnterioresA(
+                ultimoId != null ? ultimoId : Long.MAX_VALUE, CursorPage.ventana(limite));
+        CursorPage<FilaReserva> pagina = CursorPage.de(filas, limite, f -> Cursor.codificar(f.getId()),
+                conTotal ? reservaRepository.count() : null);
+        return new CursorPage<>(aDTOs(pagina.getContenido()), pagina.getSiguienteCursor(), pagina.isHayMas(),
+                pagina.getTotal());
+    }
+
+    private List<ReservaDTO> aDTOs(List<FilaReserva> filas) {
+        if (filas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = filas.stream().map(FilaReserva::getId).collect(Collectors.toList());
+        Map<Long, List<ServicioReservado>> serviciosPorReserva = new HashMap<>();
+        for (int desde = 0; desde < ids.size(); desde += LOTE_CONSULTA_IDS) {
+            List<Long> lote = ids.subList(desde, Math.min(ids.size(), desde + LOTE_CONSULTA_IDS));
+            for (ServicioReservado servicio : reservaRepository.findServiciosDeReservas(lote)) {
+                serviciosPorReserva.computeIfAbsent(servicio.getReservaId(), k -> new ArrayList<>()).add(servicio);
+            }
+        }
+        return filas.stream()
+                .map(fila -> aDTO(fila, serviciosPorReserva.getOrDefault(fila.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private static ReservaDTO aDTO(FilaReserva f, List<ServicioReservado> servicios) {
+        boolean conCliente = f.getClienteId() != null;
+        boolean conHabitacion = f.getHabitacionNumero() != null;
+        double totalServicios = servicios.stream()
+                .mapToDouble(s -> s.getPrecio() != null ? s.getPrecio() : 0.0)
+                .sum();
+        double total = (f.getTotalPagar() != null ? f.getTotalPagar() : 0.0) + totalServicios;
+        return ReservaDTO.builder()
+                .id(f.getId())
+                .clienteNombre(conCliente ? f.getClienteNombres() + " " + f.getClienteApellidos() : "Cliente Eliminado")
+                .habitacionNumero(conHabitacion ? f.getHabitacionNumero() : "N/A")
+                .habitacionTipo(conHabitacion ? f.getHabitacionTipo() : "")
+                .fechaInicio(f.getFechaInicio())
+                .fechaFin(f.getFechaFin())
+                .estadoReserva(f.getEstadoReserva())
+                .total(Math.max(0.0, total - (f.getMontoDescuento() != null ? f.getMontoDescuento() : 0.0)))
+                .servicios(servicios.stream().map(s -> s.getNombre() + " - S/." + s.getPrecio())
+                        .collect(Collectors.toList()))
+                .metodoPago(f.getPagoId() != null ? f.getPagoMetodo()
+                        : (EstadoReserva.PENDIENTE.getValor().equals(f.getEstadoReserva()) ? "Por definir"
+                                : "En efectivo"))
+                .montoDescuento(f.getMontoDescuento())
+                .clienteDni(conCliente ? f.getClienteDni() : "")
+                .clienteEmail(conCliente ? f.getClienteEmail() : "")
+                .diasEstadia(f.getDiasEstadia())
+                .habitacionPrecio(conHabitacion && f.getHabitacionPrecio() != null ? f.getHabitacionPrecio() : 0.0)
+                .fechaSalidaReal(f.getFechaSalidaReal())
+                .cliente(conCliente ? ReservaDTO.ClienteSummary.builder()
+                        .nombres(f.getClienteNombres())
+                        .apellidos(f.getClienteApellidos())
+                        .dni(f.getClienteDni())
+                        .email(f.getClienteEmail())
+                        .telefono(f.getClienteTelefono())
+                        .build() : null)
+                .habitacion(conHabitacion ? ReservaDTO.HabitacionSummary.builder()
+                        .numero(f.getHabitacionNumero())
+                        .tipo(f.getHabitacionTipo())
+                        .precioPorNoche(f.getHabitacionPrecio())
+                        .build() : null)
+                .version(f.getVersion())
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public Optional<Reserva> buscarReservaPorId(Long id) {
         if (id == null) {
@@ -133,10 +277,7 @@ public class ReservaService {
         if (clienteId == null) {
             return new ArrayList<>();
         }
-        List<Reserva> todas = reservaRepository.findAll();
-        return todas.stream()
-                .filter(r -> r.getCliente() != null && Objects.equals(r.getCliente().getId(), clienteId))
-                .collect(Collectors.toList());
+        return reservaRepository.findByClienteIdOrderByIdAsc(clienteId);
     }
 
     @Transactional(readOnly = true)
@@ -153,6 +294,8 @@ public class ReservaService {
                     validarCancelacion(reserva, userRole);
                     reserva.setEstadoReserva(EstadoReserva.CANCELADA.getValor());
                     Reserva reservaCancelada = reservaRepository.save(reserva);
+                    contabilizarIngreso(reservaCancelada);
+                    registrarInventario(reservaCancelada);
 
                     liberarHabitacion(reservaCancelada);
                     registrarAuditoriaCancelacion(reservaCancelada, userRole);
@@ -181,6 +324,8 @@ public class ReservaService {
                     reserva.setEstadoReserva(EstadoReserva.ARCHIVADA.getValor());
                     liberarHabitacion(reserva); 
                     reservaRepository.save(reserva);
+                    contabilizarIngreso(reserva);
+                    registrarInventario(reserva);
 
                     auditoriaService.registrarAccion("ARCHIVADO_RESERVA",
                             "Reserva (ID: " + id + ") archivada (eliminación lógica). Mantiene historial financiero.",
@@ -210,6 +355,8 @@ public class ReservaService {
             }
 
             reservaRepository.save(reserva);
+            contabilizarIngreso(reserva);
+            registrarInventario(reserva);
             liberarHabitacion(reserva);
 
             auditoriaService.registrarAccion("FINALIZACION_RESERVA",
@@ -220,21 +367,21 @@ public class ReservaService {
         });
     }
 
+    @Timed(value = "hotel.reservas.checkin", description = "Latencia del check-in", histogram = true)
     @Transactional
     public void realizarCheckIn(Long id) {
         reservaRepository.findById(id).ifPresent(reserva -> {
             reserva.setEstadoReserva(EstadoReserva.ACTIVA.getValor());
             reserva.setFechaCheckinReal(LocalDate.now());
             reservaRepository.save(reserva);
+            contabilizarIngreso(reserva);
 
             if (reserva.getHabitacion() != null) {
                 habitacionService.actualizarEstadoHabitacion(reserva.getHabitacion().getId(),
                         EstadoHabitacion.OCUPADA.getValor());
             }
 
-            if (notificacionService != null) {
-                crearNotificacionCheckIn(reserva);
-            }
+            crearNotificacionCheckIn(reserva);
 
             auditoriaService.registrarAccion("CHECK_IN",
                     "Check-in realizado para reserva ID: " + id, "Reserva", id);
@@ -242,18 +389,19 @@ public class ReservaService {
         });
     }
 
+    @Timed(value = "hotel.reservas.checkout", description = "Latencia del check-out", histogram = true)
     @Transactional
     public void realizarCheckOut(Long id) {
         reservaRepository.findById(id).ifPresent(reserva -> {
             reserva.setEstadoReserva(EstadoReserva.FINALIZADA.getValor());
             reserva.setFechaSalidaReal(LocalDate.now());
             reservaRepository.save(reserva);
+            contabilizarIngreso(reserva);
+            registrarInventario(reserva);
 
             liberarHabitacion(reserva);
 
-            if (notificacionService != null) {
-                crearNotificacionCheckOut(reserva);
-            }
+            crearNotificacionCheckOut(reserva);
 
             auditoriaService.registrarAccion("CHECK_OUT",
                     "Check-out realizado para reserva ID: " + id, "Reserva", id);
@@ -274,47 +422,12 @@ public class ReservaService {
 
     @Transactional(readOnly = true)
     public double calcularIngresosTotales() {
-        List<Reserva> reservas = reservaRepository.findAll();
-        
-        return reservas.stream()
-                .filter(r -> EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        EstadoReserva.ACTIVA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        EstadoReserva.ARCHIVADA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        (EstadoReserva.PENDIENTE.getValor().equalsIgnoreCase(r.getEstadoReserva())
-                                && r.getPago() != null && "COMPLETADO".equalsIgnoreCase(r.getPago().getEstado())))
-                .mapToDouble(r -> {
-                    double base = r.getTotalPagar() != null ? r.getTotalPagar() : 0.0;
-                    double servicios = r.calcularTotalServicios();
-                    double descuento = r.getMontoDescuento() != null ? r.getMontoDescuento() : 0.0;
-                    return Math.max(0, base + servicios - descuento);
-                })
-                .sum();
+        return libroIngresosService.totalAcumulado();
     }
 
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getIngresosPorPeriodo(LocalDate inicio, LocalDate fin) {
-        List<Reserva> reservas = reservaRepository.findAll();
-        Map<LocalDate, Double> ingresosPorFecha = new TreeMap<>();
-
-        LocalDate fecha = inicio;
-        while (!fecha.isAfter(fin)) {
-            ingresosPorFecha.put(fecha, 0.0);
-            fecha = fecha.plusDays(1);
-        }
-
-        reservas.stream()
-                .filter(r -> EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        EstadoReserva.ACTIVA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        EstadoReserva.ARCHIVADA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        (EstadoReserva.PENDIENTE.getValor().equalsIgnoreCase(r.getEstadoReserva())
-                                && r.getPago() != null
-                                && "COMPLETADO".equalsIgnoreCase(r.getPago().getEstado())))
-                .forEach(r -> {
-                    LocalDate fechaIngreso = r.getFechaSalidaReal() != null ? r.getFechaSalidaReal() : r.getFechaFin();
-                    if (fechaIngreso != null && !fechaIngreso.isBefore(inicio) && !fechaIngreso.isAfter(fin)) {
-                        ingresosPorFecha.merge(fechaIngreso, r.calcularTotalConDescuento(), Double::sum);
-                    }
-                });
+        Map<LocalDate, Double> ingresosPorFecha = libroIngresosService.ingresosPorDia(inicio, fin);
 
         return ingresosPorFecha.entrySet().stream()
                 .map(e -> {
@@ -328,30 +441,17 @@ public class ReservaService {
 
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getOcupacionDiariaPorPeriodo(LocalDate inicio, LocalDate fin) {
-        List<Reserva> reservas = reservaRepository.findAll();
-        Map<LocalDate, Long> ocupacionPorFecha = new TreeMap<>();
-
-        LocalDate fecha = inicio;
-        while (!fecha.isAfter(fin)) {
-            final LocalDate current = fecha;
-            long ocupadas = reservas.stream()
-                    .filter(r -> (EstadoReserva.ACTIVA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                            EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(r.getEstadoReserva())))
-                    .filter(r -> !r.getFechaInicio().isAfter(current) && r.getFechaFin().isAfter(current))
-                    .count();
-
-            ocupacionPorFecha.put(fecha, ocupadas);
-            fecha = fecha.plusDays(1);
+        long[] ocupacion = calendarioOcupacionService.contarPorDia(CalendarioOcupacionService.Capa.OCUPACION,
+                inicio, fin);
+
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        for (int i = 0; i < ocupacion.length; i++) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("fecha", inicio.plusDays(i).toString());
+            map.put("ocupacion", ocupacion[i]);
+            resultado.add(map);
         }
-
-        return ocupacionPorFecha.entrySet().stream()
-                .map(e -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("fecha", e.getKey().toString());
-                    map.put("ocupacion", e.getValue());
-                    return map;
-                })
-                .collect(Collectors.toList());
+        return resultado;
     }
 
     @Transactional(readOnly = true)
@@ -414,12 +514,8 @@ public class ReservaService {
 
     @Transactional(readOnly = true)
     public long contarHabitacionesReservadas() {
-        return reservaRepository.findAll().stream()
-                .filter(r -> EstadoReserva.ACTIVA.getValor().equalsIgnoreCase(r.getEstadoReserva()) ||
-                        EstadoReserva.PENDIENTE.getValor().equalsIgnoreCase(r.getEstadoReserva()))
-                .map(r -> r.getHabitacion().getId())
-                .distinct()
-                .count();
+        return calendarioOcupacionService.contarHabitaciones(CalendarioOcupacionService.Capa.RESERVA,
+                LocalDate.now());
     }
 
     @Transactional(readOnly = true)
@@ -446,33 +542,31 @@ public class ReservaService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Long> contarReservasPorEstadoDeCliente(String username) {
+        Map<String, Long> conteo = new HashMap<>();
+        if (username == null) {
+            return conteo;
+        }
+        for (Object[] fila : reservaRepository.contarPorEstadoDeUsuario(username)) {
+            conteo.merge(fila[0] != null ? (String) fila[0] : "", ((Number) fila[1]).longValue(), Long::sum);
+        }
+        return conteo;
+    }
+
     @Transactional(readOnly = true)
     public long contarReservasPorCliente(String username) {
-        List<Reserva> todas = reservaRepository.findAll();
-        return todas.stream()
-                .filter(r -> r.getCliente() != null && r.getCliente().getUsuario() != null)
-                .filter(r -> username.equals(r.getCliente().getUsuario().getUsername()))
-                .count();
+        return contarReservasPorEstadoDeCliente(username).values().stream().mapToLong(Long::longValue).sum();
     }
 
     @Transactional(readOnly = true)
     public long contarReservasActivasPorCliente(String username) {
-        List<Reserva> todas = reservaRepository.findAll();
-        return todas.stream()
-                .filter(r -> r.getCliente() != null && r.getCliente().getUsuario() != null)
-                .filter(r -> username.equals(r.getCliente().getUsuario().getUsername()))
-                .filter(r -> EstadoReserva.ACTIVA.getValor().equalsIgnoreCase(r.getEstadoReserva()))
-                .count();
+        return contarReservasPorEstadoDeCliente(username).getOrDefault(EstadoReserva.ACTIVA.getValor(), 0L);
     }
 
     @Transactional(readOnly = true)
     public long contarReservasFinalizadasPorCliente(String username) {
-        List<Reserva> todas = reservaRepository.findAll();
-        return todas.stream()
-                .filter(r -> r.getCliente() != null && r.getCliente().getUsuario() != null)
-                .filter(r -> username.equals(r.getCliente().getUsuario().getUsername()))
-                .filter(r -> EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(r.getEstadoReserva()))
-                .count();
+        return contarReservasPorEstadoDeCliente(username).getOrDefault(EstadoReserva.FINALIZADA.getValor(), 0L);
     }
 
     @Transactional(readOnly = true)
@@ -480,12 +574,7 @@ public class ReservaService {
         LocalDate hoy = LocalDate.now();
         LocalDate inicio = hoy.minusDays(dias - 1);
 
-        List<Reserva> reservas = reservaRepository.findAll();
-        double total = reservas.stream()
-                .filter(r -> r.getFechaSalidaReal() != null)
-                .filter(r -> !r.getFechaSalidaReal().isBefore(inicio))
-                .mapToDouble(Reserva::calcularTotalConDescuento)
-                .sum();
+        double total = libroIngresosService.totalEntre(inicio, hoy);
 
         Map<String, Object> resultado = new HashMap<>();
         resultado.put("total", total);
@@ -507,6 +596,7 @@ public class ReservaService {
             }
             reserva.setServicios(servicios);
             reservaRepository.save(reserva);
+            contabilizarIngreso(reserva);
 
             auditoriaService.registrarAccion("ASIGNACION_SERVICIOS",
                     "Servicios asignados a reserva ID: " + reservaId, "Reserva", reservaId);
@@ -531,29 +621,19 @@ public class ReservaService {
         }
     }
 
-    private void verificarDisponibilidadFechas(Long habitacionId, Reserva reserva, Long reservaId) {
-        List<Reserva> reservasExistentes = reservaRepository.findAll().stream()
-                .filter(r -> r.getHabitacion() != null && r.getHabitacion().getId().equals(habitacionId))
-                .filter(r -> reservaId == null || !r.getId().equals(reservaId))
-                .filter(r -> !EstadoReserva.CANCELADA.getValor().equalsIgnoreCase(r.getEstadoReserva()))
-                .collect(Collectors.toList());
-
-        for (Reserva r : reservasExistentes) {
-
-            LocalDate finEfectivo = r.getFechaFin();
-            if (EstadoReserva.FINALIZADA.getValor().equalsIgnoreCase(r.getEstadoReserva())
-                    && r.getFechaSalidaReal() != null) {
-                finEfectivo = r.getFechaSalidaReal();
-            }
-
-            if (reserva.getFechaInicio().isBefore(finEfectivo) &&
-                    reserva.getFechaFin().isAfter(r.getFechaInicio())) {
-                throw new IllegalArgumentException(
-                        "La habitación ya está reservada en las fechas seleccionadas");
-            }
+    // Sin consultar el índice en memoria: es local a cada nodo y en clúster puede no ver cancelaciones de otros
+    private void confirmarDisponibilidadConBloqueo(Long habitacionId, Reserva reserva, Long reservaId) {
+        if (!libreBajoBloqueo(habitacionId, reserva.getFechaInicio(), reserva.getFechaFin(), reservaId)) {
+            throw new IllegalArgumentException(
+                    "La habitación ya está reservada en las fechas seleccionadas");
         }
     }
 
+    private boolean libreBajoBloqueo(Long habitacionId, LocalDate inicio, LocalDate fin, Long reservaId) {
+        habitacionService.bloquearParaReserva(habitacionId);
+        return reservaRepository.findSolapadasParaReservar(habitacionId, inicio, fin, reservaId).isEmpty();
+    }
+
     private void actualizarEstadoHabitacionSegunReserva(Reserva reserva) {
 
         LocalDate hoy = LocalDate.now();
@@ -566,6 +646,14 @@ public class ReservaService {
         }
     }
 
+    private void contabilizarIngreso(Reserva reserva) {
+        libroIngresosService.contabilizar(reserva);
+    }
+
+    private void registrarInventario(Reserva reserva) {
+        inventarioTipoService.registrar(reserva);
+    }
+
     private void liberarHabitacion(Reserva reserva) {
         if (reserva.getHabitacion() != null && reserva.getHabitacion().getId() != null) {
             habitacionService.actualizarEstadoHabitacion(reserva.getHabitacion().getId(),
@@ -645,7 +733,8 @@ public class ReservaService {
                             reserva.getTotalPagar());
                 }
 
-                emailService.enviarEmail(destinatario, asunto, mensaje);
+                outboxService.encolarEmail("reserva-confirmacion-" + reserva.getId(),
+                        emailService.crearMensaje(destinatario, asunto, mensaje));
             } catch (Exception e) {
                 logger.warn("No se pudo enviar email de confirmación: {}", e.getMessage());
             }
@@ -658,14 +747,14 @@ public class ReservaService {
 
             String mensajeStaff = "Nueva reserva creada: " + nombreCliente + " - Habitación "
                     + reserva.getHabitacion().getNumero();
-            notificacionService.crearNotificacion("Nueva Reserva", mensajeStaff, "INFORMACION", "STAFF");
+            outboxService.encolarNotificacion("reserva-nueva-staff-" + reserva.getId(), "Nueva Reserva", mensajeStaff, "INFORMACION", "STAFF");
 
             if (reserva.getCliente().getUsuario() != null) {
                 String usernameCliente = reserva.getCliente().getUsuario().getUsername();
                 String mensajeCliente = "Tu reserva para la habitación " + reserva.getHabitacion().getNumero()
                         + " ha sido confirmada.";
-                notificacionService.crearNotificacion("Reserva Confirmada", mensajeCliente, "PERSONAL",
-                        usernameCliente);
+                outboxService.encolarNotificacion("reserva-nueva-cliente-" + reserva.getId(), "Reserva Confirmada",
+                        mensajeCliente, "PERSONAL", usernameCliente);
             }
         }
     }
@@ -676,7 +765,8 @@ public class ReservaService {
 
             String mensaje = "Check-in realizado: " + nombreCliente + " - Habitación "
                     + reserva.getHabitacion().getNumero();
-            notificacionService.crearNotificacion("Check-In Realizado", mensaje, "INFORMACION", "STAFF");
+            outboxService.encolarNotificacion("reserva-checkin-" + reserva.getId(), "Check-In Realizado", mensaje,
+                    "INFORMACION", "STAFF");
         }
     }
 
@@ -686,12 +776,14 @@ public class ReservaService {
 
             String mensaje = "Check-out realizado: " + nombreCliente + " - Habitación "
                     + reserva.getHabitacion().getNumero();
-            notificacionService.crearNotificacion("Check-Out Realizado", mensaje, "INFORMACION", "STAFF");
+            outboxService.encolarNotificacion("reserva-checkout-staff-" + reserva.getId(), "Check-Out Realizado",
+                    mensaje, "INFORMACION", "STAFF");
 
             if (reserva.getCliente().getUsuario() != null) {
                 String usernameCliente = reserva.getCliente().getUsuario().getUsername();
                 String mensajeCliente = "Gracias por tu visita. Tu Check-out se ha realizado correctamente.";
-                notificacionService.crearNotificacion("Check-out Exitoso", mensajeCliente, "PERSONAL", usernameCliente);
+                outboxService.encolarNotificacion("reserva-checkout-cliente-" + reserva.getId(), "Check-out Exitoso",
+                        mensajeCliente, "PERSONAL", usernameCliente);
             }
         }
     }
@@ -1,9 +1,14 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.enums.EstadoReserva;
 import com.gestion.hotelera.model.Reserva;
 import com.gestion.hotelera.repository.ReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -15,91 +20,127 @@ public class ScheduledEmailService {
 
     private static final Logger log = LoggerFactory.getLogger(ScheduledEmailService.class);
 
+    private static final int TAMANO_PAGINA = 200;
+    private static final String TAREA_RECORDATORIOS = "recordatorios_checkin";
+    private static final String TAREA_VENCIDAS = "verificacion_vencidas";
+    private static final String CRON_RECORDATORIOS = "0 0 9 * * ?";
+
     private final ReservaRepository reservaRepository;
     private final EmailService emailService;
+    private final MeterRegistry meterRegistry;
+    private final CoordinadorTareas coordinadorTareas;
 
-    public ScheduledEmailService(ReservaRepository reservaRepository, EmailService emailService) {
+    public ScheduledEmailService(ReservaRepository reservaRepository, EmailService emailService,
+            MeterRegistry meterRegistry, CoordinadorTareas coordinadorTareas) {
         this.reservaRepository = reservaRepository;
         this.emailService = emailService;
+        this.meterRegistry = meterRegistry;
+        this.coordinadorTareas = coordinadorTareas;
     }
 
-    @Scheduled(cron = "0 0 9 * * ?") 
+    @Scheduled(cron = CRON_RECORDATORIOS)
     public void enviarRecordatoriosCheckIn() {
+        coordinadorTareas.ejecutarPorTramos(TAREA_RECORDATORIOS, CRON_RECORDATORIOS, reservaRepository::findMaxId,
+                this::enviarRecordatorios);
+    }
+
+    @Scheduled(cron = "0 0 */6 * * ?") 
+    public void actualizarEstadosReservas() {
+        coordinadorTareas.ejecutar(TAREA_VENCIDAS, this::verificarVencidas);
+    }
+
+    private long enviarRecordatorios(long desdeId, long hastaId) {
         log.info("=== INICIANDO ENVÍO DE RECORDATORIOS DE CHECK-IN ===");
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        int leidas = 0;
+        int enviados = 0;
 
         try {
             LocalDate manana = LocalDate.now().plusDays(1);
-
-            List<Reserva> reservasMaana = reservaRepository.findAll().stream()
-                    .filter(r -> "PENDIENTE".equalsIgnoreCase(r.getEstadoReserva()))
-                    .filter(r -> r.getFechaInicio() != null && r.getFechaInicio().equals(manana))
-                    .filter(r -> r.getCliente() != null && r.getCliente().getEmail() != null)
-                    .toList();
-
-            log.info("Se encontraron {} reservas con check-in mañana ({})",
-                    reservasMaana.size(), manana);
-
-            int enviados = 0;
-            for (Reserva reserva : reservasMaana) {
-                try {
-                    String to = reserva.getCliente().getEmail();
-                    if (to != null && !to.trim().isEmpty()) {
-                        String nombre = reserva.getCliente().getNombres();
-                        String numeroReserva = String.valueOf(reserva.getId());
-                        String fechaCheckIn = reserva.getFechaInicio().toString();
-                        String habitacion = reserva.getHabitacion() != null
-                                ? reserva.getHabitacion().getNumero()
-                                : "Por asignar";
-
-                        emailService.enviarRecordatorioCheckIn(to, nombre, numeroReserva,
-                                fechaCheckIn, habitacion);
-                        enviados++;
-
-                        log.info("Recordatorio enviado a {} para reserva #{}", to, numeroReserva);
+            List<String> estados = List.of(EstadoReserva.PENDIENTE.getValor());
+
+            long ultimoId = desdeId;
+            List<Reserva> pagina;
+            do {
+                pagina = reservaRepository.findLlegadasConClienteEntre(manana, estados, ultimoId, hastaId,
+                        PageRequest.of(0, TAMANO_PAGINA));
+                leidas += pagina.size();
+
+                for (Reserva reserva : pagina) {
+                    ultimoId = reserva.getId();
+                    try {
+                        String to = reserva.getCliente().getEmail();
+                        if (to != null && !to.trim().isEmpty()) {
+                            String nombre = reserva.getCliente().getNombres();
+                            String numeroReserva = String.valueOf(reserva.getId());
+                            String fechaCheckIn = reserva.getFechaInicio().toString();
+                            String habitacion = reserva.getHabitacion() != null
+                                    ? reserva.getHabitacion().getNumero()
+                                    : "Por asignar";
+
+                            emailService.enviarRecordatorioCheckIn(to, nombre, numeroReserva,
+                                    fechaCheckIn, habitacion);
+                            enviados++;
+
+                            log.info("Recordatorio encolado para {} (reserva #{})", to, numeroReserva);
+                        }
+                    } catch (Exception e) {
+                        log.error("Error al enviar recordatorio para reserva #{}",
+                                reserva.getId(), e);
                     }
-                } catch (Exception e) {
-                    log.error("Error al enviar recordatorio para reserva #{}",
-                            reserva.getId(), e);
                 }
-            }
+            } while (pagina.size() == TAMANO_PAGINA);
 
-            log.info("=== RECORDATORIOS COMPLETADOS: {}/{} enviados ===",
-                    enviados, reservasMaana.size());
-
-        } catch (Exception e) {
-            log.error("Error en la tarea programada de recordatorios", e);
+            log.info("=== RECORDATORIOS COMPLETADOS: {}/{} enviados (check-in {}) ===",
+                    enviados, leidas, manana);
+            return enviados;
+        } finally {
+            registrarMetricas(TAREA_RECORDATORIOS, muestra, leidas, enviados);
         }
     }
 
-    @Scheduled(cron = "0 0 */6 * * ?") 
-    public void actualizarEstadosReservas() {
+    private long verificarVencidas() {
         log.info("=== VERIFICANDO ESTADOS DE RESERVAS ===");
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        int vencidas = 0;
 
         try {
             LocalDate hoy = LocalDate.now();
+            List<String> estados = List.of(EstadoReserva.ACTIVA.getValor(), EstadoReserva.PENDIENTE.getValor());
 
-            List<Reserva> reservasVencidas = reservaRepository.findAll().stream()
-                    .filter(r -> "ACTIVA".equalsIgnoreCase(r.getEstadoReserva()) ||
-                            "PENDIENTE".equalsIgnoreCase(r.getEstadoReserva()))
-                    .filter(r -> r.getFechaFin() != null && r.getFechaFin().isBefore(hoy))
-                    .toList();
-
-            if (!reservasVencidas.isEmpty()) {
-                log.warn("Se encontraron {} reservas vencidas que deberían estar finalizadas",
-                        reservasVencidas.size());
+            long ultimoId = 0L;
+            List<IntervaloReserva> pagina;
+            do {
+                pagina = reservaRepository.findVencidasDesde(hoy, estados, ultimoId,
+                        PageRequest.of(0, TAMANO_PAGINA));
+                vencidas += pagina.size();
 
-                for (Reserva reserva : reservasVencidas) {
+                for (IntervaloReserva reserva : pagina) {
+                    ultimoId = reserva.getId();
                     log.warn("Reserva #{} vencida: fecha fin {} pero estado '{}'",
                             reserva.getId(),
                             reserva.getFechaFin(),
                             reserva.getEstadoReserva());
                 }
+            } while (pagina.size() == TAMANO_PAGINA);
+
+            if (vencidas > 0) {
+                log.warn("Se encontraron {} reservas vencidas que deberían estar finalizadas", vencidas);
             }
 
             log.info("=== VERIFICACIÓN COMPLETADA ===");
-
-        } catch (Exception e) {
-            log.error("Error en la tarea de verificación de estados", e);
+            return vencidas;
+        } finally {
+            registrarMetricas(TAREA_VENCIDAS, muestra, vencidas, 0);
         }
     }
+
+    private void registrarMetricas(String tarea, Timer.Sample muestra, int filasLeidas, int emailsEncolados) {
+        muestra.stop(Timer.builder("hotel.tareas.duracion")
+                .description("Duración de las tareas programadas de reservas")
+                .tag("tarea", tarea)
+                .register(meterRegistry));
+        meterRegistry.counter("hotel.tareas.filas.leidas", "tarea", tarea).increment(filasLeidas);
+        meterRegistry.counter("hotel.tareas.emails.encolados", "tarea", tarea).increment(emailsEncolados);
+    }
 }
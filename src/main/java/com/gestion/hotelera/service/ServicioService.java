@@ -1,7 +1,11 @@
 package com.gestion.hotelera.service;
 
+import com.gestion.hotelera.config.CacheConfig;
 import com.gestion.hotelera.model.Servicio;
 import com.gestion.hotelera.repository.ServicioRepository;
+import org.hibernate.Hibernate;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,12 +25,21 @@ public class ServicioService {
         this.auditoriaService = auditoriaService;
     }
 
+    @Cacheable(cacheNames = CacheConfig.SERVICIOS, key = "'activos'")
+    @Transactional(readOnly = true)
     public List<Servicio> listarServiciosActivos() {
-        return servicioRepository.findByActivoTrue();
+        return inicializarOpciones(servicioRepository.findByActivoTrue());
     }
 
+    @Cacheable(cacheNames = CacheConfig.SERVICIOS, key = "'todos'")
+    @Transactional(readOnly = true)
     public List<Servicio> listarTodos() {
-        return servicioRepository.findAll();
+        return inicializarOpciones(servicioRepository.findAll());
+    }
+
+    private static List<Servicio> inicializarOpciones(List<Servicio> servicios) {
+        servicios.forEach(servicio -> Hibernate.initialize(servicio.getOpciones()));
+        return servicios;
     }
 
     public Optional<Servicio> buscarPorId(Long id) {
@@ -40,6 +53,7 @@ public class ServicioService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SERVICIOS, allEntries = true)
     @Transactional
     public Servicio guardar(Servicio servicio) {
         try {
@@ -69,6 +83,7 @@ public class ServicioService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SERVICIOS, allEntries = true)
     @Transactional
     public void eliminar(Long id) {
         if (id == null || id <= 0) {
@@ -96,20 +111,25 @@ public class ServicioService {
         return servicioRepository.findAllById(ids);
     }
 
+    @Cacheable(cacheNames = CacheConfig.SERVICIOS, key = "'todos'")
+    @Transactional(readOnly = true)
     public List<Servicio> obtenerTodosLosServicios() {
         return listarTodos();
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SERVICIOS, allEntries = true)
     @Transactional
     public void crearServicio(Servicio servicio) {
         guardar(servicio);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SERVICIOS, allEntries = true)
     @Transactional
     public void actualizarServicio(Servicio servicio) {
         guardar(servicio);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SERVICIOS, allEntries = true)
     @Transactional
     public void eliminarServicio(Long id) {
         eliminar(id);
@@ -1,150 +1,203 @@
 package com.gestion.hotelera.service;
 
-import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.enums.EstadoReserva;
+import com.gestion.hotelera.event.ReservaCambioEvent;
 import com.gestion.hotelera.repository.ReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class TareaProgramadaService {
 
     private static final Logger logger = LoggerFactory.getLogger(TareaProgramadaService.class);
 
+    private static final int TAMANO_LOTE = 500;
+    private static final String TRANSICION_FINALIZAR = "finalizar_reservas";
+    private static final String TRANSICION_ACTIVAR = "activar_reservas";
+    private static final String TRANSICION_HABITACIONES = "conciliar_habitaciones";
+    private static final String TAREA_SINCRONIZACION = "sincronizacion_reservas";
+    private static final String TAREA_LIMPIEZA = "limpieza_diaria";
+
     private final ReservaRepository reservaRepository;
     private final HabitacionService habitacionService;
+    private final LibroIngresosService libroIngresosService;
+    private final AuditoriaService auditoriaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final CoordinadorTareas coordinadorTareas;
+    private final TransactionTemplate transaccion;
 
     public TareaProgramadaService(ReservaRepository reservaRepository,
-            HabitacionService habitacionService) {
+            HabitacionService habitacionService,
+            LibroIngresosService libroIngresosService,
+            AuditoriaService auditoriaService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            CoordinadorTareas coordinadorTareas,
+            PlatformTransactionManager transactionManager) {
         this.reservaRepository = reservaRepository;
         this.habitacionService = habitacionService;
+        this.libroIngresosService = libroIngresosService;
+        this.auditoriaService = auditoriaService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.coordinadorTareas = coordinadorTareas;
+        this.transaccion = new TransactionTemplate(transactionManager);
     }
 
-    @Scheduled(fixedRate = 3600000) 
-    @Transactional
+    @Scheduled(cron = "${app.tareas.sincronizacion.cron:0 0 * * * ?}")
     public void sincronizarReservasYHabitaciones() {
-        try {
-            LocalDate hoy = LocalDate.now();
-            logger.info("Iniciando sincronización de reservas y habitaciones - Fecha actual: {}", hoy);
-
-            List<Reserva> reservasParaFinalizar = reservaRepository.findAll().stream()
-                    .filter(r -> (r.getEstadoReserva().equals("ACTIVA") || r.getEstadoReserva().equals("PENDIENTE")) &&
-                            r.getFechaFin() != null &&
-                            r.getFechaFin().isBefore(hoy))
-                    .toList();
-
-            int reservasFinalizadas = 0;
-            for (Reserva reserva : reservasParaFinalizar) {
-                try {
-                    reserva.setEstadoReserva("FINALIZADA");
-                    reservaRepository.save(reserva);
-
-                    if (reserva.getHabitacion() != null && habitacionService != null) {
-                        habitacionService.actualizarEstadoHabitacion(
-                                reserva.getHabitacion().getId(),
-                                "DISPONIBLE");
-                    }
-
-                    reservasFinalizadas++;
-                    logger.info("Reserva ID {} finalizada automáticamente (fecha fin: {})",
-                            reserva.getId(), reserva.getFechaFin());
-                } catch (Exception e) {
-                    logger.error("Error al finalizar reserva ID {}: {}", reserva.getId(), e.getMessage());
-                }
-            }
-
-            List<Reserva> reservasParaActivar = reservaRepository.findAll().stream()
-                    .filter(r -> r.getEstadoReserva().equals("PENDIENTE") &&
-                            r.getFechaInicio() != null &&
-                            (r.getFechaInicio().isBefore(hoy) || r.getFechaInicio().equals(hoy)))
-                    .toList();
-
-            int reservasActivadas = 0;
-            for (Reserva reserva : reservasParaActivar) {
-                try {
-                    reserva.setEstadoReserva("ACTIVA");
-                    reservaRepository.save(reserva);
-
-                    if (reserva.getHabitacion() != null && habitacionService != null) {
-                        habitacionService.actualizarEstadoHabitacion(
-                                reserva.getHabitacion().getId(),
-                                "OCUPADA");
-                    }
-
-                    reservasActivadas++;
-                    logger.info("Reserva ID {} activada automáticamente (fecha inicio: {})",
-                            reserva.getId(), reserva.getFechaInicio());
-                } catch (Exception e) {
-                    logger.error("Error al activar reserva ID {}: {}", reserva.getId(), e.getMessage());
-                }
-            }
-
-            sincronizarEstadosHabitaciones();
-
-            logger.info("Sincronización completada - Finalizadas: {}, Activadas: {}",
-                    reservasFinalizadas, reservasActivadas);
-
-        } catch (Exception e) {
-            logger.error("Error en la sincronización de reservas y habitaciones: {}", e.getMessage(), e);
-        }
+        coordinadorTareas.ejecutar(TAREA_SINCRONIZACION, () -> transaccion.execute(estado -> sincronizar()));
     }
 
     @Scheduled(cron = "0 0 2 * * ?") 
-    @Transactional
     public void limpiezaDiariaReservasYHabitaciones() {
-        try {
+        coordinadorTareas.ejecutar(TAREA_LIMPIEZA, () -> transaccion.execute(estado -> {
             logger.info("Iniciando limpieza diaria de reservas y habitaciones - {}", LocalDateTime.now());
-            sincronizarReservasYHabitaciones();
-            sincronizarEstadosHabitaciones();
+            long filas = sincronizar() + conciliarHabitaciones(LocalDate.now());
             logger.info("Limpieza diaria completada");
-        } catch (Exception e) {
-            logger.error("Error en la limpieza diaria: {}", e.getMessage(), e);
-        }
+            return filas;
+        }));
     }
 
     @Transactional
     public void sincronizarEstadosHabitaciones() {
-        if (habitacionService == null) {
-            return;
+        try {
+            conciliarHabitaciones(LocalDate.now());
+        } catch (Exception e) {
+            logger.error("Error al sincronizar estados de habitaciones: {}", e.getMessage(), e);
+        }
+    }
+
+    private long sincronizar() {
+        LocalDate hoy = LocalDate.now();
+        logger.info("Iniciando sincronización de reservas y habitaciones - Fecha actual: {}", hoy);
+
+        int reservasFinalizadas = finalizarReservasVencidas(hoy);
+        int reservasActivadas = activarReservasIniciadas(hoy);
+        int habitacionesConciliadas = conciliarHabitaciones(hoy);
+
+        if (reservasFinalizadas + reservasActivadas + habitacionesConciliadas > 0) {
+            auditoriaService.registrarAccion("SINCRONIZACION_RESERVAS",
+                    "Sincronización automática: " + reservasFinalizadas + " reservas finalizadas, "
+                            + reservasActivadas + " reservas activadas, "
+                            + habitacionesConciliadas + " habitaciones conciliadas",
+                    "Reserva", null);
+        }
+
+        logger.info("Sincronización completada - Finalizadas: {}, Activadas: {}, Habitaciones: {}",
+                reservasFinalizadas, reservasActivadas, habitacionesConciliadas);
+        return (long) reservasFinalizadas + reservasActivadas + habitacionesConciliadas;
+    }
+
+    private int finalizarReservasVencidas(LocalDate hoy) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        List<String> estados = List.of(EstadoReserva.ACTIVA.getValor(), EstadoReserva.PENDIENTE.getValor());
+        String nuevoEstado = EstadoReserva.FINALIZADA.getValor();
+        int total = 0;
+        try {
+            long ultimoId = 0L;
+            List<IntervaloReserva> lote;
+            do {
+                lote = reservaRepository.findVencidasDesde(hoy, estados, ultimoId, PageRequest.of(0, TAMANO_LOTE));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                ultimoId = lote.get(lote.size() - 1).getId();
+                int actualizadas = reservaRepository.finalizarVencidas(ids(lote), estados, hoy, nuevoEstado);
+                total += actualizadas;
+                publicarCambios(lote, nuevoEstado, actualizadas);
+            } while (lote.size() == TAMANO_LOTE);
+            return total;
+        } finally {
+            registrarMetricas(TRANSICION_FINALIZAR, muestra, total);
         }
+    }
 
+    private int activarReservasIniciadas(LocalDate hoy) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        List<String> estados = List.of(EstadoReserva.PENDIENTE.getValor());
+        String nuevoEstado = EstadoReserva.ACTIVA.getValor();
+        int total = 0;
         try {
-            LocalDate hoy = LocalDate.now();
-
-            var todasHabitaciones = habitacionService.obtenerTodasLasHabitaciones();
-
-            List<Reserva> reservasActivas = reservaRepository.findAll().stream()
-                    .filter(r -> (r.getEstadoReserva().equals("ACTIVA") || r.getEstadoReserva().equals("PENDIENTE")) &&
-                            r.getHabitacion() != null &&
-                            r.getFechaInicio() != null &&
-                            r.getFechaFin() != null)
-                    .toList();
-
-            for (var habitacion : todasHabitaciones) {
-                boolean deberiaEstarOcupada = reservasActivas.stream()
-                        .anyMatch(r -> r.getHabitacion().getId().equals(habitacion.getId())
-                                && ("ACTIVA".equalsIgnoreCase(r.getEstadoReserva()) ||
-                                        ("PENDIENTE".equalsIgnoreCase(r.getEstadoReserva()) &&
-                                                !r.getFechaInicio().isAfter(hoy) &&
-                                                !r.getFechaFin().isBefore(hoy))));
-
-                String estadoActual = habitacion.getEstado();
-                String estadoEsperado = deberiaEstarOcupada ? "OCUPADA" : "DISPONIBLE";
-
-                if (!estadoActual.equals(estadoEsperado) && !"MANTENIMIENTO".equalsIgnoreCase(estadoActual)) {
-                    habitacionService.actualizarEstadoHabitacion(habitacion.getId(), estadoEsperado);
-                    logger.debug("Habitación {} sincronizada: {} -> {}",
-                            habitacion.getNumero(), estadoActual, estadoEsperado);
+            long ultimoId = 0L;
+            List<IntervaloReserva> lote;
+            do {
+                lote = reservaRepository.findIniciadasDesde(hoy, estados, ultimoId, PageRequest.of(0, TAMANO_LOTE));
+                if (lote.isEmpty()) {
+                    break;
                 }
+                ultimoId = lote.get(lote.size() - 1).getId();
+                int actualizadas = reservaRepository.activarIniciadas(ids(lote), estados, hoy, nuevoEstado);
+                total += actualizadas;
+                publicarCambios(lote, nuevoEstado, actualizadas);
+            } while (lote.size() == TAMANO_LOTE);
+            return total;
+        } finally {
+            registrarMetricas(TRANSICION_ACTIVAR, muestra, total);
+        }
+    }
+
+    private int conciliarHabitaciones(LocalDate hoy) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        int cambiadas = 0;
+        try {
+            cambiadas = habitacionService.conciliarEstadosHabitaciones(hoy);
+            return cambiadas;
+        } finally {
+            registrarMetricas(TRANSICION_HABITACIONES, muestra, cambiadas);
+        }
+    }
+
+    private void publicarCambios(List<IntervaloReserva> lote, String nuevoEstado, int actualizadas) {
+        List<IntervaloReserva> aplicadas = lote;
+        if (actualizadas != lote.size()) {
+            logger.warn("Transición a {}: {} de {} reservas cambiaron de estado durante la sincronización",
+                    nuevoEstado, lote.size() - actualizadas, lote.size());
+            // Las que otro proceso movió entre la lectura y el UPDATE no se tocaron: se publican solo las que
+            // quedaron en el nuevo estado
+            Set<Long> conNuevoEstado = new HashSet<>(reservaRepository.findIdsConEstado(ids(lote),
+                    nuevoEstado.toUpperCase()));
+            aplicadas = lote.stream().filter(r -> conNuevoEstado.contains(r.getId())).toList();
+        }
+        List<Long> pendientes = new ArrayList<>();
+        for (IntervaloReserva anterior : aplicadas) {
+            IntervaloReserva actual = new IntervaloReserva(anterior.getId(), anterior.getHabitacionId(),
+                    anterior.getFechaInicio(), anterior.getFechaFin(), anterior.getFechaSalidaReal(), nuevoEstado);
+            eventPublisher.publishEvent(new ReservaCambioEvent(anterior.getId(), anterior, actual));
+            if (EstadoReserva.PENDIENTE.getValor().equalsIgnoreCase(anterior.getEstadoReserva())) {
+                pendientes.add(anterior.getId());
             }
-        } catch (Exception e) {
-            logger.error("Error al sincronizar estados de habitaciones: {}", e.getMessage(), e);
         }
+        libroIngresosService.contabilizar(pendientes);
+    }
+
+    private static List<Long> ids(List<IntervaloReserva> lote) {
+        return lote.stream().map(IntervaloReserva::getId).toList();
+    }
+
+    private void registrarMetricas(String transicion, Timer.Sample muestra, int filasActualizadas) {
+        muestra.stop(Timer.builder("hotel.tareas.duracion")
+                .description("Duración de las tareas programadas de reservas")
+                .tag("tarea", transicion)
+                .register(meterRegistry));
+        meterRegistry.counter("hotel.tareas.filas.actualizadas", "tarea", transicion).increment(filasActualizadas);
     }
 }
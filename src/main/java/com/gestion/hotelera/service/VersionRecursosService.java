@@ -0,0 +1,127 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.config.CachesProperties;
+import com.gestion.hotelera.repository.VersionRecursoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class VersionRecursosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionRecursosService.class);
+
+    public enum Recurso {
+        CONFIGURACION, HABITACIONES, SERVICIOS, RESENAS
+    }
+
+    private final VersionRecursoRepository versionRecursoRepository;
+    private final TransactionTemplate nuevaTransaccion;
+    private final long vigenciaMs;
+    private final boolean condicional;
+    private final long inicio = segundoActual();
+    private final Map<Recurso, Sello> sellos = new ConcurrentHashMap<>();
+
+    // La versión de cada recurso se comparte en versiones_recursos y sube tras el commit del cambio. Cada nodo
+    // la reutiliza durante el max-age, el mismo plazo en el que el cliente ya sirve su copia sin preguntar
+    // @Lazy: el listener de entidades que marca los cambios se crea junto con el EntityManagerFactory
+    public VersionRecursosService(@Lazy VersionRecursoRepository versionRecursoRepository,
+            @Lazy PlatformTransactionManager transactionManager,
+            CachesProperties cachesProperties,
+            @Value("${app.cache.http-condicional:true}") boolean condicional) {
+        this.versionRecursoRepository = versionRecursoRepository;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.vigenciaMs = Math.max(0, cachesProperties.getHttpMaxAgeSegundos()) * 1000;
+        this.condicional = condicional;
+    }
+
+    public void marcarCambio(Recurso recurso) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementar(recurso);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                incrementar(recurso);
+            }
+        });
+    }
+
+    public boolean admiteCondicional() {
+        return condicional;
+    }
+
+    public long version(Recurso recurso) {
+        return sello(recurso).version();
+    }
+
+    public String etag(Recurso recurso) {
+        return "W/\"" + recurso.name().toLowerCase() + "-" + version(recurso) + "\"";
+    }
+
+    public long ultimaModificacion(Recurso recurso) {
+        return sello(recurso).modificado();
+    }
+
+    private Sello sello(Recurso recurso) {
+        Sello sello = sellos.get(recurso);
+        if (sello != null && System.currentTimeMillis() - sello.leidoEn() < vigenciaMs) {
+            return sello;
+        }
+        try {
+            sello = leer(recurso);
+            sellos.put(recurso, sello);
+        } catch (RuntimeException e) {
+            if (sello == null) {
+                throw e;
+            }
+            logger.warn("No se pudo releer la versión de {}, se mantiene la anterior: {}", recurso, e.getMessage());
+        }
+        return sello;
+    }
+
+    private void incrementar(Recurso recurso) {
+        long ahora = segundoActual();
+        try {
+            Sello sello = nuevaTransaccion.execute(estado -> {
+                if (versionRecursoRepository.incrementar(recurso.name(), ahora) == 0) {
+                    versionRecursoRepository.crearSiFalta(recurso.name(), ahora);
+                    versionRecursoRepository.incrementar(recurso.name(), ahora);
+                }
+                return leer(recurso);
+            });
+            if (sello != null) {
+                sellos.put(recurso, sello);
+            }
+        } catch (RuntimeException e) {
+            sellos.remove(recurso);
+            logger.warn("No se pudo registrar el cambio de {}: {}", recurso, e.getMessage());
+        }
+    }
+
+    private Sello leer(Recurso recurso) {
+        long ahora = System.currentTimeMillis();
+        return versionRecursoRepository.findById(recurso.name())
+                .map(v -> new Sello(v.getVersion(), v.getModificado(), ahora))
+                .orElseGet(() -> new Sello(0L, inicio, ahora));
+    }
+
+    private static long segundoActual() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    private record Sello(long version, long modificado, long leidoEn) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.gestion.hotelera.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncConfig config;
+    private ThreadPoolTaskExecutor ejecutor;
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new AsyncConfig(new AsyncProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        if (ejecutor != null) {
+            ejecutor.shutdown();
+        }
+    }
+
+    @Test
+    void testPoolSaturado_Abortar_RechazaYCuenta() throws Exception {
+        ejecutor = pool(new AsyncProperties.Pool(1, 1, 1, AsyncProperties.Rechazo.ABORTAR));
+        CountDownLatch enCurso = new CountDownLatch(1);
+        ejecutor.execute(() -> {
+            enCurso.countDown();
+            esperarLiberacion();
+        });
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        ejecutor.execute(this::esperarLiberacion);
+
+        assertThrows(RejectedExecutionException.class, () -> ejecutor.execute(() -> {
+        }));
+
+        assertEquals(1.0, meterRegistry.get("hotel.async.rechazadas").tag("pool", "prueba").counter().count());
+        assertEquals(1.0, meterRegistry.get("hotel.async.cola").tag("pool", "prueba").gauge().value());
+        assertEquals(1.0, meterRegistry.get("hotel.async.activos").tag("pool", "prueba").gauge().value());
+    }
+
+    @Test
+    void testPoolSaturado_CallerRuns_EjecutaEnHiloLlamanteYMideLatencia() throws Exception {
+        ejecutor = pool(new AsyncProperties.Pool(1, 1, 0, AsyncProperties.Rechazo.CALLER_RUNS));
+        CountDownLatch enCurso = new CountDownLatch(1);
+        ejecutor.execute(() -> {
+            enCurso.countDown();
+            esperarLiberacion();
+        });
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<String> hilo = new AtomicReference<>();
+        ejecutor.execute(() -> hilo.set(Thread.currentThread().getName()));
+
+        assertEquals(Thread.currentThread().getName(), hilo.get());
+        assertEquals(1L, meterRegistry.get("hotel.async.tarea.duracion").tag("pool", "prueba").timer().count());
+    }
+
+    private ThreadPoolTaskExecutor pool(AsyncProperties.Pool propiedades) {
+        ThreadPoolTaskExecutor pool = (ThreadPoolTaskExecutor) config.construir("prueba", propiedades);
+        pool.initialize();
+        return pool;
+    }
+
+    private void esperarLiberacion() {
+        try {
+            liberar.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.gestion.hotelera.config;
+
+import com.gestion.hotelera.model.ConfiguracionGlobal;
+import com.gestion.hotelera.model.Descuento;
+import com.gestion.hotelera.repository.ConfiguracionRepository;
+import com.gestion.hotelera.repository.DescuentoRepository;
+import com.gestion.hotelera.service.ConfiguracionService;
+import com.gestion.hotelera.service.DescuentoService;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(CacheConfigTest.Contexto.class)
+class CacheConfigTest {
+
+    @Configuration
+    @EnableConfigurationProperties(CachesProperties.class)
+    @Import({ CacheConfig.class, DescuentoService.class, ConfiguracionService.class })
+    static class Contexto {
+    }
+
+    @MockitoBean
+    private DescuentoRepository descuentoRepository;
+    @MockitoBean
+    private ConfiguracionRepository configuracionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private DescuentoService descuentoService;
+    @Autowired
+    private ConfiguracionService configuracionService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @Test
+    void testDescuentosValidos_SegundaLecturaDesdeCache() {
+        when(descuentoRepository.findDescuentosValidos(any(LocalDate.class))).thenReturn(List.of(new Descuento()));
+
+        descuentoService.obtenerDescuentosValidos();
+        descuentoService.obtenerDescuentosValidos();
+
+        verify(descuentoRepository, times(1)).findDescuentosValidos(any(LocalDate.class));
+        assertEquals(1, caffeine(CacheConfig.DESCUENTOS).stats().hitCount());
+    }
+
+    @Test
+    void testEscrituraDescuento_InvalidaCache() {
+        when(descuentoRepository.findAll()).thenReturn(List.of(new Descuento()));
+        descuentoService.obtenerTodosLosDescuentos();
+
+        descuentoService.eliminarDescuento(1L);
+        descuentoService.obtenerTodosLosDescuentos();
+
+        verify(descuentoRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testConfiguracion_GuardarInvalidaCache() {
+        ConfiguracionGlobal config = new ConfiguracionGlobal();
+        config.setNombreHotel("Oasis");
+        when(configuracionRepository.findByClave(any())).thenReturn(Optional.of(config));
+        when(configuracionRepository.save(any(ConfiguracionGlobal.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        configuracionService.obtenerConfiguracion();
+        configuracionService.obtenerConfiguracion();
+        verify(configuracionRepository, times(1)).findByClave(any());
+
+        configuracionService.guardarConfiguracion(new ConfiguracionGlobal());
+        configuracionService.obtenerConfiguracion();
+        verify(configuracionRepository, times(3)).findByClave(any());
+    }
+
+    @Test
+    void testEspacios_LimitesConfigurados() {
+        CachesProperties propiedades = new CachesProperties();
+        assertEquals(propiedades.espacio(CacheConfig.SERVICIOS).getMaxEntradas(),
+                caffeine(CacheConfig.SERVICIOS).policy().eviction().orElseThrow().getMaximum());
+        assertTrue(caffeine(CacheConfig.CONFIGURACION).policy().expireAfterWrite().isPresent());
+        assertTrue(cacheManager.getCacheNames().containsAll(
+                List.of(CacheConfig.SERVICIOS, CacheConfig.DESCUENTOS, CacheConfig.CONFIGURACION)));
+    }
+
+    private Cache<Object, Object> caffeine(String nombre) {
+        Object cache = cacheManager.getCache(nombre);
+        if (cache instanceof TransactionAwareCacheDecorator decorador) {
+            cache = decorador.getTargetCache();
+        }
+        return ((CaffeineCache) cache).getNativeCache();
+    }
+}
@@ -0,0 +1,106 @@
+package com.gestion.hotelera.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingFilterTest {
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitingFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setPorDefecto(new RateLimitProperties.Politica("general", "/**", null, null, 5, 5));
+        properties.setPoliticas(List.of(
+                new RateLimitProperties.Politica("login", "/api/auth/login", "POST", null, 2, 2),
+                new RateLimitProperties.Politica("staff", "/api/**", null, "ROLE_ADMIN", 50, 50)));
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new RateLimitingFilter(properties, new AlmacenLimitesMemoria(properties), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testLogin_SuperaLimite_Responde429ConRetryAfter() throws Exception {
+        assertEquals(200, ejecutar("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, ejecutar("POST", "/api/auth/login", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rechazada = ejecutar("POST", "/api/auth/login", "10.0.0.1");
+
+        assertEquals(429, rechazada.getStatus());
+        assertEquals("30", rechazada.getHeader("Retry-After"));
+        assertEquals("0", rechazada.getHeader("X-RateLimit-Remaining"));
+        assertEquals(200, ejecutar("POST", "/api/auth/login", "10.0.0.2").getStatus());
+        assertEquals(200, ejecutar("GET", "/api/habitaciones", "10.0.0.1").getStatus());
+        assertEquals(1.0, meterRegistry.get("hotel.ratelimit.peticiones")
+                .tags("politica", "login", "resultado", "rechazada").counter().count());
+    }
+
+    @Test
+    void testUsuarioAutenticado_SeLimitaPorUsuarioYPorRol() throws Exception {
+        autenticar("recepcion01", "ROLE_RECEPCIONISTA");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, ejecutar("GET", "/api/reservas", "10.0.0." + i).getStatus());
+        }
+        assertEquals(429, ejecutar("GET", "/api/reservas", "10.0.0.9").getStatus());
+
+        autenticar("admin", "ROLE_ADMIN");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, ejecutar("GET", "/api/reservas", "10.0.0.9").getStatus());
+        }
+        assertEquals("50", ejecutar("GET", "/api/reservas", "10.0.0.9").getHeader("X-RateLimit-Limit"));
+    }
+
+    @Test
+    void testAlmacen_AcotaNumeroDeClaves() {
+        properties.setMaxClaves(100);
+        AlmacenLimitesMemoria almacen = new AlmacenLimitesMemoria(properties);
+
+        for (int i = 0; i < 1000; i++) {
+            almacen.consumir("general|ip:" + i, 5, 0.001);
+        }
+
+        assertTrue(almacen.claves() <= 100);
+    }
+
+    @Test
+    void testAlmacen_PurgaCubetasLlenas() {
+        AlmacenLimitesMemoria almacen = new AlmacenLimitesMemoria(properties);
+        almacen.consumir("rapida", 1, 1_000_000);
+        almacen.consumir("lenta", 10, 0.001);
+
+        almacen.purgarInactivas();
+
+        assertEquals(1, almacen.claves());
+    }
+
+    private MockHttpServletResponse ejecutar(String metodo, String ruta, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, ruta);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void autenticar(String username, String rol) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                List.of(new SimpleGrantedAuthority(rol))));
+    }
+}
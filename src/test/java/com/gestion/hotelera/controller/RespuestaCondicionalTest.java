@@ -0,0 +1,148 @@
+package com.gestion.hotelera.controller;
+
+import com.gestion.hotelera.config.CachesProperties;
+import com.gestion.hotelera.model.VersionRecurso;
+import com.gestion.hotelera.repository.VersionRecursoRepository;
+import com.gestion.hotelera.service.VersionRecursosService;
+import com.gestion.hotelera.service.VersionRecursosService.Recurso;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RespuestaCondicionalTest {
+
+    private final Map<String, VersionRecurso> filas = new HashMap<>();
+    private VersionRecursoRepository versionRecursoRepository;
+    private VersionRecursosService versionRecursosService;
+    private RespuestaCondicional respuestaCondicional;
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        versionRecursoRepository = mock(VersionRecursoRepository.class);
+        when(versionRecursoRepository.findById(anyString()))
+                .thenAnswer(i -> Optional.ofNullable(filas.get(i.<String>getArgument(0))));
+        when(versionRecursoRepository.incrementar(anyString(), anyLong())).thenAnswer(i -> {
+            VersionRecurso fila = filas.get(i.<String>getArgument(0));
+            if (fila == null) {
+                return 0;
+            }
+            fila.setVersion(fila.getVersion() + 1);
+            fila.setModificado(Math.max(fila.getModificado(), i.<Long>getArgument(1)));
+            return 1;
+        });
+        when(versionRecursoRepository.crearSiFalta(anyString(), anyLong())).thenAnswer(i -> {
+            VersionRecurso fila = new VersionRecurso();
+            fila.setRecurso(i.getArgument(0));
+            fila.setModificado(i.getArgument(1));
+            filas.putIfAbsent(fila.getRecurso(), fila);
+            return 1;
+        });
+        versionRecursosService = servicio(new CachesProperties(), true);
+        respuestaCondicional = new RespuestaCondicional(versionRecursosService, new CachesProperties());
+    }
+
+    @Test
+    void testPrimeraPeticion_DevuelveCuerpoConEtag() {
+        ResponseEntity<List<String>> respuesta = respuestaCondicional.publica(peticion(null), Recurso.HABITACIONES,
+                this::consultar);
+
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        assertEquals(versionRecursosService.etag(Recurso.HABITACIONES), respuesta.getHeaders().getETag());
+        assertTrue(respuesta.getHeaders().getCacheControl().contains("max-age=15"));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void testIfNoneMatchVigente_Devuelve304SinConsultar() {
+        String etag = versionRecursosService.etag(Recurso.HABITACIONES);
+
+        ResponseEntity<List<String>> respuesta = respuestaCondicional.publica(peticion(etag), Recurso.HABITACIONES,
+                this::consultar);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, respuesta.getStatusCode());
+        assertNull(respuesta.getBody());
+        assertEquals(0, consultas.get());
+    }
+
+    @Test
+    void testCambioEnRecurso_InvalidaEtagAnterior() {
+        String etag = versionRecursosService.etag(Recurso.SERVICIOS);
+        versionRecursosService.marcarCambio(Recurso.SERVICIOS);
+
+        ResponseEntity<List<String>> respuesta = respuestaCondicional.privada(peticion(etag), Recurso.SERVICIOS,
+                this::consultar);
+
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        assertNotEquals(etag, respuesta.getHeaders().getETag());
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void testSinCondicional_IgnoraIfNoneMatchYNoEnviaValidadores() {
+        VersionRecursosService sinCondicional = servicio(new CachesProperties(), false);
+        RespuestaCondicional respuestaSinCondicional = new RespuestaCondicional(sinCondicional, new CachesProperties());
+
+        ResponseEntity<List<String>> respuesta = respuestaSinCondicional.publica(
+                peticion(sinCondicional.etag(Recurso.HABITACIONES)), Recurso.HABITACIONES, this::consultar);
+
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        assertNull(respuesta.getHeaders().getETag());
+        assertEquals(-1, respuesta.getHeaders().getLastModified());
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void testCambioEnOtroNodo_SeVeAlVencerElMaxAge() {
+        CachesProperties sinVigencia = new CachesProperties();
+        sinVigencia.setHttpMaxAgeSegundos(0);
+        VersionRecursosService otroNodo = servicio(sinVigencia, true);
+        String etag = otroNodo.etag(Recurso.HABITACIONES);
+
+        versionRecursosService.marcarCambio(Recurso.HABITACIONES);
+
+        assertNotEquals(etag, otroNodo.etag(Recurso.HABITACIONES));
+        assertEquals(versionRecursosService.etag(Recurso.HABITACIONES), otroNodo.etag(Recurso.HABITACIONES));
+    }
+
+    @Test
+    void testDentroDelMaxAge_NoReleeLaVersion() {
+        versionRecursosService.etag(Recurso.SERVICIOS);
+        versionRecursosService.etag(Recurso.SERVICIOS);
+
+        verify(versionRecursoRepository, times(1)).findById("SERVICIOS");
+    }
+
+    private VersionRecursosService servicio(CachesProperties caches, boolean condicional) {
+        return new VersionRecursosService(versionRecursoRepository, mock(PlatformTransactionManager.class), caches,
+                condicional);
+    }
+
+    private List<String> consultar() {
+        consultas.incrementAndGet();
+        return List.of("101", "102");
+    }
+
+    private ServletWebRequest peticion(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/habitaciones");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,92 @@
+package com.gestion.hotelera.metrics;
+
+import com.gestion.hotelera.dto.ResumenMetricasReservas;
+import com.gestion.hotelera.repository.ClienteRepository;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import com.gestion.hotelera.service.CalendarioOcupacionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotelMetricsTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+    @Mock
+    private HabitacionRepository habitacionRepository;
+    @Mock
+    private ClienteRepository clienteRepository;
+    @Mock
+    private CalendarioOcupacionService calendarioOcupacionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotelMetrics hotelMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hotelMetrics = new HotelMetrics(meterRegistry, reservaRepository, habitacionRepository,
+                clienteRepository, calendarioOcupacionService);
+    }
+
+    @Test
+    void testScrape_NoConsultaBaseDeDatos() {
+        meterRegistry.get("hotel.reservas.total").gauge().value();
+        meterRegistry.get("hotel.ingresos.total").gauge().value();
+        meterRegistry.get("hotel.habitaciones.disponibles").gauge().value();
+        meterRegistry.get("hotel.clientes.total").gauge().value();
+
+        verifyNoInteractions(reservaRepository, habitacionRepository, clienteRepository);
+    }
+
+    @Test
+    void testRefrescar_ActualizaInstantanea() {
+        when(reservaRepository.resumirParaMetricas(any(LocalDate.class)))
+                .thenReturn(new ResumenMetricasReservas(10L, 3L, 2L, 4L, 1L, 2L, 850.5));
+        when(habitacionRepository.contarPorEstado()).thenReturn(List.of(
+                new Object[] { "DISPONIBLE", 5L },
+                new Object[] { "OCUPADA", 3L },
+                new Object[] { "MANTENIMIENTO", 1L },
+                new Object[] { null, 1L }));
+        when(clienteRepository.count()).thenReturn(7L);
+
+        hotelMetrics.refrescar();
+
+        assertEquals(10.0, meterRegistry.get("hotel.reservas.total").gauge().value());
+        assertEquals(3.0, meterRegistry.get("hotel.reservas.activas").gauge().value());
+        assertEquals(4.0, meterRegistry.get("hotel.reservas.finalizadas").gauge().value());
+        assertEquals(2.0, meterRegistry.get("hotel.checkouts.hoy").gauge().value());
+        assertEquals(850.5, meterRegistry.get("hotel.ingresos.total").gauge().value());
+        assertEquals(10.0, meterRegistry.get("hotel.habitaciones.total").gauge().value());
+        assertEquals(5.0, meterRegistry.get("hotel.habitaciones.disponibles").gauge().value());
+        assertEquals(1.0, meterRegistry.get("hotel.habitaciones.mantenimiento").gauge().value());
+        assertEquals(7.0, meterRegistry.get("hotel.clientes.total").gauge().value());
+        assertEquals(1, meterRegistry.get("hotel.metricas.refresco").timer().count());
+    }
+
+    @Test
+    void testRefrescar_ErrorConservaInstantanea() {
+        when(reservaRepository.resumirParaMetricas(any(LocalDate.class)))
+                .thenReturn(new ResumenMetricasReservas(10L, 3L, 2L, 4L, 1L, 2L, 850.5));
+        when(habitacionRepository.contarPorEstado()).thenReturn(List.of());
+        hotelMetrics.refrescar();
+
+        when(reservaRepository.resumirParaMetricas(any(LocalDate.class)))
+                .thenThrow(new RuntimeException("sin conexión"));
+        hotelMetrics.refrescar();
+
+        assertEquals(10.0, meterRegistry.get("hotel.reservas.total").gauge().value());
+    }
+}
@@ -0,0 +1,154 @@
+package com.gestion.hotelera.security;
+
+import com.gestion.hotelera.config.JwtProperties;
+import com.gestion.hotelera.dto.EstadoCredencial;
+import com.gestion.hotelera.model.Usuario;
+import com.gestion.hotelera.repository.UsuarioRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRETO = "586E3272357538782F413F442847284862506553685668597033733676397924423F4528482B4D6251655468576D5A7134743777217A25432A462D4A614E645267";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private JwtProperties jwtProperties;
+    private JwtService jwtService;
+    private RevocacionTokenService revocacionTokenService;
+    private JwtAuthenticationFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRETO);
+        jwtProperties.setExpiration(60_000);
+        jwtService = new JwtService(jwtProperties);
+        revocacionTokenService = new RevocacionTokenService(usuarioRepository);
+        filtro = new JwtAuthenticationFilter(jwtService, userDetailsService, revocacionTokenService, jwtProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testTokenConClaims_AutenticaSinCargarUsuario() throws Exception {
+        when(usuarioRepository.findEstadosCredenciales())
+                .thenReturn(List.of(new EstadoCredencial("recepcion01", 3L, true)));
+        revocacionTokenService.recargar();
+
+        Authentication autenticacion = filtrar(jwtService.getToken(usuario("recepcion01", 3L)));
+
+        assertNotNull(autenticacion);
+        assertEquals("recepcion01", autenticacion.getName());
+        assertEquals(List.of("ROLE_RECEPCIONISTA"),
+                autenticacion.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userDetailsService);
+        verify(usuarioRepository, never()).findByUsername(anyString());
+        verify(usuarioRepository, never()).findEstadoCredencial(anyString());
+    }
+
+    @Test
+    void testVersionDesactualizada_RechazaToken() throws Exception {
+        String token = jwtService.getToken(usuario("recepcion01", 3L));
+        when(usuarioRepository.findEstadoCredencial("recepcion01"))
+                .thenReturn(Optional.of(new EstadoCredencial("recepcion01", 4L, true)));
+
+        assertNull(filtrar(token));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testUsuarioDesactivado_TrasInvalidar_RechazaToken() throws Exception {
+        String token = jwtService.getToken(usuario("recepcion01", 0L));
+        when(usuarioRepository.findEstadoCredencial("recepcion01"))
+                .thenReturn(Optional.of(new EstadoCredencial("recepcion01", 0L, true)))
+                .thenReturn(Optional.of(new EstadoCredencial("recepcion01", 1L, false)));
+
+        assertNotNull(filtrar(token));
+        SecurityContextHolder.clearContext();
+        assertNotNull(filtrar(token));
+        SecurityContextHolder.clearContext();
+
+        revocacionTokenService.invalidar("recepcion01");
+
+        assertNull(filtrar(token));
+        verify(usuarioRepository, times(2)).findEstadoCredencial("recepcion01");
+    }
+
+    @Test
+    void testInvalidarDuranteRecarga_NoLoPisaLaInstantaneaAnterior() throws Exception {
+        String token = jwtService.getToken(usuario("recepcion01", 0L));
+        when(usuarioRepository.findEstadoCredencial("recepcion01"))
+                .thenReturn(Optional.of(new EstadoCredencial("recepcion01", 1L, false)));
+        when(usuarioRepository.findEstadosCredenciales()).thenAnswer(invocacion -> {
+            revocacionTokenService.invalidar("recepcion01");
+            return List.of(new EstadoCredencial("recepcion01", 0L, true));
+        });
+
+        revocacionTokenService.recargar();
+
+        assertNull(filtrar(token));
+    }
+
+    @Test
+    void testTokenSinClaims_UsaConsultaDeUsuario() throws Exception {
+        Usuario usuario = usuario("admin", 0L);
+        usuario.setRol("ROLE_ADMIN");
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(usuario);
+        String tokenAntiguo = Jwts.builder()
+                .setSubject("admin")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRETO)), SignatureAlgorithm.HS256)
+                .compact();
+
+        Authentication autenticacion = filtrar(tokenAntiguo);
+
+        assertNotNull(autenticacion);
+        assertSame(usuario, autenticacion.getPrincipal());
+        verify(userDetailsService).loadUserByUsername("admin");
+    }
+
+    private Authentication filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private Usuario usuario(String username, Long version) {
+        Usuario usuario = new Usuario(username, "x", "ROLE_RECEPCIONISTA");
+        usuario.setVersionCredenciales(version);
+        return usuario;
+    }
+}
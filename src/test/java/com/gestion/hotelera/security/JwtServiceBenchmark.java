@@ -0,0 +1,88 @@
+package com.gestion.hotelera.security;
+
+import com.gestion.hotelera.config.JwtProperties;
+import com.gestion.hotelera.model.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Coste por petición de validar un JWT. Ejecutar tras mvn test-compile:
+// java -cp target/test-classes:target/classes:<classpath de test> com.gestion.hotelera.security.JwtServiceBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRETO = "586E3272357538782F413F442847284862506553685668597033733676397924423F4528482B4D6251655468576D5A7134743777217A25432A462D4A614E645267";
+
+    private JwtService conCache;
+    private JwtService sinCache;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        conCache = new JwtService(propiedades(300_000));
+        sinCache = new JwtService(propiedades(0));
+        Usuario usuario = new Usuario("recepcion01", "x", "ROLE_RECEPCIONISTA");
+        usuario.setVersionCredenciales(0L);
+        token = conCache.getToken(usuario);
+    }
+
+    @Benchmark
+    public boolean antes_claveYParserPorLlamada() {
+        String username = parsearComoAntes(token).getSubject();
+        String username2 = parsearComoAntes(token).getSubject();
+        Date expiracion = parsearComoAntes(token).getExpiration();
+        return username.equals(username2) && expiracion.after(new Date());
+    }
+
+    @Benchmark
+    public JwtService.DatosToken despues_parserReutilizado() {
+        return sinCache.parsear(token);
+    }
+
+    @Benchmark
+    public JwtService.DatosToken despues_claimsEnCache() {
+        return conCache.parsear(token);
+    }
+
+    private Claims parsearComoAntes(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRETO)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    private static JwtProperties propiedades(long cacheTtlMs) {
+        JwtProperties propiedades = new JwtProperties();
+        propiedades.setSecret(SECRETO);
+        propiedades.setExpiration(3_600_000);
+        propiedades.setCacheTtlMs(cacheTtlMs);
+        return propiedades;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
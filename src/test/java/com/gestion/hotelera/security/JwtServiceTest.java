@@ -0,0 +1,92 @@
+package com.gestion.hotelera.security;
+
+import com.gestion.hotelera.config.JwtProperties;
+import com.gestion.hotelera.model.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRETO = "586E3272357538782F413F442847284862506553685668597033733676397924423F4528482B4D6251655468576D5A7134743777217A25432A462D4A614E645267";
+
+    @Test
+    void testParsear_IncluyeRolYVersion() {
+        JwtService jwtService = new JwtService(propiedades(60_000, 300_000));
+        Usuario usuario = new Usuario("admin", "x", "ROLE_ADMIN");
+        usuario.setVersionCredenciales(7L);
+
+        JwtService.DatosToken datos = jwtService.parsear(jwtService.getToken(usuario));
+
+        assertEquals("admin", datos.username());
+        assertEquals("ROLE_ADMIN", datos.rol());
+        assertEquals(7L, datos.version());
+        assertTrue(datos.esSinEstado());
+    }
+
+    @Test
+    void testParsear_TokenAlterado_SeRechazaAunqueElOriginalEsteEnCache() {
+        JwtService jwtService = new JwtService(propiedades(60_000, 300_000));
+        String token = jwtService.getToken(new Usuario("admin", "x", "ROLE_ADMIN"));
+        jwtService.parsear(token);
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(RuntimeException.class, () -> jwtService.parsear(alterado));
+        assertEquals("admin", jwtService.parsear(token).username());
+    }
+
+    @Test
+    void testParsear_TokenExpirado_NoSeSirveDesdeCache() {
+        RelojManual reloj = new RelojManual(Instant.parse("2030-01-01T10:00:00Z"));
+        JwtService jwtService = new JwtService(propiedades(3_000, 300_000), reloj);
+        String token = jwtService.getToken(new Usuario("admin", "x", "ROLE_ADMIN"));
+        assertEquals("admin", jwtService.parsear(token).username());
+
+        reloj.avanzar(2_000);
+        assertEquals("admin", jwtService.parsear(token).username());
+
+        reloj.avanzar(2_000);
+        assertThrows(RuntimeException.class, () -> jwtService.parsear(token));
+    }
+
+    private JwtProperties propiedades(long expiracionMs, long cacheTtlMs) {
+        JwtProperties propiedades = new JwtProperties();
+        propiedades.setSecret(SECRETO);
+        propiedades.setExpiration(expiracionMs);
+        propiedades.setCacheTtlMs(cacheTtlMs);
+        return propiedades;
+    }
+
+    private static final class RelojManual extends Clock {
+
+        private Instant ahora;
+
+        RelojManual(Instant ahora) {
+            this.ahora = ahora;
+        }
+
+        void avanzar(long millis) {
+            ahora = ahora.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.model.Auditoria;
+import com.gestion.hotelera.repository.AuditoriaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuditoriaServiceTest {
+
+    @Mock
+    private AuditoriaRepository auditoriaRepository;
+
+    @Mock
+    private EscritorAuditoriaService escritorAuditoriaService;
+
+    private AuditoriaService auditoriaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        auditoriaService = new AuditoriaService(auditoriaRepository, escritorAuditoriaService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRegistrarAccion_CapturaUsuarioDelHiloLlamante() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("recepcion01", null, List.of()));
+
+        auditoriaService.registrarAccion("CHECK_IN", "Check-in realizado", "Reserva", 5L);
+
+        ArgumentCaptor<Auditoria> registro = ArgumentCaptor.forClass(Auditoria.class);
+        verify(escritorAuditoriaService).encolar(registro.capture());
+        assertEquals("recepcion01", registro.getValue().getUsuarioUsername());
+        assertEquals(5L, registro.getValue().getEntidadAfectadaId());
+        verify(auditoriaRepository, never()).save(any());
+    }
+
+    @Test
+    void testRegistrarAccion_SinAutenticacion_UsaSystem() {
+        auditoriaService.registrarAccion("CREACION_HABITACION", "Habitación 101", "Habitacion", 1L);
+
+        ArgumentCaptor<Auditoria> registro = ArgumentCaptor.forClass(Auditoria.class);
+        verify(escritorAuditoriaService).encolar(registro.capture());
+        assertEquals("SYSTEM", registro.getValue().getUsuarioUsername());
+    }
+
+    @Test
+    void testRegistrarAccion_SinTipo_NoEncola() {
+        auditoriaService.registrarAccion(" ", "detalle", "Reserva", 1L);
+
+        verifyNoInteractions(escritorAuditoriaService);
+    }
+}
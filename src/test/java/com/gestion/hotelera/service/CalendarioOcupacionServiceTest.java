@@ -0,0 +1,158 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ReservaRepository;
+import com.gestion.hotelera.service.CalendarioOcupacionService.Capa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CalendarioOcupacionServiceTest {
+
+    private static final LocalDate BASE = LocalDate.of(LocalDate.now().getYear() + 1, 12, 30);
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    private CalendarioOcupacionService calendario;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        calendario = new CalendarioOcupacionService(reservaRepository, true);
+    }
+
+    @Test
+    void testOcupacionDiaria_CuentaHabitacionesPorDiaCruzandoElAnio() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(3), "ACTIVA"),
+                intervalo(2L, 2L, BASE.plusDays(1), BASE.plusDays(2), "FINALIZADA"),
+                intervalo(3L, 3L, BASE, BASE.plusDays(5), "PENDIENTE"));
+
+        long[] ocupacion = calendario.contarPorDia(Capa.OCUPACION, BASE, BASE.plusDays(3));
+
+        assertArrayEquals(new long[] { 1, 2, 1, 0 }, ocupacion);
+        assertEquals(2, calendario.contarHabitaciones(Capa.RESERVA, BASE.plusDays(2)));
+        verify(reservaRepository, never()).findIntervalosEnRango(any(), any(), any());
+    }
+
+    @Test
+    void testCheckOut_SaleDeLaCapaDeReservasPeroSigueEnOcupacion() {
+        IntervaloReserva activa = intervalo(1L, 1L, BASE, BASE.plusDays(2), "ACTIVA");
+        cargar(activa);
+
+        calendario.alCambiarReserva(new ReservaCambioEvent(1L, activa,
+                intervalo(1L, 1L, BASE, BASE.plusDays(2), "FINALIZADA")));
+
+        assertEquals(0, calendario.contarHabitaciones(Capa.RESERVA, BASE));
+        assertEquals(1, calendario.contarHabitaciones(Capa.OCUPACION, BASE));
+    }
+
+    @Test
+    void testCancelacion_LiberaLosDias() {
+        IntervaloReserva pendiente = intervalo(1L, 1L, BASE, BASE.plusDays(2), "PENDIENTE");
+        cargar(pendiente);
+
+        calendario.alCambiarReserva(new ReservaCambioEvent(1L, pendiente,
+                intervalo(1L, 1L, BASE, BASE.plusDays(2), "CANCELADA")));
+
+        assertEquals(0, calendario.contarHabitaciones(Capa.RESERVA, BASE));
+        assertTrue(calendario.habitacionesOcupadas(Capa.RESERVA, BASE).isEmpty());
+    }
+
+    @Test
+    void testDosReservasEnLaMismaHabitacion_NoDuplicanElConteo() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(3), "FINALIZADA"),
+                intervalo(2L, 1L, BASE.plusDays(1), BASE.plusDays(3), "ACTIVA"));
+
+        calendario.alCambiarReserva(new ReservaCambioEvent(2L, null, null));
+
+        assertArrayEquals(new long[] { 1, 1, 1 }, calendario.contarPorDia(Capa.OCUPACION, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    void testHabitacionesOcupadasYPorcentaje() {
+        cargar(intervalo(1L, 4L, BASE, BASE.plusDays(1), "ACTIVA"),
+                intervalo(2L, 7L, BASE, BASE.plusDays(1), "PENDIENTE"));
+
+        Set<Long> ocupadas = calendario.habitacionesOcupadas(Capa.RESERVA, BASE);
+
+        assertEquals(Set.of(4L, 7L), ocupadas);
+        assertEquals(20.0, calendario.porcentajeOcupacion(Capa.RESERVA, BASE, 10));
+    }
+
+    @Test
+    void testSinCargar_ConsultaSoloElRango() {
+        when(reservaRepository.findIntervalosEnRango(eq(BASE), eq(BASE.plusDays(2)), anyList()))
+                .thenReturn(List.of(intervalo(1L, 1L, BASE.minusDays(3), BASE.plusDays(1), "ACTIVA")));
+
+        long[] ocupacion = calendario.contarPorDia(Capa.OCUPACION, BASE, BASE.plusDays(1));
+
+        assertArrayEquals(new long[] { 1, 0 }, ocupacion);
+    }
+
+    @Test
+    void testSolapeEnLaMismaHabitacion_LiberaElDiaSoloAlQuitarLaUltima() {
+        IntervaloReserva primera = intervalo(1L, 1L, BASE, BASE.plusDays(2), "PENDIENTE");
+        IntervaloReserva segunda = intervalo(2L, 1L, BASE.plusDays(1), BASE.plusDays(3), "PENDIENTE");
+        cargar(primera, segunda);
+
+        calendario.alCambiarReserva(new ReservaCambioEvent(1L, primera, null));
+
+        assertArrayEquals(new long[] { 0, 1, 1 }, calendario.contarPorDia(Capa.RESERVA, BASE, BASE.plusDays(2)));
+        calendario.alCambiarReserva(new ReservaCambioEvent(2L, segunda, null));
+        assertArrayEquals(new long[] { 0, 0, 0 }, calendario.contarPorDia(Capa.RESERVA, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    void testCarga_SoloDesdeElAnioEnCursoYLoAnteriorVaABaseDeDatos() {
+        LocalDate inicioAnio = LocalDate.now().withDayOfYear(1);
+        cargar(intervalo(1L, 1L, inicioAnio.minusDays(2), inicioAnio.plusDays(2), "ACTIVA"));
+        verify(reservaRepository).findIntervalosBloqueantesDesde(eq(0L), eq(inicioAnio), any());
+
+        assertArrayEquals(new long[] { 1, 1, 0 },
+                calendario.contarPorDia(Capa.OCUPACION, inicioAnio, inicioAnio.plusDays(2)));
+        verify(reservaRepository, never()).findIntervalosEnRango(any(), any(), any());
+
+        calendario.contarPorDia(Capa.OCUPACION, inicioAnio.minusDays(1), inicioAnio);
+        verify(reservaRepository).findIntervalosEnRango(eq(inicioAnio.minusDays(1)), eq(inicioAnio.plusDays(1)),
+                anyList());
+    }
+
+    @Test
+    void testDeshabilitado_IgnoraEventosYConsultaBaseDeDatos() {
+        CalendarioOcupacionService deshabilitado = new CalendarioOcupacionService(reservaRepository, false);
+        deshabilitado.alIniciarAplicacion();
+        deshabilitado.alCambiarReserva(new ReservaCambioEvent(1L, null,
+                intervalo(1L, 1L, BASE, BASE.plusDays(1), "ACTIVA")));
+        when(reservaRepository.findIntervalosEnRango(eq(BASE), eq(BASE.plusDays(1)), anyList()))
+                .thenReturn(List.of(intervalo(2L, 5L, BASE, BASE.plusDays(1), "PENDIENTE")));
+
+        assertEquals(1, deshabilitado.contarHabitaciones(Capa.RESERVA, BASE));
+        assertEquals(Set.of(5L), deshabilitado.habitacionesOcupadas(Capa.RESERVA, BASE));
+        verify(reservaRepository, never()).findIntervalosBloqueantesDesde(anyLong(), any(), any());
+    }
+
+    private void cargar(IntervaloReserva... intervalos) {
+        when(reservaRepository.findIntervalosBloqueantesDesde(anyLong(), any(), any()))
+                .thenReturn(Arrays.asList(intervalos))
+                .thenReturn(Collections.emptyList());
+        calendario.recargar();
+        assertTrue(calendario.estaListo());
+    }
+
+    private IntervaloReserva intervalo(Long id, Long habitacionId, LocalDate inicio, LocalDate fin, String estado) {
+        return new IntervaloReserva(id, habitacionId, inicio, fin, null, estado);
+    }
+}
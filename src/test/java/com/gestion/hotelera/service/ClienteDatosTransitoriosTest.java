@@ -0,0 +1,83 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteDatosTransitoriosTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Test
+    void testObtenerClientesPaginados_ResumenAgrupadoPorCliente() {
+        Habitacion habitacion = new Habitacion("T01", "Simple", 60.0, "DISPONIBLE");
+        entityManager.persist(habitacion);
+
+        Cliente conHistorial = cliente("61000001");
+        Cliente sinReservas = cliente("61000002");
+        entityManager.persist(reserva(conHistorial, habitacion, LocalDate.of(2029, 1, 5), "FINALIZADA"));
+        entityManager.persist(reserva(conHistorial, habitacion, LocalDate.of(2029, 3, 5), "FINALIZADA"));
+        entityManager.persist(reserva(conHistorial, habitacion, LocalDate.of(2029, 6, 5), "CANCELADA"));
+        Reserva pendiente = reserva(conHistorial, habitacion, LocalDate.of(2029, 9, 5), "pendiente");
+        entityManager.persist(pendiente);
+        entityManager.persist(reserva(conHistorial, habitacion, LocalDate.of(2029, 10, 5), "ACTIVA"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Cliente> pagina = clienteService.obtenerClientesPaginados(
+                PageRequest.of(0, 10, Sort.by("dni")), "6100000");
+
+        assertEquals(2, pagina.getContent().size());
+        Cliente primero = pagina.getContent().get(0);
+        assertEquals(conHistorial.getId(), primero.getId());
+        assertEquals(5L, primero.getTotalReservas());
+        assertTrue(primero.isHasActiveReservations());
+        assertEquals(pendiente.getId(), primero.getActiveReservationId());
+        assertEquals(LocalDate.of(2029, 3, 7), primero.getUltimaEstancia());
+
+        Cliente segundo = pagina.getContent().get(1);
+        assertEquals(sinReservas.getId(), segundo.getId());
+        assertEquals(0L, segundo.getTotalReservas());
+        assertFalse(segundo.isHasActiveReservations());
+        assertNull(segundo.getUltimaEstancia());
+    }
+
+    private Cliente cliente(String dni) {
+        Cliente cliente = new Cliente();
+        cliente.setNombres("Transitorio");
+        cliente.setApellidos("Prueba");
+        cliente.setDni(dni);
+        entityManager.persist(cliente);
+        return cliente;
+    }
+
+    private Reserva reserva(Cliente cliente, Habitacion habitacion, LocalDate inicio, String estado) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(cliente);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(inicio.plusDays(2));
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia(2);
+        reserva.setTotalPagar(120.0);
+        reserva.setEstadoReserva(estado);
+        return reserva;
+    }
+}
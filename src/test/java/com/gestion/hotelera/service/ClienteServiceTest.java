@@ -37,6 +37,12 @@ public class ClienteServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private LibroIngresosService libroIngresosService;
+
+    @Mock
+    private InventarioTipoService inventarioTipoService;
+
     private ClienteService clienteService;
 
     @BeforeEach
@@ -46,7 +52,9 @@ public class ClienteServiceTest {
                 auditoriaService,
                 reservaRepository,
                 usuarioRepository,
-                passwordEncoder);
+                passwordEncoder,
+                libroIngresosService,
+                inventarioTipoService);
     }
 
     @Test
@@ -0,0 +1,139 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.model.CorreoFallido;
+import com.gestion.hotelera.repository.CorreoFallidoRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ColaCorreoServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private CorreoFallidoRepository correoFallidoRepository;
+
+    private ColaCorreoService cola;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cola != null) {
+            cola.detener();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testEncolar_EntregaLosCorreosAlServidorSmtp() throws Exception {
+        JavaMailSenderImpl smtpLocal = new JavaMailSenderImpl();
+        smtpLocal.setHost("localhost");
+        smtpLocal.setPort(ServerSetupTest.SMTP.getPort());
+        cola = iniciar(smtpLocal, 3);
+
+        for (int i = 1; i <= 3; i++) {
+            cola.encolar(mensaje("cliente" + i + "@test.com", "Reserva #" + i));
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 3));
+        MimeMessage[] recibidos = greenMail.getReceivedMessages();
+        assertEquals(3, recibidos.length);
+        assertTrue(recibidos[0].getSubject().startsWith("Reserva #"));
+    }
+
+    @Test
+    void testEncolar_DentroDeTransaccion_EsperaAlCommit() {
+        cola = iniciar(mailSender, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cola.encolar(mensaje("ana@test.com", "Confirmación"));
+
+        verify(mailSender, after(300).never()).send(any(SimpleMailMessage[].class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(mailSender, timeout(3000)).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void testEncolar_TransaccionRevertida_NoEnvia() {
+        cola = iniciar(mailSender, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cola.encolar(mensaje("ana@test.com", "Confirmación"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(mailSender, after(300).never()).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void testFalloTemporal_ReintentaConBackoff() {
+        doThrow(new MailSendException("SMTP no disponible"))
+                .doNothing()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        cola = iniciar(mailSender, 3);
+
+        cola.encolar(mensaje("ana@test.com", "Pago"));
+
+        verify(mailSender, timeout(3000).times(2)).send(any(SimpleMailMessage[].class));
+        verify(correoFallidoRepository, never()).save(any());
+    }
+
+    @Test
+    void testFalloPersistente_RegistraCorreoFallido() {
+        doThrow(new MailSendException("Buzón inexistente")).when(mailSender).send(any(SimpleMailMessage[].class));
+        cola = iniciar(mailSender, 3);
+
+        cola.encolar(mensaje("ana@test.com", "Pago"));
+
+        ArgumentCaptor<CorreoFallido> fallido = ArgumentCaptor.forClass(CorreoFallido.class);
+        verify(correoFallidoRepository, timeout(3000)).save(fallido.capture());
+        assertEquals("ana@test.com", fallido.getValue().getDestinatario());
+        assertEquals(3, fallido.getValue().getIntentos());
+        assertEquals("Buzón inexistente", fallido.getValue().getError());
+        verify(mailSender, times(3)).send(any(SimpleMailMessage[].class));
+    }
+
+    private ColaCorreoService iniciar(JavaMailSender sender, int maxIntentos) {
+        ColaCorreoService servicio = new ColaCorreoService(sender, correoFallidoRepository,
+                new SimpleMeterRegistry(), 100, 1, 10, maxIntentos, 10, 50);
+        servicio.iniciar();
+        return servicio;
+    }
+
+    private SimpleMailMessage mensaje(String destinatario, String asunto) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setFrom("noreply@oasisdigital.com");
+        mensaje.setTo(destinatario);
+        mensaje.setSubject(asunto);
+        mensaje.setText("Contenido de prueba");
+        return mensaje;
+    }
+}
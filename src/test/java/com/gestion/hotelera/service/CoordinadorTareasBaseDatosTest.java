@@ -0,0 +1,138 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.config.TareasProperties;
+import com.gestion.hotelera.model.EjecucionTarea;
+import com.gestion.hotelera.repository.BloqueoTareaRepository;
+import com.gestion.hotelera.repository.EjecucionTareaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinadorTareasBaseDatosTest extends BaseIntegrationTest {
+
+    private static final String CRON = "0 0 9 * * ?";
+
+    @Autowired
+    private BloqueoTareaRepository bloqueoTareaRepository;
+    @Autowired
+    private EjecucionTareaRepository ejecucionTareaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String tarea;
+    private CoordinadorTareasBaseDatos nodoA;
+    private CoordinadorTareasBaseDatos nodoB;
+
+    @BeforeEach
+    void setUp() {
+        tarea = "prueba_" + System.nanoTime();
+        nodoA = coordinador("nodo-a", 0);
+        nodoB = coordinador("nodo-b", 0);
+    }
+
+    @Test
+    void testEjecutar_UnaSolaVezEnElCluster() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        boolean ejecutadaA = nodoA.ejecutar(tarea, () -> {
+            ejecuciones.incrementAndGet();
+            assertFalse(nodoB.ejecutar(tarea, ejecuciones::incrementAndGet));
+            return 7;
+        });
+        boolean ejecutadaB = nodoB.ejecutar(tarea, ejecuciones::incrementAndGet);
+
+        assertTrue(ejecutadaA);
+        assertFalse(ejecutadaB);
+        assertEquals(1, ejecuciones.get());
+        assertEquals("nodo-a", bloqueoTareaRepository.findById(tarea).orElseThrow().getPropietario());
+
+        List<EjecucionTarea> historial = ejecucionTareaRepository.findTop50ByTareaOrderByInicioDescIdDesc(tarea);
+        assertEquals(1, historial.size());
+        assertEquals(CoordinadorTareasBaseDatos.COMPLETADA, historial.get(0).getResultado());
+        assertEquals(7L, historial.get(0).getFilas());
+        assertEquals("nodo-a", historial.get(0).getNodo());
+        assertNotNull(historial.get(0).getFin());
+    }
+
+    @Test
+    void testEjecutar_LeaseVencidoPermiteOtroNodoYRegistraFallo() {
+        CoordinadorTareasBaseDatos sinMinimo = coordinadorConLease("nodo-c", Duration.ZERO);
+        assertFalse(sinMinimo.ejecutar(tarea, () -> {
+            throw new IllegalStateException("fallo simulado");
+        }));
+
+        assertTrue(nodoB.ejecutar(tarea, () -> 1));
+
+        List<EjecucionTarea> historial = ejecucionTareaRepository.findTop50ByTareaOrderByInicioDescIdDesc(tarea);
+        assertEquals(2, historial.size());
+        assertTrue(historial.stream().anyMatch(e -> CoordinadorTareasBaseDatos.FALLIDA.equals(e.getResultado())
+                && "fallo simulado".equals(e.getError()) && "nodo-c".equals(e.getNodo())));
+        assertTrue(historial.stream().anyMatch(e -> CoordinadorTareasBaseDatos.COMPLETADA.equals(e.getResultado())
+                && "nodo-b".equals(e.getNodo())));
+    }
+
+    @Test
+    void testEjecutarPorTramos_RangosDisjuntosRepartidosEntreNodos() {
+        CoordinadorTareasBaseDatos tramosA = coordinador("nodo-a", 10);
+        CoordinadorTareasBaseDatos tramosB = coordinador("nodo-b", 10);
+        List<String> rangos = new ArrayList<>();
+
+        int ejecutadosA = tramosA.ejecutarPorTramos(tarea, CRON, () -> 25, (desde, hasta) -> {
+            rangos.add(desde + "-" + hasta);
+            if (rangos.size() == 1) {
+                assertEquals(2, tramosB.ejecutarPorTramos(tarea, CRON, () -> 25, (d, h) -> {
+                    rangos.add(d + "-" + h);
+                    return 0;
+                }));
+            }
+            return 0;
+        });
+
+        assertEquals(1, ejecutadosA);
+        assertEquals(List.of("0-10", "10-20", "20-30"), rangos.stream().sorted().toList());
+        assertEquals(0, tramosB.ejecutarPorTramos(tarea, CRON, () -> 25, (d, h) -> 0));
+        assertEquals(3, ejecucionTareaRepository.findTop50ByTareaOrderByInicioDescIdDesc(tarea).size());
+    }
+
+    @Test
+    void testEjecutarPorTramos_TramoTerminadoNoSeRepiteEnElMismoDisparo() {
+        CoordinadorTareasBaseDatos tramosA = coordinador("nodo-a", 10, Duration.ZERO);
+        CoordinadorTareasBaseDatos tramosB = coordinador("nodo-b", 10, Duration.ZERO);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        assertEquals(3, tramosA.ejecutarPorTramos(tarea, CRON, () -> 25, (d, h) -> ejecuciones.incrementAndGet()));
+        assertEquals(0, tramosB.ejecutarPorTramos(tarea, CRON, () -> 25, (d, h) -> ejecuciones.incrementAndGet()));
+
+        assertEquals(3, ejecuciones.get());
+        LocalDateTime siguienteDisparo = CronExpression.parse(CRON).next(LocalDateTime.now());
+        assertEquals(siguienteDisparo, bloqueoTareaRepository.findById(tarea + "#0").orElseThrow().getBloqueadoHasta());
+    }
+
+    private CoordinadorTareasBaseDatos coordinador(String nodo, long tamanoTramo) {
+        return coordinador(nodo, tamanoTramo, new TareasProperties().getLeaseMinimo());
+    }
+
+    private CoordinadorTareasBaseDatos coordinadorConLease(String nodo, Duration minimo) {
+        return coordinador(nodo, 0, minimo);
+    }
+
+    private CoordinadorTareasBaseDatos coordinador(String nodo, long tamanoTramo, Duration minimo) {
+        TareasProperties properties = new TareasProperties();
+        properties.setNodo(nodo);
+        properties.setTamanoTramo(tamanoTramo);
+        properties.setLeaseMinimo(minimo);
+        return new CoordinadorTareasBaseDatos(properties, bloqueoTareaRepository, ejecucionTareaRepository,
+                transactionManager);
+    }
+}
@@ -0,0 +1,153 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.DashboardStatsDTO;
+import com.gestion.hotelera.dto.ResumenReservas;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ClienteRepository;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private HabitacionRepository habitacionRepository;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private CalendarioOcupacionService calendarioOcupacionService;
+
+    @Mock
+    private LibroIngresosService libroIngresosService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(reservaRepository.resumirParaPanel(any())).thenReturn(new ResumenReservas(12L, 3L, 4L, 1L, 2L));
+        when(habitacionRepository.count()).thenReturn(10L);
+        when(habitacionRepository.countByEstado("MANTENIMIENTO")).thenReturn(1L);
+        when(clienteRepository.count()).thenReturn(7L);
+        when(calendarioOcupacionService.contarHabitaciones(eq(CalendarioOcupacionService.Capa.RESERVA), any()))
+                .thenReturn(5L);
+        when(libroIngresosService.totalAcumulado()).thenReturn(1500.0);
+        Map<LocalDate, Double> porDia = new TreeMap<>();
+        porDia.put(LocalDate.now(), 300.0);
+        when(libroIngresosService.ingresosPorDia(any(), any())).thenReturn(porDia);
+    }
+
+    @Test
+    void testObtenerEstadisticas_CalculaTodosLosCampos() {
+        DashboardStatsDTO stats = servicio(5000).obtenerEstadisticas();
+
+        assertEquals(10, stats.getTotalHabitaciones());
+        assertEquals(7, stats.getTotalClientes());
+        assertEquals(12, stats.getTotalReservas());
+        assertEquals(5, stats.getHabitacionesOcupadas());
+        assertEquals(4, stats.getHabitacionesDisponibles());
+        assertEquals(1, stats.getHabitacionesMantenimiento());
+        assertEquals(1500.0, stats.getIngresosTotales());
+        assertEquals(3, stats.getReservasPendientes());
+        assertEquals(4, stats.getReservasActivas());
+        assertEquals(1, stats.getCheckInsHoy());
+        assertEquals(2, stats.getCheckOutsHoy());
+        assertEquals(1, stats.getIngresosUltimos30Dias().size());
+        verify(reservaRepository, never()).findAll();
+    }
+
+    @Test
+    void testObtenerEstadisticas_ReutilizaInstantaneaVigente() {
+        DashboardService dashboard = servicio(60_000);
+
+        DashboardStatsDTO primera = dashboard.obtenerEstadisticas();
+        DashboardStatsDTO segunda = dashboard.obtenerEstadisticas();
+
+        assertSame(primera, segunda);
+        verify(reservaRepository, times(1)).resumirParaPanel(any());
+    }
+
+    @Test
+    void testObtenerEstadisticas_RecalculaAlExpirarOInvalidar() {
+        DashboardService dashboard = servicio(0);
+        dashboard.obtenerEstadisticas();
+        dashboard.obtenerEstadisticas();
+        verify(reservaRepository, times(2)).resumirParaPanel(any());
+
+        DashboardService conCache = servicio(60_000);
+        conCache.obtenerEstadisticas();
+        conCache.invalidar();
+        conCache.obtenerEstadisticas();
+        verify(reservaRepository, times(4)).resumirParaPanel(any());
+    }
+
+    @Test
+    void testCambioDeReserva_InvalidaLaInstantanea() {
+        DashboardService conCache = servicio(60_000);
+        conCache.obtenerEstadisticas();
+        conCache.obtenerEstadisticas();
+
+        conCache.alCambiarReserva(new ReservaCambioEvent(1L, null, null));
+        conCache.obtenerEstadisticas();
+
+        verify(reservaRepository, times(2)).resumirParaPanel(any());
+    }
+
+    @Test
+    void testObtenerEstadisticas_PeticionesConcurrentesCompartenUnCalculo() throws Exception {
+        CountDownLatch calculando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(reservaRepository.resumirParaPanel(any())).thenAnswer(inv -> {
+            calculando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return new ResumenReservas(1L, 0L, 0L, 0L, 0L);
+        });
+        DashboardService dashboard = servicio(60_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DashboardStatsDTO>> resultados = new ArrayList<>();
+            resultados.add(executor.submit(dashboard::obtenerEstadisticas));
+            assertTrue(calculando.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                resultados.add(executor.submit(dashboard::obtenerEstadisticas));
+            }
+            Thread.sleep(100);
+            liberar.countDown();
+
+            DashboardStatsDTO primera = resultados.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<DashboardStatsDTO> resultado : resultados) {
+                assertSame(primera, resultado.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(reservaRepository, times(1)).resumirParaPanel(any());
+    }
+
+    private DashboardService servicio(long ttlMillis) {
+        return new DashboardService(reservaRepository, habitacionRepository, clienteRepository,
+                calendarioOcupacionService, libroIngresosService, ttlMillis);
+    }
+}
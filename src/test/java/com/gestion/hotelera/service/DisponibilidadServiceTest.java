@@ -0,0 +1,94 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DisponibilidadServiceTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 5, 1);
+
+    @Mock
+    private HabitacionRepository habitacionRepository;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    private IndiceDisponibilidadService indice;
+    private DisponibilidadService disponibilidadService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        indice = new IndiceDisponibilidadService(reservaRepository, true);
+        disponibilidadService = new DisponibilidadService(habitacionRepository, indice);
+    }
+
+    @Test
+    void testIndiceNoCargado_UsaUnaSolaConsulta() {
+        Habitacion libre = habitacion(1L, "101", "Simple");
+        when(habitacionRepository.findLibresEnRango(BASE, BASE.plusDays(2), "Simple", null, 100.0))
+                .thenReturn(List.of(libre));
+
+        List<Habitacion> resultado = disponibilidadService.buscarDisponibles(BASE, BASE.plusDays(2), " Simple ",
+                null, 100.0);
+
+        assertEquals(List.of(libre), resultado);
+        verify(habitacionRepository, never()).findAll();
+        verify(reservaRepository, never()).findAll();
+    }
+
+    @Test
+    void testIndiceCargado_FiltraHabitacionesConReservasSolapadas() {
+        Habitacion h1 = habitacion(1L, "101", "Doble");
+        Habitacion h2 = habitacion(2L, "102", "Doble");
+        when(reservaRepository.findIntervalosBloqueantesDesde(anyLong(), any()))
+                .thenReturn(List.of(new IntervaloReserva(10L, 1L, BASE, BASE.plusDays(3), null, "ACTIVA")))
+                .thenReturn(Collections.emptyList());
+        indice.recargar();
+        when(habitacionRepository.findReservables("Doble", null, null)).thenReturn(Arrays.asList(h1, h2));
+
+        List<Habitacion> resultado = disponibilidadService.buscarDisponibles(BASE.plusDays(1), BASE.plusDays(2),
+                "Doble", null, null);
+
+        assertEquals(List.of(h2), resultado);
+        verify(habitacionRepository, never()).findLibresEnRango(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testHabitacionEnMantenimiento_NoEstaDisponible() {
+        Habitacion h = habitacion(1L, "101", "Simple");
+        h.setEstado("MANTENIMIENTO");
+        when(habitacionRepository.findById(1L)).thenReturn(Optional.of(h));
+
+        assertFalse(disponibilidadService.estaDisponible(1L, BASE, BASE.plusDays(1)));
+        verify(reservaRepository, never()).existeSolapamientoEfectivo(any(), any(), any(), any());
+    }
+
+    @Test
+    void testRangoInvalido_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> disponibilidadService.buscarDisponibles(BASE.plusDays(2), BASE));
+    }
+
+    private Habitacion habitacion(Long id, String numero, String tipo) {
+        Habitacion h = new Habitacion(numero, tipo, 80.0, "DISPONIBLE");
+        h.setId(id);
+        return h;
+    }
+}
@@ -0,0 +1,164 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.model.Auditoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({ "null", "unchecked" })
+class EscritorAuditoriaServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testVaciar_EscribeEnLotesDelTamanoConfigurado() {
+        EscritorAuditoriaService escritor = escritor(64, 20, EscritorAuditoriaService.Politica.DESCARTAR);
+        for (int i = 0; i < 45; i++) {
+            assertTrue(escritor.encolar(registro(i)));
+        }
+
+        assertEquals(45, escritor.vaciar());
+
+        ArgumentCaptor<List<Auditoria>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), lotes.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(20, 20, 5), lotes.getAllValues().stream().map(List::size).toList());
+        assertEquals(0L, lotes.getAllValues().get(0).get(0).getEntidadAfectadaId());
+        assertEquals(0, escritor.pendientes());
+        assertEquals(45.0, meterRegistry.counter("hotel.auditoria.escritas").count());
+    }
+
+    @Test
+    void testEncolar_BufferLleno_DescartaYCuenta() {
+        EscritorAuditoriaService escritor = escritor(4, 10, EscritorAuditoriaService.Politica.DESCARTAR);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(escritor.encolar(registro(i)));
+        }
+
+        assertFalse(escritor.encolar(registro(99)));
+
+        assertEquals(1.0, meterRegistry.counter("hotel.auditoria.descartadas").count());
+        assertEquals(4, escritor.pendientes());
+    }
+
+    @Test
+    void testVaciar_ErrorDeEscritura_CuentaRegistrosPerdidos() {
+        EscritorAuditoriaService escritor = escritor(16, 10, EscritorAuditoriaService.Politica.DESCARTAR);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("BD caída"));
+        escritor.encolar(registro(1));
+        escritor.encolar(registro(2));
+
+        assertEquals(0, escritor.vaciar());
+
+        assertEquals(2.0, meterRegistry.counter("hotel.auditoria.errores").count());
+        assertEquals(0, escritor.pendientes());
+    }
+
+    @Test
+    void testEncolar_ProductoresConcurrentes_NoPierdeRegistros() throws Exception {
+        EscritorAuditoriaService escritor = escritor(4096, 500, EscritorAuditoriaService.Politica.DESCARTAR);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        CountDownLatch listos = new CountDownLatch(8);
+        for (int h = 0; h < 8; h++) {
+            int base = h * 500;
+            hilos.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    escritor.encolar(registro(base + i));
+                }
+                listos.countDown();
+            });
+        }
+        assertTrue(listos.await(10, TimeUnit.SECONDS));
+        hilos.shutdown();
+
+        List<Long> ids = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<Auditoria> lote = inv.getArgument(1);
+                    lote.forEach(a -> ids.add(a.getEntidadAfectadaId()));
+                    return new int[0][0];
+                });
+
+        assertEquals(4000, escritor.vaciar());
+        assertEquals(4000, ids.stream().distinct().count());
+    }
+
+    @Test
+    void testVaciar_ConsumidoresConcurrentes_NoDuplicaNiPierde() throws Exception {
+        EscritorAuditoriaService escritor = escritor(8192, 50, EscritorAuditoriaService.Politica.DESCARTAR);
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<Auditoria> lote = inv.getArgument(1);
+                    lote.forEach(a -> ids.add(a.getEntidadAfectadaId()));
+                    return new int[0][0];
+                });
+        for (int i = 0; i < 5000; i++) {
+            escritor.encolar(registro(i));
+        }
+
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> escritos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            escritos.add(hilos.submit(escritor::vaciar));
+        }
+        int total = 0;
+        for (Future<Integer> escrito : escritos) {
+            total += escrito.get(10, TimeUnit.SECONDS);
+        }
+        hilos.shutdown();
+
+        assertEquals(5000, total);
+        assertEquals(5000, ids.stream().distinct().count());
+        assertEquals(0, escritor.pendientes());
+    }
+
+    @Test
+    void testDetener_VaciaRegistrosPendientes() {
+        EscritorAuditoriaService escritor = escritor(16, 10, EscritorAuditoriaService.Politica.ESPERAR);
+        escritor.encolar(registro(1));
+
+        escritor.detener();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Auditoria> l) -> l.size() == 1), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private EscritorAuditoriaService escritor(int capacidad, int lote, EscritorAuditoriaService.Politica politica) {
+        return new EscritorAuditoriaService(jdbcTemplate, meterRegistry, capacidad, lote, 1000, politica, 5);
+    }
+
+    private Auditoria registro(long id) {
+        return new Auditoria(LocalDateTime.now(), "recepcion", "CHECK_IN", "Check-in realizado", "Reserva", id);
+    }
+}
@@ -45,6 +45,15 @@ class GestionEstadoHabitacionTest {
     @Mock
     private com.gestion.hotelera.repository.ClienteRepository clienteRepository;
 
+    @Mock
+    private LibroIngresosService libroIngresosService;
+
+    @Mock
+    private InventarioTipoService inventarioTipoService;
+
+    @Mock
+    private OutboxService outboxService;
+
     private ReservaService reservaService;
     private HabitacionService habitacionService;
 
@@ -54,15 +63,21 @@ class GestionEstadoHabitacionTest {
                 habitacionRepository,
                 reservaRepository,
                 auditoriaService,
-                notificacionService);
+                notificacionService,
+                new DisponibilidadService(habitacionRepository,
+                        new IndiceDisponibilidadService(reservaRepository, true)),
+                mock(VersionRecursosService.class));
         reservaService = new ReservaService(
                 reservaRepository,
                 auditoriaService,
                 servicioRepository,
                 habitacionService,
                 emailService,
-                notificacionService,
-                clienteRepository);
+                outboxService,
+                clienteRepository,
+                new CalendarioOcupacionService(reservaRepository, true),
+                libroIngresosService,
+                inventarioTipoService);
     }
 
     @Test
@@ -80,6 +95,7 @@ class GestionEstadoHabitacionTest {
         Reserva reserva = new Reserva(cliente, habitacion, LocalDate.now(), LocalDate.now().plusDays(2),
                 LocalTime.of(14, 0), LocalTime.of(12, 0), 2, 160.0, "ACTIVA");
         reserva.setId(1L);
+        reserva.setVersion(0L);
 
         when(habitacionRepository.findById(1L)).thenReturn(Optional.of(habitacion));
         when(reservaRepository.save(any(Reserva.class))).thenReturn(reserva);
@@ -106,6 +122,7 @@ class GestionEstadoHabitacionTest {
         Reserva reserva = new Reserva(cliente, habitacion, LocalDate.now(), LocalDate.now().plusDays(2),
                 LocalTime.of(14, 0), LocalTime.of(12, 0), 2, 160.0, "ACTIVA");
         reserva.setId(1L);
+        reserva.setVersion(0L);
 
         when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
         when(habitacionRepository.findById(1L)).thenReturn(Optional.of(habitacion));
@@ -134,6 +151,7 @@ class GestionEstadoHabitacionTest {
         Reserva reserva = new Reserva(cliente, habitacion, LocalDate.now(), LocalDate.now().plusDays(2),
                 LocalTime.of(14, 0), LocalTime.of(12, 0), 2, 160.0, "ACTIVA");
         reserva.setId(1L);
+        reserva.setVersion(0L);
 
         when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
         when(habitacionRepository.findById(1L)).thenReturn(Optional.of(habitacion));
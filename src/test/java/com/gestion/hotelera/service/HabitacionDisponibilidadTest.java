@@ -34,7 +34,9 @@ class HabitacionDisponibilidadTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         habitacionService = new HabitacionService(habitacionRepository, reservaRepository, auditoriaService,
-                notificacionService);
+                notificacionService, new DisponibilidadService(habitacionRepository,
+                        new IndiceDisponibilidadService(reservaRepository, true)),
+                mock(VersionRecursosService.class));
     }
 
     @Test
@@ -3,6 +3,7 @@ package com.gestion.hotelera.service;
 import com.gestion.hotelera.model.Habitacion;
 import com.gestion.hotelera.repository.HabitacionRepository;
 import com.gestion.hotelera.repository.ReservaRepository;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,7 +13,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,7 +45,10 @@ public class HabitacionServiceTest {
                 habitacionRepository,
                 reservaRepository,
                 auditoriaService,
-                notificacionService);
+                notificacionService,
+                new DisponibilidadService(habitacionRepository,
+                        new IndiceDisponibilidadService(reservaRepository, true)),
+                mock(VersionRecursosService.class));
     }
 
     @Test
@@ -58,6 +67,17 @@ public class HabitacionServiceTest {
         assertThat(guardada.getNumero()).isEqualTo("201");
     }
 
+    @Test
+    void testActualizarHabitacion_SinVersion_Rechaza() {
+        Habitacion habitacion = new Habitacion("201", "Suite", 150.0, "DISPONIBLE");
+        habitacion.setId(5L);
+
+        assertThatThrownBy(() -> habitacionService.actualizarHabitacion(habitacion))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("versión");
+        verify(habitacionRepository, never()).save(any(Habitacion.class));
+    }
+
     @Test
     void testListarHabitaciones() {
         Habitacion h1 = new Habitacion();
@@ -89,4 +109,24 @@ public class HabitacionServiceTest {
         assertThat(mantenimiento).isNotEmpty();
         assertThat(mantenimiento.get(0).getNumero()).isEqualTo("301");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testActualizarEstadosHabitacionesHoy_SoloActualizaLasQueCambian() {
+        when(reservaRepository.findHabitacionesOcupadasEn(any(LocalDate.class), anyList()))
+                .thenReturn(List.of(1L, 3L, 4L));
+        when(habitacionRepository.findEstados()).thenReturn(List.of(
+                new Object[] { 1L, "101", "DISPONIBLE" },
+                new Object[] { 2L, "102", "OCUPADA" },
+                new Object[] { 3L, "103", "MANTENIMIENTO" },
+                new Object[] { 4L, "104", "ocupada" },
+                new Object[] { 5L, "105", "DISPONIBLE" }));
+        when(habitacionRepository.actualizarEstado(anyList(), any())).thenReturn(1);
+
+        habitacionService.actualizarEstadosHabitacionesHoy();
+
+        verify(habitacionRepository).actualizarEstado(List.of(1L), "OCUPADA");
+        verify(habitacionRepository).actualizarEstado(List.of(2L), "DISPONIBLE");
+        verify(habitacionRepository, never()).save(any(Habitacion.class));
+        verify(reservaRepository, never()).findAll();
+    }
+}
@@ -0,0 +1,123 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IndiceDisponibilidadServiceTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    private IndiceDisponibilidadService indice;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        indice = new IndiceDisponibilidadService(reservaRepository, true);
+    }
+
+    @Test
+    void testSinCargar_ConsultaBaseDeDatos() {
+        when(reservaRepository.existeSolapamientoEfectivo(1L, BASE, BASE.plusDays(2), null)).thenReturn(true);
+
+        assertFalse(indice.estaListo());
+        assertTrue(indice.existeSolapamiento(1L, BASE, BASE.plusDays(2), null));
+        verify(reservaRepository).existeSolapamientoEfectivo(1L, BASE, BASE.plusDays(2), null);
+    }
+
+    @Test
+    void testCargado_DetectaSolapamientoSinConsultarBaseDeDatos() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(3), null, "PENDIENTE"),
+                intervalo(2L, 1L, BASE.plusDays(10), BASE.plusDays(12), null, "ACTIVA"));
+
+        assertTrue(indice.existeSolapamiento(1L, BASE.plusDays(2), BASE.plusDays(4), null));
+        assertTrue(indice.existeSolapamiento(1L, BASE.minusDays(5), BASE.plusDays(20), null));
+        assertFalse(indice.existeSolapamiento(1L, BASE.plusDays(3), BASE.plusDays(10), null));
+        assertFalse(indice.existeSolapamiento(2L, BASE, BASE.plusDays(3), null));
+        verify(reservaRepository, never()).existeSolapamientoEfectivo(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCargado_ExcluyeLaPropiaReserva() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(3), null, "PENDIENTE"));
+
+        assertFalse(indice.existeSolapamiento(1L, BASE, BASE.plusDays(3), 1L));
+        assertTrue(indice.existeSolapamiento(1L, BASE, BASE.plusDays(3), 2L));
+    }
+
+    @Test
+    void testSalidaAnticipada_LiberaLasNochesRestantes() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(5), null, "ACTIVA"));
+
+        indice.alCambiarReserva(new ReservaCambioEvent(1L,
+                intervalo(1L, 1L, BASE, BASE.plusDays(5), null, "ACTIVA"),
+                intervalo(1L, 1L, BASE, BASE.plusDays(5), BASE.plusDays(2), "FINALIZADA")));
+
+        assertFalse(indice.existeSolapamiento(1L, BASE.plusDays(2), BASE.plusDays(5), null));
+        assertTrue(indice.existeSolapamiento(1L, BASE.plusDays(1), BASE.plusDays(2), null));
+    }
+
+    @Test
+    void testCancelacionYEliminacion_RetiranLaReserva() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(3), null, "PENDIENTE"),
+                intervalo(2L, 1L, BASE.plusDays(5), BASE.plusDays(7), null, "ARCHIVADA"));
+
+        indice.alCambiarReserva(new ReservaCambioEvent(1L, null,
+                intervalo(1L, 1L, BASE, BASE.plusDays(3), null, "CANCELADA")));
+        indice.alCambiarReserva(new ReservaCambioEvent(2L,
+                intervalo(2L, 1L, BASE.plusDays(5), BASE.plusDays(7), null, "ARCHIVADA"), null));
+
+        assertFalse(indice.existeSolapamiento(1L, BASE, BASE.plusDays(10), null));
+    }
+
+    @Test
+    void testCambioDeHabitacion_MueveElIntervalo() {
+        cargar(intervalo(1L, 1L, BASE, BASE.plusDays(3), null, "PENDIENTE"));
+
+        indice.alCambiarReserva(new ReservaCambioEvent(1L,
+                intervalo(1L, 1L, BASE, BASE.plusDays(3), null, "PENDIENTE"),
+                intervalo(1L, 2L, BASE, BASE.plusDays(3), null, "PENDIENTE")));
+
+        assertFalse(indice.existeSolapamiento(1L, BASE, BASE.plusDays(3), null));
+        assertTrue(indice.existeSolapamiento(2L, BASE, BASE.plusDays(3), null));
+    }
+
+    @Test
+    void testDeshabilitado_SiempreConsultaBaseDeDatos() {
+        IndiceDisponibilidadService deshabilitado = new IndiceDisponibilidadService(reservaRepository, false);
+        deshabilitado.alIniciarAplicacion();
+
+        deshabilitado.existeSolapamiento(1L, BASE, BASE.plusDays(1), null);
+
+        verify(reservaRepository, never()).findIntervalosBloqueantesDesde(anyLong(), any());
+        verify(reservaRepository).existeSolapamientoEfectivo(1L, BASE, BASE.plusDays(1), null);
+    }
+
+    private void cargar(IntervaloReserva... intervalos) {
+        when(reservaRepository.findIntervalosBloqueantesDesde(anyLong(), any()))
+                .thenReturn(Arrays.asList(intervalos))
+                .thenReturn(Collections.emptyList());
+        indice.recargar();
+        assertTrue(indice.estaListo());
+    }
+
+    private IntervaloReserva intervalo(Long id, Long habitacionId, LocalDate inicio, LocalDate fin,
+            LocalDate salidaReal, String estado) {
+        return new IntervaloReserva(id, habitacionId, inicio, fin, salidaReal, estado);
+    }
+}
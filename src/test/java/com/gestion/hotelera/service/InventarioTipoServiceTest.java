@@ -0,0 +1,193 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.dto.CotizacionTipo;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.model.RetencionInventario;
+import com.gestion.hotelera.repository.InventarioTipoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventarioTipoServiceTest extends BaseIntegrationTest {
+
+    private static final LocalDate LLEGADA = LocalDate.of(2030, 3, 1);
+    private static final LocalDate SALIDA = LocalDate.of(2030, 3, 4);
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private InventarioTipoService inventarioTipoService;
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private InventarioTipoRepository inventarioTipoRepository;
+
+    private Habitacion primera;
+    private Habitacion segunda;
+    private Habitacion enMantenimiento;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        primera = new Habitacion("L01", "Loft", 100.0, "DISPONIBLE");
+        segunda = new Habitacion("L02", "Loft", 100.0, "DISPONIBLE");
+        entityManager.persist(primera);
+        entityManager.persist(segunda);
+        enMantenimiento = new Habitacion("L03", "Loft", 100.0, "MANTENIMIENTO");
+        entityManager.persist(enMantenimiento);
+        cliente = new Cliente();
+        cliente.setNombres("Inventario");
+        cliente.setApellidos("Cliente");
+        cliente.setDni("63000001");
+        entityManager.persist(cliente);
+        entityManager.flush();
+    }
+
+    @Test
+    void testCotizar_CapacidadYPrecioPorNoche() {
+        CotizacionTipo cotizacion = inventarioTipoService.cotizar("loft", LLEGADA, SALIDA);
+
+        assertEquals("LOFT", cotizacion.getTipo());
+        assertEquals(3, cotizacion.getNoches().size());
+        assertEquals(3, cotizacion.getDisponibles());
+        assertEquals(100.0, cotizacion.getPrecioPorNoche());
+        assertEquals(300.0, cotizacion.getPrecioTotal());
+        assertThrows(IllegalArgumentException.class, () -> inventarioTipoService.cotizar("Loft", SALIDA, LLEGADA));
+    }
+
+    @Test
+    void testReservaPorHabitacion_CuentaComoVendidaYSeLiberaAlCancelar() {
+        Reserva reserva = reservaService.crearOActualizarReserva(reserva(primera, LLEGADA, SALIDA));
+
+        CotizacionTipo cotizacion = inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA.plusDays(1));
+        assertEquals(1, cotizacion.getNoches().get(0).getVendidas());
+        assertEquals(1, cotizacion.getNoches().get(2).getVendidas());
+        assertEquals(0, cotizacion.getNoches().get(3).getVendidas());
+        assertEquals(2, cotizacion.getDisponibles());
+
+        reservaService.cancelarReserva(reserva.getId());
+
+        assertEquals(3, inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA).getDisponibles());
+    }
+
+    @Test
+    void testConfirmarRetencion_AsignaHabitacionLibreYConvierteEnVenta() {
+        RetencionInventario retencion = inventarioTipoService.retener("Loft", LLEGADA, SALIDA, 1);
+        reservaService.crearOActualizarReserva(reserva(primera, LLEGADA.plusDays(1), SALIDA));
+
+        CotizacionTipo lleno = inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA);
+        assertEquals(1, lleno.getNoches().get(0).getRetenidas());
+        assertEquals(1, lleno.getDisponibles());
+
+        Reserva datos = new Reserva();
+        datos.setCliente(cliente);
+        datos.setHoraEntrada(LocalTime.of(14, 0));
+        datos.setHoraSalida(LocalTime.of(12, 0));
+        datos.setTotalPagar(1.0);
+        Reserva confirmada = reservaService.confirmarRetencion(retencion.getCodigo(), datos);
+
+        assertEquals(segunda.getId(), confirmada.getHabitacion().getId());
+        assertEquals(LLEGADA, confirmada.getFechaInicio());
+        assertEquals(300.0, confirmada.getTotalPagar());
+        assertEquals(RetencionInventario.CONFIRMADA, retencion.getEstado());
+        CotizacionTipo despues = inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA);
+        assertEquals(0, despues.getNoches().get(0).getRetenidas());
+        assertEquals(1, despues.getNoches().get(0).getVendidas());
+        assertEquals(2, despues.getNoches().get(1).getVendidas());
+        assertThrows(IllegalArgumentException.class,
+                () -> reservaService.confirmarRetencion(retencion.getCodigo(), datos));
+    }
+
+    @Test
+    void testRetenciones_CaducanYRechazanExcesoDeCapacidad() {
+        RetencionInventario retencion = inventarioTipoService.retener("Loft", LLEGADA, SALIDA, 2);
+        assertEquals(1, inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA).getDisponibles());
+
+        assertEquals(1, inventarioTipoService.expirarVencidas(retencion.getExpiraEn().plusSeconds(1)));
+        assertEquals(RetencionInventario.EXPIRADA, retencion.getEstado());
+        assertEquals(3, inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA).getDisponibles());
+        assertEquals(0, inventarioTipoService.expirarVencidas(LocalDateTime.now().plusDays(1)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inventarioTipoService.retener("Loft", LLEGADA, SALIDA, 11));
+        inventarioTipoService.retener("Loft", LLEGADA, LLEGADA.plusDays(1), 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> inventarioTipoService.retener("Loft", LLEGADA, SALIDA, 3));
+        assertEquals(2, inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA).getDisponibles());
+    }
+
+    @Test
+    void testHabitacionEnMantenimientoHoy_NoReduceLaCapacidadFutura() {
+        enMantenimiento.setEstado("DISPONIBLE");
+        reservaService.crearOActualizarReserva(reserva(enMantenimiento, LLEGADA, SALIDA));
+        enMantenimiento.setEstado("MANTENIMIENTO");
+        entityManager.flush();
+
+        reservaService.crearOActualizarReserva(reserva(primera, LLEGADA, SALIDA));
+        reservaService.crearOActualizarReserva(reserva(segunda, LLEGADA, SALIDA));
+
+        assertEquals(0, inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA).getDisponibles());
+    }
+
+    @Test
+    void testEliminarCliente_LiberaElInventarioDeSusReservas() {
+        Reserva reserva = reservaService.crearOActualizarReserva(reserva(primera, LLEGADA, SALIDA));
+        reserva.setEstadoReserva("ARCHIVADA");
+        entityManager.flush();
+        assertEquals(2, inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA).getDisponibles());
+
+        assertTrue(clienteService.eliminarClientePorId(cliente.getId()));
+
+        entityManager.flush();
+        entityManager.clear();
+        CotizacionTipo cotizacion = inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA);
+        assertEquals(3, cotizacion.getDisponibles());
+        assertEquals(0, cotizacion.getNoches().get(0).getVendidas());
+    }
+
+    @Test
+    void testReconciliar_CorrigeSoloLasNochesDesviadas() {
+        reservaService.crearOActualizarReserva(reserva(primera, LLEGADA, SALIDA));
+        inventarioTipoService.retener("Loft", LLEGADA, LLEGADA.plusDays(1), 1);
+        inventarioTipoRepository.fijar("LOFT", LLEGADA.plusDays(1), 0, 2);
+        inventarioTipoRepository.fijar("LOFT", LLEGADA, 2, 1);
+        entityManager.clear();
+
+        inventarioTipoService.reconciliar();
+
+        entityManager.flush();
+        entityManager.clear();
+        CotizacionTipo cotizacion = inventarioTipoService.cotizar("Loft", LLEGADA, SALIDA);
+        assertEquals(1, cotizacion.getNoches().get(0).getRetenidas());
+        assertEquals(1, cotizacion.getNoches().get(0).getVendidas());
+        assertEquals(0, cotizacion.getNoches().get(1).getRetenidas());
+        assertEquals(1, cotizacion.getNoches().get(1).getVendidas());
+        assertEquals(1, cotizacion.getDisponibles());
+    }
+
+    private Reserva reserva(Habitacion habitacion, LocalDate inicio, LocalDate fin) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(cliente);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(fin);
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia((int) java.time.temporal.ChronoUnit.DAYS.between(inicio, fin));
+        reserva.setTotalPagar(100.0 * reserva.getDiasEstadia());
+        reserva.setEstadoReserva("PENDIENTE");
+        return reserva;
+    }
+}
@@ -0,0 +1,195 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.ContribucionIngreso;
+import com.gestion.hotelera.model.IngresoDiario;
+import com.gestion.hotelera.model.IngresoReserva;
+import com.gestion.hotelera.model.Pago;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.repository.IngresoDiarioRepository;
+import com.gestion.hotelera.repository.IngresoReservaRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("null")
+class LibroIngresosServiceTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private IngresoDiarioRepository ingresoDiarioRepository;
+
+    @Mock
+    private IngresoReservaRepository ingresoReservaRepository;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LibroIngresosService libro;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        libro = new LibroIngresosService(ingresoDiarioRepository, ingresoReservaRepository, reservaRepository,
+                new CoordinadorTareasLocal(), transactionManager);
+        when(ingresoReservaRepository.findById(anyLong())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testGeneraIngreso_SegunEstadoYPago() {
+        assertTrue(LibroIngresosService.generaIngreso("FINALIZADA", null));
+        assertTrue(LibroIngresosService.generaIngreso("ACTIVA", null));
+        assertTrue(LibroIngresosService.generaIngreso("ARCHIVADA", null));
+        assertTrue(LibroIngresosService.generaIngreso("PENDIENTE", "COMPLETADO"));
+        assertFalse(LibroIngresosService.generaIngreso("PENDIENTE", null));
+        assertFalse(LibroIngresosService.generaIngreso("CANCELADA", "COMPLETADO"));
+        assertEquals(0.0, LibroIngresosService.calcularMonto(100.0, 20.0, 200.0));
+    }
+
+    @Test
+    void testContabilizar_ReservaFinalizadaNueva_CreaDiaYAsiento() {
+        Reserva reserva = reserva(1L, "FINALIZADA", 300.0, BASE.plusDays(2));
+        reserva.setFechaSalidaReal(BASE.plusDays(1));
+
+        libro.contabilizar(reserva);
+
+        verify(reservaRepository).findParaContabilizar(List.of(1L));
+        verify(ingresoDiarioRepository).acumular(BASE.plusDays(1), 300.0);
+        verify(ingresoDiarioRepository, never()).save(any());
+        ArgumentCaptor<IngresoReserva> asiento = ArgumentCaptor.forClass(IngresoReserva.class);
+        verify(ingresoReservaRepository).save(asiento.capture());
+        assertEquals(BASE.plusDays(1), asiento.getValue().getFecha());
+        assertEquals(300.0, asiento.getValue().getMonto());
+    }
+
+    @Test
+    void testContabilizar_PendienteSinPago_NoGeneraIngreso() {
+        libro.contabilizar(reserva(1L, "PENDIENTE", 200.0, BASE));
+
+        verify(ingresoDiarioRepository, never()).acumular(any(), anyDouble());
+        verify(ingresoReservaRepository, never()).save(any());
+    }
+
+    @Test
+    void testContabilizar_PendienteConPagoCompletado_GeneraIngreso() {
+        Reserva reserva = reserva(1L, "PENDIENTE", 200.0, BASE);
+        Pago pago = new Pago();
+        pago.setEstado("COMPLETADO");
+        reserva.setPago(pago);
+        when(ingresoDiarioRepository.acumular(BASE, 200.0)).thenReturn(1);
+
+        libro.contabilizar(reserva);
+
+        verify(ingresoDiarioRepository).acumular(BASE, 200.0);
+        verify(ingresoDiarioRepository, never()).save(any());
+    }
+
+    @Test
+    void testContabilizar_CambioDeFecha_MueveElMonto() {
+        IngresoReserva previo = new IngresoReserva(1L, BASE.plusDays(5), 300.0);
+        when(ingresoReservaRepository.findById(1L)).thenReturn(Optional.of(previo));
+        when(ingresoDiarioRepository.acumular(any(), anyDouble())).thenReturn(1);
+        Reserva reserva = reserva(1L, "FINALIZADA", 300.0, BASE.plusDays(5));
+        reserva.setFechaSalidaReal(BASE.plusDays(2));
+
+        libro.contabilizar(reserva);
+
+        verify(ingresoDiarioRepository).acumular(BASE.plusDays(5), -300.0);
+        verify(ingresoDiarioRepository).acumular(BASE.plusDays(2), 300.0);
+        assertEquals(BASE.plusDays(2), previo.getFecha());
+    }
+
+    @Test
+    void testContabilizar_Cancelacion_RetiraElMonto() {
+        IngresoReserva previo = new IngresoReserva(1L, BASE, 300.0);
+        when(ingresoReservaRepository.findById(1L)).thenReturn(Optional.of(previo));
+        when(ingresoDiarioRepository.acumular(any(), anyDouble())).thenReturn(1);
+
+        libro.contabilizar(reserva(1L, "CANCELADA", 300.0, BASE));
+
+        verify(ingresoDiarioRepository).acumular(BASE, -300.0);
+        verify(ingresoReservaRepository).delete(previo);
+    }
+
+    @Test
+    void testContabilizar_SinCambios_NoEscribe() {
+        when(ingresoReservaRepository.findById(1L)).thenReturn(Optional.of(new IngresoReserva(1L, BASE, 300.0)));
+
+        libro.contabilizar(reserva(1L, "FINALIZADA", 300.0, BASE));
+
+        verify(ingresoDiarioRepository, never()).acumular(any(), anyDouble());
+    }
+
+    @Test
+    void testIngresosPorDia_RellenaDiasSinMovimiento() {
+        when(ingresoDiarioRepository.findByFechaBetweenOrderByFecha(BASE, BASE.plusDays(2)))
+                .thenReturn(List.of(new IngresoDiario(BASE.plusDays(1), 450.0)));
+
+        Map<LocalDate, Double> porDia = libro.ingresosPorDia(BASE, BASE.plusDays(2));
+
+        assertEquals(3, porDia.size());
+        assertEquals(0.0, porDia.get(BASE));
+        assertEquals(450.0, porDia.get(BASE.plusDays(1)));
+        verify(reservaRepository, never()).findAll();
+    }
+
+    @Test
+    void testReconciliar_CorrigeSoloReservasYDiasDescuadrados() {
+        when(reservaRepository.findContribucionesDesde(anyLong(), any()))
+                .thenReturn(Arrays.asList(
+                        new ContribucionIngreso(1L, "FINALIZADA", null, 500.0, 0.0, 0.0, null, BASE),
+                        new ContribucionIngreso(2L, "FINALIZADA", null, 550.0, 0.0, 0.0, BASE.minusDays(1),
+                                BASE),
+                        new ContribucionIngreso(3L, "PENDIENTE", null, 300.0, 0.0, 0.0, null, BASE)))
+                .thenReturn(Collections.emptyList());
+        when(ingresoReservaRepository.findAllById(anyList())).thenReturn(List.of(
+                new IngresoReserva(2L, BASE.minusDays(1), 550.0),
+                new IngresoReserva(3L, BASE, 300.0)));
+        Reserva primera = reserva(1L, "FINALIZADA", 500.0, BASE);
+        primera.setMontoDescuento(0.0);
+        Reserva tercera = reserva(3L, "PENDIENTE", 300.0, BASE);
+        when(reservaRepository.findParaContabilizar(List.of(1L, 3L))).thenReturn(List.of(primera, tercera));
+        when(ingresoReservaRepository.findById(3L)).thenReturn(Optional.of(new IngresoReserva(3L, BASE, 300.0)));
+        when(ingresoReservaRepository.findHuerfanas()).thenReturn(List.of(9L));
+        when(ingresoReservaRepository.findById(9L)).thenReturn(Optional.of(new IngresoReserva(9L, BASE, 80.0)));
+        when(ingresoDiarioRepository.findFechasDescuadradas()).thenReturn(List.of(BASE));
+        when(ingresoReservaRepository.sumarPorFecha(BASE)).thenReturn(500.0);
+
+        libro.reconciliar();
+
+        verify(ingresoDiarioRepository).acumular(BASE, 500.0);
+        verify(ingresoDiarioRepository).acumular(BASE, -300.0);
+        verify(ingresoDiarioRepository).acumular(BASE, -80.0);
+        verify(ingresoDiarioRepository, never()).acumular(eq(BASE.minusDays(1)), anyDouble());
+        verify(ingresoDiarioRepository).fijar(BASE, 500.0);
+        verify(ingresoReservaRepository, never()).deleteAll();
+    }
+
+    private Reserva reserva(Long id, String estado, Double total, LocalDate fin) {
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setEstadoReserva(estado);
+        reserva.setTotalPagar(total);
+        reserva.setFechaInicio(fin.minusDays(2));
+        reserva.setFechaFin(fin);
+        return reserva;
+    }
+}
@@ -0,0 +1,187 @@
+package com.gestion.hotelera.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.hotelera.model.EventoOutbox;
+import com.gestion.hotelera.repository.EventoOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("null")
+class OutboxServiceTest {
+
+    @Mock
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Runnable> envios = new ArrayList<>();
+
+    private OutboxService outbox;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outbox = new OutboxService(eventoOutboxRepository, emailService, notificacionService, objectMapper,
+                new CoordinadorTareasLocal(), transactionManager, envios::add, 50, 3, 1000, 60000);
+        when(emailService.crearMensaje(anyString(), anyString(), anyString())).thenAnswer(inv -> {
+            SimpleMailMessage mensaje = new SimpleMailMessage();
+            mensaje.setTo(inv.getArgument(0, String.class));
+            mensaje.setSubject(inv.getArgument(1));
+            mensaje.setText(inv.getArgument(2));
+            return mensaje;
+        });
+    }
+
+    @Test
+    void testEncolarNotificacion_GuardaEventoPendiente() {
+        outbox.encolarNotificacion("reserva-checkin-7", "Check-In Realizado", "Habitación 101", "INFORMACION",
+                "STAFF");
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(eventoOutboxRepository).insertarSiNoExiste(eq("reserva-checkin-7"),
+                eq(OutboxService.TIPO_NOTIFICACION), payload.capture(), eq(OutboxService.PENDIENTE), any());
+        assertTrue(payload.getValue().contains("Check-In Realizado"));
+    }
+
+    @Test
+    void testEncolar_ClaveRepetida_NoLanzaNiGuardaConSave() {
+        when(eventoOutboxRepository.insertarSiNoExiste(eq("pago-email-reserva-3"), any(), any(), any(), any()))
+                .thenReturn(0);
+
+        assertDoesNotThrow(() -> outbox.encolarEmail("pago-email-reserva-3", mensaje("ana@test.com")));
+
+        verify(eventoOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    void testDespachar_EnviaFueraDeLaTransaccionDelReclamo() throws Exception {
+        EventoOutbox correo = evento(11L, "reserva-confirmacion-11", OutboxService.TIPO_EMAIL,
+                new OutboxService.CorreoPayload(null, "ana@test.com", "Confirmación", "Hola"));
+        when(eventoOutboxRepository.findParaDespacho(eq(OutboxService.PENDIENTE), any(), any()))
+                .thenReturn(List.of(correo));
+        when(eventoOutboxRepository.findAllById(any())).thenReturn(List.of(correo));
+        when(emailService.entregarAhora(anyList())).thenReturn(Collections.emptyMap());
+
+        outbox.despachar();
+
+        verify(transactionManager).commit(any());
+        verify(emailService, never()).entregarAhora(anyList());
+        assertEquals(OutboxService.PENDIENTE, correo.getEstado());
+        assertTrue(correo.getProximoIntento().isAfter(LocalDateTime.now().plusSeconds(30)));
+
+        ejecutarEnvios();
+
+        verify(emailService).entregarAhora(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(OutboxService.PROCESADO, correo.getEstado());
+    }
+
+    @Test
+    void testDespachar_EntregaCorreosYNotificaciones() throws Exception {
+        EventoOutbox correo = evento(1L, "reserva-confirmacion-1", OutboxService.TIPO_EMAIL,
+                new OutboxService.CorreoPayload("noreply@oasisdigital.com", "ana@test.com", "Confirmación", "Hola"));
+        EventoOutbox notificacion = evento(2L, "reserva-nueva-staff-1", OutboxService.TIPO_NOTIFICACION,
+                new OutboxService.NotificacionPayload("Nueva Reserva", "Ana - 101", "INFORMACION", "STAFF"));
+        when(eventoOutboxRepository.findParaDespacho(eq(OutboxService.PENDIENTE), any(), any()))
+                .thenReturn(List.of(correo, notificacion));
+        when(eventoOutboxRepository.findAllById(any())).thenReturn(List.of(correo));
+        when(emailService.entregarAhora(anyList())).thenReturn(Collections.emptyMap());
+
+        outbox.despachar();
+        ejecutarEnvios();
+
+        verify(emailService).entregarAhora(argThat(lista -> lista.size() == 1
+                && "noreply@oasisdigital.com".equals(lista.get(0).getFrom())));
+        verify(notificacionService).crearNotificacion("Nueva Reserva", "Ana - 101", "INFORMACION", "STAFF");
+        assertEquals(OutboxService.PROCESADO, correo.getEstado());
+        assertEquals(OutboxService.PROCESADO, notificacion.getEstado());
+        assertNotNull(correo.getFechaProcesado());
+    }
+
+    @Test
+    void testDespachar_FalloSmtp_ReprogramaYLuegoMarcaFallido() throws Exception {
+        EventoOutbox correo = evento(5L, "pago-email-reserva-5", OutboxService.TIPO_EMAIL,
+                new OutboxService.CorreoPayload(null, "ana@test.com", "Pago", "Gracias"));
+        when(eventoOutboxRepository.findParaDespacho(eq(OutboxService.PENDIENTE), any(), any()))
+                .thenReturn(List.of(correo));
+        when(eventoOutboxRepository.findAllById(any())).thenReturn(List.of(correo));
+        when(emailService.entregarAhora(anyList())).thenAnswer(inv -> {
+            List<SimpleMailMessage> mensajes = inv.getArgument(0);
+            return Map.of(mensajes.get(0), new MailSendException("SMTP no disponible"));
+        });
+
+        outbox.despachar();
+        ejecutarEnvios();
+
+        assertEquals(OutboxService.PENDIENTE, correo.getEstado());
+        assertEquals(1, correo.getIntentos());
+        assertTrue(correo.getProximoIntento().isAfter(LocalDateTime.now()));
+        assertTrue(correo.getProximoIntento().isBefore(LocalDateTime.now().plusSeconds(30)));
+
+        outbox.despachar();
+        ejecutarEnvios();
+        outbox.despachar();
+        ejecutarEnvios();
+
+        assertEquals(OutboxService.FALLIDO, correo.getEstado());
+        assertEquals("SMTP no disponible", correo.getUltimoError());
+    }
+
+    @Test
+    void testPurgarProcesados_PasaPorElCoordinador() {
+        CoordinadorTareas coordinador = mock(CoordinadorTareas.class);
+        OutboxService conCoordinador = new OutboxService(eventoOutboxRepository, emailService, notificacionService,
+                objectMapper, coordinador, transactionManager, envios::add, 50, 3, 1000, 60000);
+
+        conCoordinador.purgarProcesados();
+
+        verify(coordinador).ejecutar(eq("outbox_purga"), any());
+        verify(eventoOutboxRepository, never()).purgar(any(), any());
+    }
+
+    private void ejecutarEnvios() {
+        List<Runnable> pendientes = new ArrayList<>(envios);
+        envios.clear();
+        pendientes.forEach(Runnable::run);
+    }
+
+    private EventoOutbox evento(Long id, String clave, String tipo, Object payload) throws Exception {
+        EventoOutbox evento = new EventoOutbox(clave, tipo, objectMapper.writeValueAsString(payload),
+                OutboxService.PENDIENTE, LocalDateTime.now());
+        evento.setId(id);
+        return evento;
+    }
+
+    private SimpleMailMessage mensaje(String destinatario) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setTo(destinatario);
+        mensaje.setSubject("Pago Confirmado");
+        mensaje.setText("Gracias");
+        return mensaje;
+    }
+}
@@ -0,0 +1,81 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.dto.Cursor;
+import com.gestion.hotelera.dto.CursorPage;
+import com.gestion.hotelera.model.Auditoria;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.repository.AuditoriaRepository;
+import com.gestion.hotelera.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginacionCursorTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AuditoriaRepository auditoriaRepository;
+    @Autowired
+    private AuditoriaService auditoriaService;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ClienteService clienteService;
+
+    @Test
+    void testAuditoria_RecorreTodoSinDuplicadosConEmpates() {
+        LocalDateTime instante = LocalDateTime.of(2031, 5, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            auditoriaRepository.save(new Auditoria(i < 3 ? instante : instante.minusMinutes(i), "admin",
+                    "PRUEBA_" + i, "detalle", "Test", (long) i));
+        }
+        List<Long> esperados = auditoriaRepository.findAll().stream()
+                .sorted(Comparator.comparing(Auditoria::getTimestamp).thenComparing(Auditoria::getId).reversed())
+                .map(Auditoria::getId)
+                .toList();
+
+        List<Long> recorridos = new ArrayList<>();
+        String cursor = null;
+        CursorPage<Auditoria> pagina;
+        do {
+            pagina = auditoriaService.obtenerLogsDesde(cursor, 2, false);
+            pagina.getContenido().forEach(a -> recorridos.add(a.getId()));
+            cursor = pagina.getSiguienteCursor();
+        } while (pagina.isHayMas());
+
+        assertEquals(esperados, recorridos);
+        assertNull(pagina.getTotal());
+    }
+
+    @Test
+    void testClientes_TotalOpcionalYCursorSiguiente() {
+        for (int i = 0; i < 3; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombres("Cliente");
+            cliente.setApellidos("Cursor");
+            cliente.setDni("8000000" + i);
+            clienteRepository.save(cliente);
+        }
+
+        CursorPage<Cliente> primera = clienteService.obtenerClientesDesde(null, 2, true);
+        CursorPage<Cliente> segunda = clienteService.obtenerClientesDesde(primera.getSiguienteCursor(), 2, false);
+
+        assertEquals(clienteRepository.count(), primera.getTotal());
+        assertTrue(primera.isHayMas());
+        assertEquals(Cursor.codificar(primera.getContenido().get(1).getId()), primera.getSiguienteCursor());
+        assertTrue(segunda.getContenido().get(0).getId() > primera.getContenido().get(1).getId());
+    }
+
+    @Test
+    void testCursorInvalido_LanzaIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> auditoriaService.obtenerLogsDesde("%%%", 10, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> clienteService.obtenerClientesDesde(Cursor.codificar("abc"), 10, false));
+    }
+}
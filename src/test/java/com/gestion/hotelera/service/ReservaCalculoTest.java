@@ -29,10 +29,16 @@ class ReservaCalculoTest {
     private EmailService emailService;
 
     @Mock
-    private NotificacionService notificacionService;
+    private com.gestion.hotelera.repository.ClienteRepository clienteRepository;
 
     @Mock
-    private com.gestion.hotelera.repository.ClienteRepository clienteRepository;
+    private LibroIngresosService libroIngresosService;
+
+    @Mock
+    private InventarioTipoService inventarioTipoService;
+
+    @Mock
+    private OutboxService outboxService;
 
     private ReservaService reservaService;
 
@@ -45,8 +51,11 @@ class ReservaCalculoTest {
                 servicioRepository,
                 habitacionService,
                 emailService,
-                notificacionService,
-                clienteRepository);
+                outboxService,
+                clienteRepository,
+                new CalendarioOcupacionService(reservaRepository, true),
+                libroIngresosService,
+                inventarioTipoService);
     }
 
     @Test
@@ -37,10 +37,16 @@ class ReservaCancelacionTest {
         private EmailService emailService;
 
         @Mock
-        private NotificacionService notificacionService;
+        private com.gestion.hotelera.repository.ClienteRepository clienteRepository;
 
         @Mock
-        private com.gestion.hotelera.repository.ClienteRepository clienteRepository;
+        private LibroIngresosService libroIngresosService;
+
+        @Mock
+        private InventarioTipoService inventarioTipoService;
+
+        @Mock
+        private OutboxService outboxService;
 
         private ReservaService reservaService;
 
@@ -53,8 +59,11 @@ class ReservaCancelacionTest {
                                 servicioRepository,
                                 habitacionService,
                                 emailService,
-                                notificacionService,
-                                clienteRepository);
+                                outboxService,
+                                clienteRepository,
+                                new CalendarioOcupacionService(reservaRepository, true),
+                                libroIngresosService,
+                                inventarioTipoService);
         }
 
         @Test
@@ -0,0 +1,150 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.repository.ClienteRepository;
+import com.gestion.hotelera.repository.HabitacionRepository;
+import com.gestion.hotelera.repository.InventarioReservaRepository;
+import com.gestion.hotelera.repository.InventarioTipoRepository;
+import com.gestion.hotelera.repository.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservaConcurrenciaTest {
+
+    private static final int HABITACIONES = 4;
+    private static final int INTENTOS_POR_HABITACION = 8;
+    private static final LocalDate LLEGADA = LocalDate.of(2031, 5, 10);
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private InventarioReservaRepository inventarioReservaRepository;
+    @Autowired
+    private InventarioTipoRepository inventarioTipoRepository;
+
+    private final List<Habitacion> habitaciones = new ArrayList<>();
+    private final List<Cliente> clientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < HABITACIONES; i++) {
+            habitaciones.add(habitacionRepository.save(new Habitacion("X" + i, "Doble", 90.0, "DISPONIBLE")));
+        }
+        for (int i = 0; i < HABITACIONES * INTENTOS_POR_HABITACION; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombres("Concurrente");
+            cliente.setApellidos("Cliente");
+            cliente.setDni(String.format("7%07d", i));
+            clientes.add(clienteRepository.save(cliente));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Cliente cliente : clientes) {
+            List<Reserva> reservas = reservaRepository.findByClienteIdOrderByIdAsc(cliente.getId());
+            inventarioReservaRepository.deleteAllById(reservas.stream().map(Reserva::getId).toList());
+            reservaRepository.deleteAll(reservas);
+        }
+        inventarioTipoRepository.deleteAll(inventarioTipoRepository.findNoches("DOBLE", LLEGADA, LLEGADA.plusDays(5)));
+        clienteRepository.deleteAll(clientes);
+        habitacionRepository.deleteAll(habitaciones);
+    }
+
+    @Test
+    void testCrearReservasConcurrentes_UnaSolaPorHabitacionYFechas() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch salida = new CountDownLatch(1);
+        Map<Long, AtomicInteger> exitosPorHabitacion = new ConcurrentHashMap<>();
+        AtomicInteger rechazadas = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>();
+        try {
+            for (int i = 0; i < clientes.size(); i++) {
+                Habitacion habitacion = habitaciones.get(i % HABITACIONES);
+                Cliente cliente = clientes.get(i);
+                LocalDate inicio = LLEGADA.plusDays(i % 3);
+                tareas.add(pool.submit(() -> {
+                    salida.await();
+                    try {
+                        reservaService.crearOActualizarReserva(reserva(cliente, habitacion, inicio));
+                        exitosPorHabitacion.computeIfAbsent(habitacion.getId(), k -> new AtomicInteger())
+                                .incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        assertEquals("La habitación ya está reservada en las fechas seleccionadas", e.getMessage());
+                        rechazadas.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(HABITACIONES, exitosPorHabitacion.size());
+        exitosPorHabitacion.values().forEach(exitos -> assertEquals(1, exitos.get()));
+        assertEquals(HABITACIONES * (INTENTOS_POR_HABITACION - 1), rechazadas.get());
+
+        for (Habitacion habitacion : habitaciones) {
+            assertFalse(reservaRepository.existeSolapamientoEfectivo(habitacion.getId(), LLEGADA.minusDays(30),
+                    LLEGADA.plusDays(30), idUnicaReserva(habitacion)));
+        }
+    }
+
+    private Long idUnicaReserva(Habitacion habitacion) {
+        List<Long> ids = new ArrayList<>();
+        for (Cliente cliente : clientes) {
+            reservaRepository.findByClienteIdOrderByIdAsc(cliente.getId()).stream()
+                    .filter(r -> r.getHabitacion().getId().equals(habitacion.getId()))
+                    .forEach(r -> ids.add(r.getId()));
+        }
+        assertEquals(1, ids.size());
+        return ids.get(0);
+    }
+
+    private Reserva reserva(Cliente cliente, Habitacion habitacion, LocalDate inicio) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(cliente);
+        reserva.setHabitacion(new Habitacion(habitacion.getId()));
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(inicio.plusDays(3));
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia(3);
+        reserva.setTotalPagar(270.0);
+        reserva.setEstadoReserva("PENDIENTE");
+        return reserva;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.dto.PagoRequest;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservaIngresosTest extends BaseIntegrationTest {
+
+    private static final LocalDate LLEGADA = LocalDate.of(2032, 6, 1);
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private PagoService pagoService;
+    @Autowired
+    private LibroIngresosService libroIngresosService;
+
+    private Habitacion habitacion;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        habitacion = new Habitacion("I01", "Simple", 100.0, "DISPONIBLE");
+        entityManager.persist(habitacion);
+        cliente = new Cliente();
+        cliente.setNombres("Ingresos");
+        cliente.setApellidos("Cliente");
+        cliente.setDni("64000001");
+        entityManager.persist(cliente);
+        entityManager.flush();
+    }
+
+    @Test
+    void testCalcularIngresosTotales_SumaReservasFinalizadasYPagadas() {
+        LocalDate hoy = LocalDate.now();
+        double antes = reservaService.calcularIngresosTotales();
+        double antesHoy = libroIngresosService.ingresosPorDia(hoy, hoy).get(hoy);
+
+        Reserva finalizada = reservaService.crearOActualizarReserva(reserva(LLEGADA, 3));
+        assertEquals(antes, reservaService.calcularIngresosTotales(), 0.001);
+        reservaService.finalizarReserva(finalizada.getId());
+
+        Reserva pagada = reservaService.crearOActualizarReserva(reserva(LLEGADA.plusDays(5), 2));
+        PagoRequest pago = new PagoRequest();
+        pago.setReservaId(pagada.getId());
+        pago.setMetodoPago("EFECTIVO");
+        assertTrue(pagoService.procesarPago(pago).isExito());
+
+        Reserva cancelada = reservaService.crearOActualizarReserva(reserva(LLEGADA.plusDays(10), 5));
+        reservaService.cancelarReserva(cancelada.getId());
+
+        sincronizar();
+        assertEquals(antes + 500.0, reservaService.calcularIngresosTotales(), 0.001);
+        assertEquals(antesHoy + 300.0, libroIngresosService.ingresosPorDia(hoy, hoy).get(hoy), 0.001);
+        assertEquals(200.0, libroIngresosService.totalEntre(LLEGADA.plusDays(7), LLEGADA.plusDays(7)), 0.001);
+
+        reservaService.realizarCheckOut(pagada.getId());
+
+        sincronizar();
+        assertEquals(antes + 500.0, reservaService.calcularIngresosTotales(), 0.001);
+        assertEquals(antesHoy + 500.0, libroIngresosService.ingresosPorDia(hoy, hoy).get(hoy), 0.001);
+        assertEquals(0.0, libroIngresosService.totalEntre(LLEGADA.plusDays(7), LLEGADA.plusDays(7)), 0.001);
+    }
+
+    private void sincronizar() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Reserva reserva(LocalDate inicio, int noches) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(cliente);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(inicio.plusDays(noches));
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia((int) ChronoUnit.DAYS.between(inicio, inicio.plusDays(noches)));
+        reserva.setTotalPagar(100.0 * noches);
+        reserva.setEstadoReserva("PENDIENTE");
+        return reserva;
+    }
+}
@@ -0,0 +1,112 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.model.Usuario;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservaPorClienteTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    private Habitacion habitacion;
+    private Cliente cliente;
+    private Cliente otro;
+
+    @BeforeEach
+    void setUp() {
+        habitacion = new Habitacion("C01", "Doble", 90.0, "DISPONIBLE");
+        entityManager.persist(habitacion);
+        cliente = cliente("62000001", "cliente.conteo");
+        otro = cliente("62000002", "otro.conteo");
+
+        persistir(cliente, LocalDate.of(2028, 1, 1), "ACTIVA");
+        persistir(cliente, LocalDate.of(2028, 2, 1), "finalizada");
+        persistir(cliente, LocalDate.of(2028, 3, 1), "FINALIZADA");
+        persistir(cliente, LocalDate.of(2028, 4, 1), "PENDIENTE");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testConteosPorEstado_UnaConsultaAgrupada() {
+        assertEquals(4, reservaService.contarReservasPorCliente("cliente.conteo"));
+        assertEquals(1, reservaService.contarReservasActivasPorCliente("cliente.conteo"));
+        assertEquals(2, reservaService.contarReservasFinalizadasPorCliente("cliente.conteo"));
+        assertEquals(0, reservaService.contarReservasPorCliente("otro.conteo"));
+        assertEquals(0, reservaService.contarReservasActivasPorCliente("desconocido"));
+
+        List<Reserva> reservas = reservaService.obtenerReservasPorClienteId(cliente.getId());
+        assertEquals(4, reservas.size());
+        assertTrue(reservas.stream().allMatch(r -> r.getCliente().getId().equals(cliente.getId())));
+    }
+
+    @Test
+    void testCosteIndependienteDelTotalDeReservas() {
+        int entidadesAntes = entidadesCargadas();
+
+        for (int i = 0; i < 300; i++) {
+            persistir(otro, LocalDate.of(2027, 1, 1).plusDays(i), "FINALIZADA");
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(entidadesAntes, entidadesCargadas());
+    }
+
+    private int entidadesCargadas() {
+        Session session = entityManager.unwrap(Session.class);
+        session.clear();
+        reservaService.contarReservasPorCliente("cliente.conteo");
+        reservaService.contarReservasActivasPorCliente("cliente.conteo");
+        reservaService.contarReservasFinalizadasPorCliente("cliente.conteo");
+        assertEquals(0, session.getStatistics().getEntityCount());
+
+        reservaService.obtenerReservasPorClienteId(cliente.getId());
+        int cargadas = session.getStatistics().getEntityCount();
+        session.clear();
+        return cargadas;
+    }
+
+    private Cliente cliente(String dni, String username) {
+        Usuario usuario = new Usuario(username, "secreto", "ROLE_CLIENTE");
+        entityManager.persist(usuario);
+        Cliente nuevo = new Cliente();
+        nuevo.setNombres("Conteo");
+        nuevo.setApellidos("Cliente");
+        nuevo.setDni(dni);
+        nuevo.setUsuario(usuario);
+        entityManager.persist(nuevo);
+        return nuevo;
+    }
+
+    private void persistir(Cliente titular, LocalDate inicio, String estado) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(titular);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(inicio.plusDays(1));
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia(1);
+        reserva.setTotalPagar(90.0);
+        reserva.setEstadoReserva(estado);
+        entityManager.persist(reserva);
+    }
+}
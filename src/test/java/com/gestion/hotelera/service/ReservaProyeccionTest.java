@@ -0,0 +1,115 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.dto.ReservaDTO;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Pago;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.model.Servicio;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservaProyeccionTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    private Cliente cliente;
+    private Reserva conPago;
+    private Reserva sinPago;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNombres("Lucia");
+        cliente.setApellidos("Quispe");
+        cliente.setDni("70123456");
+        cliente.setEmail("lucia@test.com");
+        cliente.setTelefono("999888777");
+        entityManager.persist(cliente);
+
+        Habitacion habitacion = new Habitacion("P01", "Doble", 80.0, "DISPONIBLE");
+        entityManager.persist(habitacion);
+
+        Servicio spa = new Servicio("Spa", "Circuito", 30.0, true);
+        Servicio cena = new Servicio("Cena", "Buffet", 20.0, true);
+        entityManager.persist(spa);
+        entityManager.persist(cena);
+
+        conPago = reserva(habitacion, LocalDate.of(2030, 1, 10), "ACTIVA", 160.0, 15.0);
+        conPago.getServicios().add(spa);
+        conPago.getServicios().add(cena);
+        entityManager.persist(conPago);
+        entityManager.persist(new Pago(conPago, 160.0, 50.0, 195.0, "TARJETA", "COMPLETADO", "REF-1", "WEB"));
+
+        sinPago = reserva(habitacion, LocalDate.of(2030, 2, 10), "PENDIENTE", 80.0, null);
+        entityManager.persist(sinPago);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testListarReservasDTO_ProyeccionEquivalenteAEntidad() {
+        List<ReservaDTO> dtos = reservaService.listarReservasDTOPorCliente(cliente.getId());
+
+        assertEquals(2, dtos.size());
+        ReservaDTO activa = dtos.get(0);
+        assertEquals(conPago.getId(), activa.getId());
+        assertEquals("Lucia Quispe", activa.getClienteNombre());
+        assertEquals("P01", activa.getHabitacionNumero());
+        assertEquals(195.0, activa.getTotal());
+        assertEquals("TARJETA", activa.getMetodoPago());
+        assertEquals(2, activa.getServicios().size());
+        assertTrue(activa.getServicios().contains("Spa - S/.30.0"));
+        assertEquals("999888777", activa.getCliente().getTelefono());
+        assertEquals(80.0, activa.getHabitacion().getPrecioPorNoche());
+
+        ReservaDTO pendiente = dtos.get(1);
+        assertEquals("Por definir", pendiente.getMetodoPago());
+        assertEquals(80.0, pendiente.getTotal());
+        assertTrue(pendiente.getServicios().isEmpty());
+    }
+
+    @Test
+    void testListarReservasDTO_PaginadoOrdenDescendente() {
+        List<ReservaDTO> todas = reservaService.listarReservasDTO(Pageable.unpaged());
+        List<ReservaDTO> primera = reservaService.listarReservasDTO(PageRequest.of(0, 1));
+        List<ReservaDTO> segunda = reservaService.listarReservasDTO(PageRequest.of(1, 1));
+
+        assertTrue(todas.size() >= 2);
+        assertEquals(sinPago.getId(), primera.get(0).getId());
+        assertEquals(conPago.getId(), segunda.get(0).getId());
+        assertEquals(List.of(sinPago.getId()), reservaService.listarUltimasReservasDTO(1).stream()
+                .map(ReservaDTO::getId).toList());
+    }
+
+    private Reserva reserva(Habitacion habitacion, LocalDate inicio, String estado, Double total, Double descuento) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(cliente);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(inicio.plusDays(2));
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia(2);
+        reserva.setTotalPagar(total);
+        reserva.setMontoDescuento(descuento);
+        reserva.setEstadoReserva(estado);
+        return reserva;
+    }
+}
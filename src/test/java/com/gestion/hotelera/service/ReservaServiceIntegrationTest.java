@@ -46,6 +46,9 @@ class ReservaServiceIntegrationTest {
     @Mock
     private AuditoriaService auditoriaService;
 
+    @Mock
+    private LibroIngresosService libroIngresosService;
+
     @InjectMocks
     private ReservaService reservaService;
 
@@ -147,37 +150,6 @@ class ReservaServiceIntegrationTest {
         verify(reservaRepository).save(any(Reserva.class));
     }
 
-    @Test
-    @DisplayName("Debería calcular ingresos totales de reservas finalizadas")
-    void deberiaCalcularIngresosTotalesDeReservasFinalizadas() {
-        // Given
-        Reserva reservaFinalizada1 = crearReserva(
-                LocalDate.now().minusDays(5),
-                LocalDate.now().minusDays(3),
-                "FINALIZADA",
-                500.0);
-        Reserva reservaFinalizada2 = crearReserva(
-                LocalDate.now().minusDays(3),
-                LocalDate.now().minusDays(1),
-                "FINALIZADA",
-                550.0);
-        Reserva reservaPendiente = crearReserva(
-                LocalDate.now().plusDays(1),
-                LocalDate.now().plusDays(3),
-                "PENDIENTE",
-                300.0);
-
-        when(reservaRepository.findAll()).thenReturn(Arrays.asList(
-                reservaFinalizada1, reservaFinalizada2, reservaPendiente));
-
-        // When
-        double ingresos = reservaService.calcularIngresosTotales();
-
-        // Then
-        assertThat(ingresos).isEqualTo(1050.0);
-        verify(reservaRepository).findAll();
-    }
-
     @Test
     @DisplayName("Debería obtener reservas por cliente")
     void deberiaObtenerReservasPorCliente() {
@@ -0,0 +1,94 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.repository.ReservaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ScheduledEmailServiceTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduledEmailService scheduledEmailService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduledEmailService = new ScheduledEmailService(reservaRepository, emailService, meterRegistry,
+                new CoordinadorTareasLocal());
+    }
+
+    @Test
+    void testRecordatorios_ConsultaSoloLlegadasDeMananaSinRecorrerLaTabla() {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        when(reservaRepository.findLlegadasConClienteEntre(eq(manana), eq(List.of("PENDIENTE")), eq(0L),
+                eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(reserva(5L, "ana@test.com", "101"), reserva(9L, " ", null)));
+
+        scheduledEmailService.enviarRecordatoriosCheckIn();
+
+        verify(emailService).enviarRecordatorioCheckIn("ana@test.com", "Ana", "5", manana.toString(), "101");
+        verifyNoMoreInteractions(emailService);
+        verify(reservaRepository, never()).findAll();
+        assertEquals(2.0, meterRegistry.counter("hotel.tareas.filas.leidas", "tarea", "recordatorios_checkin").count());
+        assertEquals(1.0,
+                meterRegistry.counter("hotel.tareas.emails.encolados", "tarea", "recordatorios_checkin").count());
+        assertEquals(1, meterRegistry.timer("hotel.tareas.duracion", "tarea", "recordatorios_checkin").count());
+    }
+
+    @Test
+    void testVerificacionVencidas_RecorrePaginasPorClave() {
+        List<IntervaloReserva> primeraPagina = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            primeraPagina.add(new IntervaloReserva(id, 1L, LocalDate.now().minusDays(5),
+                    LocalDate.now().minusDays(2), null, "ACTIVA"));
+        }
+        when(reservaRepository.findVencidasDesde(any(), anyList(), eq(0L), any())).thenReturn(primeraPagina);
+        when(reservaRepository.findVencidasDesde(any(), anyList(), eq(200L), any()))
+                .thenReturn(Collections.emptyList());
+
+        scheduledEmailService.actualizarEstadosReservas();
+
+        verify(reservaRepository).findVencidasDesde(any(), anyList(), eq(200L), any());
+        verify(reservaRepository, never()).findAll();
+        assertEquals(200.0,
+                meterRegistry.counter("hotel.tareas.filas.leidas", "tarea", "verificacion_vencidas").count());
+    }
+
+    private Reserva reserva(Long id, String email, String numeroHabitacion) {
+        Cliente cliente = new Cliente();
+        cliente.setNombres("Ana");
+        cliente.setEmail(email);
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setCliente(cliente);
+        reserva.setFechaInicio(LocalDate.now().plusDays(1));
+        if (numeroHabitacion != null) {
+            Habitacion habitacion = new Habitacion();
+            habitacion.setNumero(numeroHabitacion);
+            reserva.setHabitacion(habitacion);
+        }
+        return reserva;
+    }
+}
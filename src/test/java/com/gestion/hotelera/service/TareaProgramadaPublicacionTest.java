@@ -0,0 +1,90 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.dto.IntervaloReserva;
+import com.gestion.hotelera.event.ReservaCambioEvent;
+import com.gestion.hotelera.repository.ReservaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("null")
+class TareaProgramadaPublicacionTest {
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @Mock
+    private ReservaRepository reservaRepository;
+    @Mock
+    private HabitacionService habitacionService;
+    @Mock
+    private LibroIngresosService libroIngresosService;
+    @Mock
+    private AuditoriaService auditoriaService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TareaProgramadaService tareaProgramadaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tareaProgramadaService = new TareaProgramadaService(reservaRepository, habitacionService, libroIngresosService,
+                auditoriaService, eventPublisher, new SimpleMeterRegistry(), new CoordinadorTareasLocal(),
+                transactionManager);
+        when(reservaRepository.findVencidasDesde(any(), anyList(), anyLong(), any()))
+                .thenReturn(Collections.emptyList());
+        when(reservaRepository.findIniciadasDesde(any(), anyList(), anyLong(), any()))
+                .thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void testActivar_UpdateParcial_PublicaSoloLasReservasQueCambiaron() {
+        IntervaloReserva aplicada = intervalo(1L, "PENDIENTE");
+        IntervaloReserva cancelada = intervalo(2L, "PENDIENTE");
+        when(reservaRepository.findIniciadasDesde(any(), anyList(), eq(0L), any()))
+                .thenReturn(List.of(aplicada, cancelada));
+        when(reservaRepository.activarIniciadas(eq(List.of(1L, 2L)), anyList(), eq(hoy), eq("ACTIVA")))
+                .thenReturn(1);
+        when(reservaRepository.findIdsConEstado(List.of(1L, 2L), "ACTIVA")).thenReturn(List.of(1L));
+
+        tareaProgramadaService.sincronizarReservasYHabitaciones();
+
+        ArgumentCaptor<ReservaCambioEvent> evento = ArgumentCaptor.forClass(ReservaCambioEvent.class);
+        verify(eventPublisher).publishEvent(evento.capture());
+        assertEquals(1L, evento.getValue().getReservaId());
+        assertEquals("ACTIVA", evento.getValue().getActual().getEstadoReserva());
+        verify(libroIngresosService).contabilizar(List.of(1L));
+    }
+
+    @Test
+    void testFinalizar_UpdateCompleto_NoRelee() {
+        when(reservaRepository.findVencidasDesde(any(), anyList(), eq(0L), any()))
+                .thenReturn(List.of(intervalo(3L, "ACTIVA"), intervalo(4L, "ACTIVA")));
+        when(reservaRepository.finalizarVencidas(anyCollection(), anyList(), eq(hoy), eq("FINALIZADA")))
+                .thenReturn(2);
+
+        tareaProgramadaService.sincronizarReservasYHabitaciones();
+
+        verify(eventPublisher, times(2)).publishEvent(any(ReservaCambioEvent.class));
+        verify(reservaRepository, never()).findIdsConEstado(anyCollection(), anyString());
+    }
+
+    private IntervaloReserva intervalo(Long id, String estado) {
+        return new IntervaloReserva(id, 10L + id, hoy.minusDays(3), hoy.minusDays(1), null, estado);
+    }
+}
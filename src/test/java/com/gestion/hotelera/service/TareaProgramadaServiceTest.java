@@ -0,0 +1,123 @@
+package com.gestion.hotelera.service;
+
+import com.gestion.hotelera.BaseIntegrationTest;
+import com.gestion.hotelera.model.Cliente;
+import com.gestion.hotelera.model.Habitacion;
+import com.gestion.hotelera.model.Reserva;
+import com.gestion.hotelera.repository.IngresoReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TareaProgramadaServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TareaProgramadaService tareaProgramadaService;
+
+    @Autowired
+    private IngresoReservaRepository ingresoReservaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LocalDate hoy = LocalDate.now();
+    private Cliente cliente;
+    private Habitacion liberada;
+    private Habitacion ocupada;
+    private Habitacion mantenimiento;
+    private Reserva vencida;
+    private Reserva iniciada;
+    private Reserva futura;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setNombres("Sincro");
+        cliente.setApellidos("Nizacion");
+        cliente.setDni("63000001");
+        entityManager.persist(cliente);
+
+        liberada = habitacion("S01", "OCUPADA");
+        ocupada = habitacion("S02", "DISPONIBLE");
+        mantenimiento = habitacion("S03", "MANTENIMIENTO");
+
+        vencida = reserva(liberada, hoy.minusDays(4), hoy.minusDays(2), "ACTIVA");
+        iniciada = reserva(ocupada, hoy.minusDays(1), hoy.plusDays(2), "PENDIENTE");
+        futura = reserva(mantenimiento, hoy.plusDays(5), hoy.plusDays(7), "PENDIENTE");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testSincronizar_TransicionesMasivasYConciliacion() {
+        double finalizadasAntes = filas("finalizar_reservas");
+        double activadasAntes = filas("activar_reservas");
+        double habitacionesAntes = filas("conciliar_habitaciones");
+
+        tareaProgramadaService.sincronizarReservasYHabitaciones();
+        entityManager.clear();
+
+        assertEquals("FINALIZADA", entityManager.find(Reserva.class, vencida.getId()).getEstadoReserva());
+        assertEquals("ACTIVA", entityManager.find(Reserva.class, iniciada.getId()).getEstadoReserva());
+        assertEquals("PENDIENTE", entityManager.find(Reserva.class, futura.getId()).getEstadoReserva());
+
+        assertEquals("DISPONIBLE", entityManager.find(Habitacion.class, liberada.getId()).getEstado());
+        assertEquals("OCUPADA", entityManager.find(Habitacion.class, ocupada.getId()).getEstado());
+        assertEquals("MANTENIMIENTO", entityManager.find(Habitacion.class, mantenimiento.getId()).getEstado());
+
+        assertTrue(ingresoReservaRepository.findById(iniciada.getId()).isPresent());
+        assertTrue(filas("finalizar_reservas") - finalizadasAntes >= 1);
+        assertTrue(filas("activar_reservas") - activadasAntes >= 1);
+        assertTrue(filas("conciliar_habitaciones") - habitacionesAntes >= 2);
+        assertNotNull(meterRegistry.find("hotel.tareas.duracion").tag("tarea", "activar_reservas").timer());
+    }
+
+    @Test
+    void testSincronizar_SegundaEjecucionNoCambiaNada() {
+        tareaProgramadaService.sincronizarReservasYHabitaciones();
+        double finalizadas = filas("finalizar_reservas");
+        double activadas = filas("activar_reservas");
+        double habitaciones = filas("conciliar_habitaciones");
+
+        tareaProgramadaService.sincronizarReservasYHabitaciones();
+
+        assertEquals(finalizadas, filas("finalizar_reservas"));
+        assertEquals(activadas, filas("activar_reservas"));
+        assertEquals(habitaciones, filas("conciliar_habitaciones"));
+    }
+
+    private double filas(String tarea) {
+        return meterRegistry.counter("hotel.tareas.filas.actualizadas", "tarea", tarea).count();
+    }
+
+    private Habitacion habitacion(String numero, String estado) {
+        Habitacion habitacion = new Habitacion(numero, "Doble", 70.0, estado);
+        entityManager.persist(habitacion);
+        return habitacion;
+    }
+
+    private Reserva reserva(Habitacion habitacion, LocalDate inicio, LocalDate fin, String estado) {
+        Reserva reserva = new Reserva();
+        reserva.setCliente(cliente);
+        reserva.setHabitacion(habitacion);
+        reserva.setFechaInicio(inicio);
+        reserva.setFechaFin(fin);
+        reserva.setHoraEntrada(LocalTime.of(14, 0));
+        reserva.setHoraSalida(LocalTime.of(12, 0));
+        reserva.setDiasEstadia((int) (fin.toEpochDay() - inicio.toEpochDay()));
+        reserva.setTotalPagar(140.0);
+        reserva.setEstadoReserva(estado);
+        entityManager.persist(reserva);
+        return reserva;
+    }
+}